@@ -0,0 +1,42 @@
+package com.mcp.server.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks uber-jar.
+ * <p>
+ * Runs every benchmark in this module (or only those matching the first argument)
+ * with the GC/allocation profiler enabled and writes machine-readable results, so
+ * that runs can be diffed by CI:
+ * <pre>
+ * mvn -pl benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar [include-regex] [result-file]
+ * </pre>
+ * The default result file is {@code target/jmh-result.json}. For ad-hoc runs the
+ * stock JMH command line is still available through {@code org.openjdk.jmh.Main}.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException("Runner class cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com\\.mcp\\.server\\..*Benchmark";
+        String resultFile = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mcp.server.benchmarks;
+
+import com.mcp.server.domain.user.entity.user.User;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+        throw new UnsupportedOperationException("Fixture class cannot be instantiated");
+    }
+
+    /**
+     * A representative {@code chat.completion} body as returned by OpenAI for a "create" prompt.
+     */
+    public static final byte[] CHAT_COMPLETION = ("""
+            {
+              "id": "chatcmpl-9dXWnqT5c5oQ0Ylq8jA3lmPV3bS1F",
+              "object": "chat.completion",
+              "created": 1719140000,
+              "model": "gpt-4o-mini-2024-07-18",
+              "choices": [
+                {
+                  "index": 0,
+                  "message": {
+                    "role": "assistant",
+                    "content": "{\\"operation\\":\\"create\\",\\"data\\":{\\"name\\":\\"John Doe\\",\\"mail\\":\\"john@example.com\\",\\"age\\":30}}",
+                    "refusal": null
+                  },
+                  "logprobs": null,
+                  "finish_reason": "stop"
+                }
+              ],
+              "usage": {
+                "prompt_tokens": 118,
+                "completion_tokens": 27,
+                "total_tokens": 145
+              },
+              "system_fingerprint": "fp_d576307f90"
+            }
+            """).getBytes(StandardCharsets.UTF_8);
+
+    public static User user(SplittableRandom random) {
+        Instant now = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(10_000_000));
+        return User.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()))
+                .createdAt(now)
+                .updatedAt(now)
+                .name("User " + Integer.toHexString(random.nextInt()))
+                .mail("user" + Integer.toHexString(random.nextInt()) + "@example.com")
+                .age(18 + random.nextInt(60))
+                .build();
+    }
+
+    public static List<User> users(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) users.add(user(random));
+        return users;
+    }
+
+    /**
+     * Builds an implementation of {@code type} that answers calls by method name.
+     * Used to stand in for Spring Data repositories and services without a container.
+     *
+     * @param type     the interface to implement
+     * @param handlers method name to handler; the handler receives the call arguments
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, BiFunction<String, Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            BiFunction<String, Object[], Object> handler = handlers.get(method.getName());
+            if (handler != null) return handler.apply(method.getName(), args);
+            if (method.getName().equals("toString")) return type.getSimpleName() + "Stub";
+            if (method.getName().equals("hashCode")) return System.identityHashCode(proxy);
+            if (method.getName().equals("equals")) return proxy == args[0];
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.mcp.server.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.common.metrics.McpMetrics;
+import com.mcp.server.domain.client.OpenAiClient;
+import com.mcp.server.domain.client.audit.NlpAuditLog;
+import com.mcp.server.domain.client.cache.PersistentCommandCache;
+import com.mcp.server.domain.client.config.CommandCacheProperties;
+import com.mcp.server.domain.client.config.NlpAuditProperties;
+import com.mcp.server.domain.client.config.NlpPrefetchProperties;
+import com.mcp.server.domain.client.prefetch.PromptPrefetcher;
+import com.mcp.server.domain.client.service.public_api.user.core.ClientService;
+import com.mcp.server.domain.client.service.public_api.user.core.NlpCrudService;
+import com.mcp.server.domain.user.entity.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the command mapping done by {@link NlpCrudService#process(Map)}: reading the
+ * command map returned by the LLM, building DTOs, parsing ids and dispatching to
+ * {@link ClientService}. Both collaborators are in-memory stubs, so the numbers
+ * exclude network and database time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NlpCrudServiceBenchmark {
+
+    @Param({"create", "get", "getAll", "update", "delete"})
+    public String operation;
+
+    private NlpCrudService service;
+    private Map<String, Object> body;
+
+    @Setup
+    public void setUp() {
+        User user = Fixtures.user(new SplittableRandom(7));
+        List<User> all = Fixtures.users(100, 11);
+        String id = user.getId().toString();
+
+        Map<String, Object> command = switch (operation) {
+            case "create" -> Map.of("operation", "create", "data", Map.of("name", "John Doe", "mail", "john@example.com", "age", 30));
+            case "get" -> Map.of("operation", "get", "data", Map.of("id", id));
+            case "getAll" -> Map.of("operation", "get", "data", Map.of());
+            case "update" -> Map.of("operation", "update", "data", Map.of("id", id, "age", 35));
+            case "delete" -> Map.of("operation", "delete", "data", Map.of("id", id));
+            default -> throw new IllegalStateException(operation);
+        };
+
+        ClientService clientService = Fixtures.stub(ClientService.class, Map.of(
+                "create", (m, a) -> user,
+                "getAll", (m, a) -> all,
+                "getById", (m, a) -> user,
+                "update", (m, a) -> user,
+                "deleteById", (m, a) -> true));
+
+        McpMetrics metrics = new McpMetrics(new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+        OpenAiClient openAiClient = new OpenAiClient(null, null, null, metrics) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T chatJson(String prompt, Class<T> responseType) {
+                return (T) command;
+            }
+        };
+
+        // Disabled: every iteration must exercise the full mapping path
+        PersistentCommandCache commandCache = new PersistentCommandCache(
+                new CommandCacheProperties(false, null, 1, 2), null, new ObjectMapper(), new SimpleMeterRegistry());
+
+        // Never started, so recording is a no-op
+        NlpAuditLog auditLog = new NlpAuditLog(new NlpAuditProperties(false, 2, 1, Duration.ofMillis(200),
+                NlpAuditProperties.Overflow.DROP, Duration.ZERO), null, null, new ObjectMapper(), new SimpleMeterRegistry());
+
+        // Disabled: the stubbed OpenAI call returns at once, so there is nothing to overlap
+        PromptPrefetcher prefetcher = new PromptPrefetcher(clientService,
+                new NlpPrefetchProperties(false, 1, 1, Duration.ofMillis(200)), new SimpleMeterRegistry());
+
+        // No request deadline is bound, so commands never open an enclosing transaction
+        PlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+            @Override protected Object doGetTransaction() { return new Object(); }
+            @Override protected void doBegin(Object transaction, TransactionDefinition definition) {}
+            @Override protected void doCommit(DefaultTransactionStatus status) {}
+            @Override protected void doRollback(DefaultTransactionStatus status) {}
+        };
+
+        service = new NlpCrudService(clientService, openAiClient, metrics, commandCache, auditLog, prefetcher,
+                transactionManager);
+        body = Map.of("prompt", "benchmark prompt");
+    }
+
+    @Benchmark
+    public void process(Blackhole bh) {
+        bh.consume(service.process(body));
+    }
+}
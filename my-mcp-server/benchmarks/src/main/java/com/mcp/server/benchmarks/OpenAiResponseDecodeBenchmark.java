@@ -0,0 +1,52 @@
+package com.mcp.server.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.domain.client.OpenAiResponseDecoder;
+import com.mcp.server.domain.client.dto.public_api.response.OpenAiChatResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares two ways of decoding a chat completion body into the command map:
+ * <ul>
+ *     <li>{@code recordBindingThenContent} - the original approach: bind the whole body to
+ *     {@link OpenAiChatResponse}, then parse the content string a second time</li>
+ *     <li>{@code streamingDecode} - {@link OpenAiResponseDecoder}, a single parser pass that
+ *     parses the content in place</li>
+ * </ul>
+ * Compare {@code gc.alloc.rate.norm} (bytes per operation) to see the allocation saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpenAiResponseDecodeBenchmark {
+
+    private ObjectMapper mapper;
+    private OpenAiResponseDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        // Same leniency as the Spring Boot auto-configured mapper used by RestClient
+        mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        decoder = new OpenAiResponseDecoder(mapper);
+    }
+
+    @Benchmark
+    public Map<?, ?> recordBindingThenContent() throws IOException {
+        OpenAiChatResponse resp = mapper.readValue(Fixtures.CHAT_COMPLETION, OpenAiChatResponse.class);
+        String content = resp.choices().get(0).message().content();
+        return mapper.readValue(content, Map.class);
+    }
+
+    @Benchmark
+    public Map<?, ?> streamingDecode() throws IOException {
+        return decoder.decode(Fixtures.CHAT_COMPLETION, Map.class).content();
+    }
+}
@@ -0,0 +1,79 @@
+package com.mcp.server.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the negotiable encodings of the {@code GET /users} response body: serialization
+ * CPU per format, with and without the gzip step {@code server.compression} adds. Bytes on
+ * the wire for each format are printed once per trial, raw and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<UserResponseDto> users;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+        writer = new ObjectMapper(factory).writerFor(new TypeReference<List<UserResponseDto>>() {});
+        users = Fixtures.users(size, 5).stream()
+                .map(ResponseEncodingBenchmark::toDto)
+                .toList();
+
+        byte[] raw = serialize();
+        System.out.printf("%n%s, %d users: %d bytes, %d bytes gzipped%n", format, size, raw.length, gzip(raw).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        return gzip(writer.writeValueAsBytes(users));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static UserResponseDto toDto(User u) {
+        return new UserResponseDto(u.getId(), u.getName(), u.getMail(), u.getAge());
+    }
+}
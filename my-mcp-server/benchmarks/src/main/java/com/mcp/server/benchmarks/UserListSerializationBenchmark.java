@@ -0,0 +1,62 @@
+package com.mcp.server.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of the {@code GET /users} response body, in full and
+ * with {@code ?fields=id,mail}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserListSerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ObjectWriter projectedWriter;
+    private List<UserResponseDto> users;
+    private List<ProjectedUser> projected;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writerFor(new TypeReference<List<UserResponseDto>>() {});
+        users = Fixtures.users(size, 5).stream()
+                .map(UserListSerializationBenchmark::toDto)
+                .toList();
+        projectedWriter = new ObjectMapper().writerFor(new TypeReference<List<ProjectedUser>>() {});
+        List<UserField> fields = List.of(UserField.ID, UserField.MAIL);
+        projected = users.stream()
+                .map(u -> new ProjectedUser(fields, new Object[]{u.id(), u.mail()}))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeIdAndMail() throws IOException {
+        return projectedWriter.writeValueAsBytes(projected);
+    }
+
+    private static UserResponseDto toDto(User u) {
+        return new UserResponseDto(u.getId(), u.getName(), u.getMail(), u.getAge());
+    }
+}
@@ -0,0 +1,76 @@
+package com.mcp.server.benchmarks;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.bloom.UserBloomGuard;
+import com.mcp.server.domain.user.bloom.UserBloomProperties;
+import com.mcp.server.domain.user.changes.UserChangesProperties;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.repository.public_api.user.UserRepository;
+import com.mcp.server.domain.user.search.UserSearchIndex;
+import com.mcp.server.domain.user.service.public_api.user.core.impl.UserServiceImpl;
+import com.mcp.server.domain.user.shard.MailShardIndex;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.shard.UserShardingProperties;
+import com.mcp.server.domain.user.shard.UserShards;
+import com.mcp.server.domain.user.snapshot.UserSnapshot;
+import com.mcp.server.domain.user.snapshot.UserSnapshotProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the entity to {@link UserResponseDto} mapping in {@link UserServiceImpl}
+ * for single lookups and for list reads. The repository is an in-memory stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private UserServiceImpl service;
+    private UUID id;
+
+    @Setup
+    public void setUp() {
+        List<User> users = Fixtures.users(size, 3);
+        User first = users.get(0);
+        id = first.getId();
+
+        UserRepository repository = Fixtures.stub(UserRepository.class, Map.of(
+                "findById", (m, a) -> Optional.of(first),
+                "findAll", (m, a) -> users));
+        // Sharding disabled: a single shard, so every call goes straight to the stub
+        UserShards shards = new UserShards(new UserShardingProperties(false, 1, null), null);
+        ShardedUserRepository sharded = new ShardedUserRepository(repository, shards, new MailShardIndex(shards));
+        // Snapshot and Bloom filters disabled, so lookups take the repository path
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserChangesProperties changesProps = new UserChangesProperties(1, 1, 1, Duration.ZERO, null, null, null);
+        UserSnapshot snapshot = new UserSnapshot(new UserSnapshotProperties(false, null, 0, null), sharded, null, shards,
+                changesProps, registry);
+        UserBloomGuard bloomGuard = new UserBloomGuard(new UserBloomProperties(false, 0, 0.01, null, null), sharded, null, shards,
+                changesProps, registry);
+        service = new UserServiceImpl(sharded, event -> { }, new UserSearchIndex(sharded), null, snapshot, bloomGuard);
+    }
+
+    @Benchmark
+    public Optional<UserResponseDto> getById() {
+        return service.getById(id);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> getAll() {
+        return service.getAll();
+    }
+}
@@ -0,0 +1,110 @@
+package com.mcp.server.benchmarks;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.snapshot.MappedUserStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups served from the memory-mapped {@link MappedUserStore} with a primary
+ * key lookup in an in-memory H2 database.
+ * <p>
+ * The database side is a plain prepared statement mapped to {@link UserResponseDto}, with
+ * no pool, transaction or Hibernate session around it, so it is a lower bound for the JPA
+ * path {@code getById} takes without the snapshot.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private Path directory;
+    private MappedUserStore store;
+    private Connection connection;
+    private PreparedStatement byId;
+    private UUID[] ids;
+    private String[] mails;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        List<User> users = Fixtures.users(size, 11);
+        directory = Files.createTempDirectory("user-snapshot-bench");
+        store = new MappedUserStore(directory, size);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:snapshot-bench;MODE=PostgreSQL");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create table users (id uuid primary key, name varchar(255) not null,"
+                    + " mail varchar(255) not null, age int not null)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into users values (?, ?, ?, ?)")) {
+            int batch = 0;
+            for (User u : users) {
+                store.put(u.getId(), u.getName(), u.getMail(), u.getAge());
+                insert.setObject(1, u.getId());
+                insert.setString(2, u.getName());
+                insert.setString(3, u.getMail());
+                insert.setInt(4, u.getAge());
+                insert.addBatch();
+                if (++batch % 1_000 == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        byId = connection.prepareStatement("select id, name, mail, age from users where id = ?");
+
+        // A fixed sample of keys, so every benchmark looks up the same users
+        ids = new UUID[1024];
+        mails = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            User u = users.get((int) ((long) i * size / ids.length));
+            ids[i] = u.getId();
+            mails[i] = u.getMail();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        store.close();
+        Files.deleteIfExists(directory);
+        connection.close();
+    }
+
+    @Benchmark
+    public UserResponseDto snapshotById() {
+        return store.get(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public UserResponseDto snapshotByMail() {
+        return store.getByMail(mails[next++ & (mails.length - 1)]);
+    }
+
+    @Benchmark
+    public UserResponseDto databaseById() throws SQLException {
+        byId.setObject(1, ids[next++ & (ids.length - 1)]);
+        try (ResultSet rs = byId.executeQuery()) {
+            if (!rs.next()) return null;
+            return new UserResponseDto(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3), rs.getInt(4));
+        }
+    }
+}
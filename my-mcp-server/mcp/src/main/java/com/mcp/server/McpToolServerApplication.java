@@ -3,9 +3,11 @@ package com.mcp.server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableAsync
 public class McpToolServerApplication {
     public static void main(String[] args) {
         SpringApplication.run(McpToolServerApplication.class, args);
@@ -32,7 +32,7 @@ public final class OpenAIConstants {
      * This prompt instructs the assistant to return a valid JSON object for
      * user CRUD operations. The JSON object should contain the fields:
      * <ul>
-     *     <li>{@code operation}: create, get, update, delete</li>
+     *     <li>{@code operation}: create, get, update, delete, search, aggregate</li>
      *     <li>{@code data}: the user data (empty object for "get all")</li>
      * </ul>
      * <p>
@@ -47,5 +47,10 @@ public final class OpenAIConstants {
             "You are an assistant that returns a valid JSON object for user CRUD operations. " +
             "The JSON object has fields: 'operation' (create, get, update, delete), and 'data' (the user data). " +
             "If user wants to get all, set 'operation' to 'get' and data to {}. " +
+            "If user only wants some attributes of all users, add 'fields', e.g. {'fields': ['id', 'mail']}; allowed are id, name, mail, age, createdAt, updatedAt. " +
+            "If user wants one user by mail, set 'operation' to 'get' and data to {'mail': mail}. " +
+            "If user wants several users by id, set 'operation' to 'get' and data to {'ids': [id1, id2, ...]}. " +
+            "If user wants to find users by (part of) a name or mail, set 'operation' to 'search' and data to {'query': text}. " +
+            "If user wants counts, age statistics or mail domain breakdowns, set 'operation' to 'aggregate' and data to {}. " +
             "Only output a valid JSON object, no explanations, no markdown, nothing else, Do NOT use 'email', use ONLY 'mail'.";
 }
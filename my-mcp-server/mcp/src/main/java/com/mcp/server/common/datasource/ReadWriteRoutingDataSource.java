@@ -0,0 +1,185 @@
+package com.mcp.server.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * The target is chosen when the transaction takes its first connection, so this data source
+ * must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy};
+ * only then is the {@code readOnly} flag of the transaction already known. A read goes to
+ * the primary instead when its caller committed a write within the
+ * {@linkplain ReadYourWrites read-your-writes window}, or when no replica is healthy.
+ * </p>
+ *
+ * <p>
+ * Replicas are probed every health check interval; one that fails a probe, or fails to
+ * hand out a connection, is skipped until a probe succeeds again, and the failed read
+ * falls back to the primary. Routing decisions are counted in {@code mcp.datasource.route}
+ * by {@code target} and {@code reason}, replica health is the
+ * {@code mcp.datasource.replica.healthy} gauge.
+ * </p>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasByName = new HashMap<>();
+    private final ReadYourWrites readYourWrites;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.meterRegistry = meterRegistry;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            this.replicasByName.put(name, replica);
+            targets.put(name, dataSource);
+            Gauge.builder("mcp.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "datasource-health");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Starts probing the replicas.
+     */
+    public void startHealthChecks(Duration interval, Duration timeout) {
+        int timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        long millis = interval.toMillis();
+        healthChecker.scheduleWithFixedDelay(() -> replicas.forEach(r -> r.probe(timeoutSeconds)),
+                0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return route(PRIMARY, "write");
+        }
+        if (readYourWrites.recentlyWrote()) return route(PRIMARY, "read_your_writes");
+        Replica replica = nextHealthy();
+        if (replica == null) return route(PRIMARY, "no_healthy_replica");
+        return route(replica.name, "read");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        Replica replica = replicasByName.get(key);
+        if (replica == null) return primary.getConnection();
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markDown(e);
+            route(PRIMARY, "fallback");
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Per-user connections are not used by the application; they always go to the primary
+        return primary.getConnection(username, password);
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        if (size == 0) return null;
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica r = replicas.get((start + i) % size);
+            if (r.healthy) return r;
+        }
+        return null;
+    }
+
+    private void recordWriteOnCommit() {
+        if (ReadYourWrites.currentCaller() == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.recordWrite();
+            }
+        });
+    }
+
+    private String route(String target, String reason) {
+        Counter.builder("mcp.datasource.route")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return target;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void probe(int timeoutSeconds) {
+            boolean ok;
+            try (Connection c = dataSource.getConnection()) {
+                ok = c.isValid(timeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                ok = false;
+            }
+            if (ok != healthy) log.warn("Replica {} is now {}", name, ok ? "healthy" : "unhealthy");
+            healthy = ok;
+        }
+
+        void markDown(SQLException e) {
+            if (healthy) log.warn("Replica {} failed to hand out a connection, routing reads to the primary: {}", name, e.getMessage());
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mcp.server.common.datasource;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers when each caller last committed a write, so its reads can be kept on the
+ * primary until the replicas have likely caught up.
+ * <p>
+ * The caller of the current thread is set by {@link ReplicaRoutingFilter} for web requests.
+ * Work handed to other threads on behalf of a request should be wrapped with
+ * {@link #withCaller} so it keeps the same guarantee; threads without a caller get none.
+ * </p>
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<String> CALLER = new ThreadLocal<>();
+    /** Above this many tracked callers, entries past the window are purged on the next write. */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Returns the caller of the current thread, or {@code null}.
+     */
+    public static String currentCaller() {
+        return CALLER.get();
+    }
+
+    static void bind(String caller) {
+        CALLER.set(caller);
+    }
+
+    static void unbind() {
+        CALLER.remove();
+    }
+
+    /**
+     * Runs {@code work} on the current thread as {@code caller}.
+     */
+    public static <T> T callAs(String caller, Supplier<T> work) {
+        String previous = CALLER.get();
+        CALLER.set(caller);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CALLER.remove();
+            else CALLER.set(previous);
+        }
+    }
+
+    /**
+     * Wraps {@code work} so it runs as the current thread's caller on whichever thread executes it.
+     */
+    public static <T> Supplier<T> withCaller(Supplier<T> work) {
+        String caller = CALLER.get();
+        return caller == null ? work : () -> callAs(caller, work);
+    }
+
+    /**
+     * Records a committed write by the current thread's caller.
+     */
+    void recordWrite() {
+        String caller = CALLER.get();
+        if (caller == null) return;
+        long now = System.nanoTime();
+        lastWrite.put(caller, now);
+        if (lastWrite.size() > PURGE_THRESHOLD) purge(now);
+    }
+
+    /**
+     * Whether the current thread's caller committed a write within the window.
+     */
+    boolean recentlyWrote() {
+        String caller = CALLER.get();
+        if (caller == null) return false;
+        Long at = lastWrite.get(caller);
+        return at != null && System.nanoTime() - at < windowNanos;
+    }
+
+    private void purge(long now) {
+        for (Iterator<Long> it = lastWrite.values().iterator(); it.hasNext(); ) {
+            if (now - it.next() >= windowNanos) it.remove();
+        }
+    }
+}
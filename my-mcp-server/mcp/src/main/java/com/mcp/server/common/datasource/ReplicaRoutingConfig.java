@@ -0,0 +1,99 @@
+package com.mcp.server.common.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single application data source with {@link ReadWriteRoutingDataSource}
+ * when {@code datasource.routing.enabled} is {@code true}.
+ * <p>
+ * The primary pool is built from {@code spring.datasource} as usual. Each replica pool
+ * copies the primary's Hikari settings, overrides URL, credentials and size, and reports
+ * the standard {@code hikaricp.*} pool metrics under its own name. JPA, Flyway and
+ * {@code JdbcTemplate} all use the {@link Primary} lazy proxy in front of the router;
+ * Flyway never runs in a read-only transaction, so it always migrates the primary.
+ * </p>
+ *
+ * @see ReplicaRoutingProperties
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                       ReplicaRoutingProperties props,
+                                                       FlywayProperties flywayProperties,
+                                                       MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        if (props.replicas() != null) {
+            for (ReplicaRoutingProperties.Replica replica : props.replicas()) {
+                HikariDataSource pool = replicaPool(primaryDataSource, replica, meterRegistry);
+                if (replica.migrate()) {
+                    Flyway.configure()
+                            .dataSource(pool)
+                            .locations(flywayProperties.getLocations().toArray(String[]::new))
+                            .load()
+                            .migrate();
+                }
+                replicas.put(replica.name(), pool);
+            }
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                new ReadYourWrites(props.readYourWrites().toNanos()), meterRegistry);
+        routing.startHealthChecks(props.healthCheckInterval(), props.healthCheckTimeout());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaRoutingFilter> replicaRoutingFilter(ReplicaRoutingProperties props) {
+        FilterRegistrationBean<ReplicaRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaRoutingFilter(props.callerHeader()));
+        // Ahead of the other filters, so anything they read is routed for the right caller
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static HikariDataSource replicaPool(HikariDataSource primary, ReplicaRoutingProperties.Replica replica,
+                                                MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName(replica.name());
+        config.setJdbcUrl(replica.url());
+        if (replica.username() != null) config.setUsername(replica.username());
+        if (replica.password() != null) config.setPassword(replica.password());
+        if (replica.maximumPoolSize() != null) config.setMaximumPoolSize(replica.maximumPoolSize());
+        config.setMetricRegistry(meterRegistry);
+        return new HikariDataSource(config);
+    }
+}
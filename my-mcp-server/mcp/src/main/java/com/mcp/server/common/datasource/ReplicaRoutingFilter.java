@@ -0,0 +1,34 @@
+package com.mcp.server.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the caller of each request for {@link ReadYourWrites}: the value of the caller
+ * header if present, else the remote address.
+ */
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+
+    private final String callerHeader;
+
+    public ReplicaRoutingFilter(String callerHeader) {
+        this.callerHeader = callerHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(callerHeader);
+        ReadYourWrites.bind(key != null && !key.isBlank() ? "key:" + key : "addr:" + request.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.unbind();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mcp.server.common.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for routing read-only transactions to replicas.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * datasource:
+ *   routing:
+ *     enabled: true
+ *     read-your-writes: 2s
+ *     replicas:
+ *       - name: replica-1
+ *         url: ${DB_REPLICA_URL}
+ * </pre>
+ * The primary is still configured through {@code spring.datasource}; replica pools copy
+ * its Hikari settings and override only what is given here.
+ * </p>
+ *
+ * @param enabled             whether read-only transactions are routed to replicas
+ * @param readYourWrites      how long after a caller's own commit its reads stay on the primary
+ * @param callerHeader        the request header identifying a caller; the remote address is used without it
+ * @param healthCheckInterval how often each replica is probed
+ * @param healthCheckTimeout  how long a probe may take before the replica counts as unhealthy
+ * @param replicas            the replica pools
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2s") Duration readYourWrites,
+        @DefaultValue("X-Api-Key") String callerHeader,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("1s") Duration healthCheckTimeout,
+        List<Replica> replicas
+) {
+
+    /**
+     * A replica pool.
+     *
+     * @param name            the pool name, also the {@code target} tag of the routing metrics
+     * @param url             the JDBC URL
+     * @param username        the user, the primary's if {@code null}
+     * @param password        the password, the primary's if {@code null}
+     * @param maximumPoolSize the pool size, the primary's if {@code null}
+     * @param migrate         run the Flyway migrations against this replica on start; only for
+     *                        local setups where the "replica" is a separate embedded database
+     */
+    public record Replica(String name, String url, String username, String password,
+                          Integer maximumPoolSize, boolean migrate) {}
+}
@@ -0,0 +1,50 @@
+package com.mcp.server.common.deadline;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link ClientHttpRequestFactory} on the JDK {@link HttpClient} whose response timeout is
+ * the time left until the caller's {@link RequestDeadline}, at most {@code timeout}.
+ * <p>
+ * The timeout is set per request, so an upstream call made for a request with two seconds
+ * left gives up after two seconds rather than after the configured {@code timeout}. A request
+ * whose deadline has already passed is not sent at all.
+ * </p>
+ */
+public class DeadlineClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final HttpClient httpClient;
+    private final Executor executor;
+    private final Duration timeout;
+
+    /**
+     * @param connectTimeout how long to wait for a connection
+     * @param timeout        how long to wait for a response when the caller has no tighter deadline
+     */
+    public DeadlineClientHttpRequestFactory(Duration connectTimeout, Duration timeout) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+        this.executor = new SimpleAsyncTaskExecutor("http-client-body-");
+        this.timeout = timeout;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        RequestDeadline.check();
+        // The factory only holds the timeout; the client and its connections are shared
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient, executor);
+        Duration remaining = RequestDeadline.remainingOr(timeout);
+        // The JDK client rejects a zero timeout; the deadline may have passed since the check
+        factory.setReadTimeout(remaining.isZero() ? Duration.ofMillis(1) : remaining);
+        return factory.createRequest(uri, httpMethod);
+    }
+}
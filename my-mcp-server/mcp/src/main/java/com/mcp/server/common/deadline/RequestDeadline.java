@@ -0,0 +1,139 @@
+package com.mcp.server.common.deadline;
+
+import com.mcp.server.common.exception.core.GatewayTimeoutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * The point in time by which the current request must be answered.
+ * <p>
+ * The deadline of the current thread is set by {@link RequestDeadlineFilter} for web
+ * requests and is carried into the work done on their behalf: the OpenAI call is given the
+ * remaining time as its timeout ({@link DeadlineClientHttpRequestFactory}), and transactions
+ * started through {@link #bound} time out their queries when it passes. Work handed to other
+ * threads should be wrapped with {@link #withDeadline}; threads without a deadline have none.
+ * </p>
+ *
+ * <p>
+ * Once the deadline has passed there is nobody left to answer, so {@link #check()} fails
+ * with {@link GatewayTimeoutException} (504, {@code GEN_012}) and the remaining work is skipped.
+ * </p>
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final Duration timeout;
+    private final long expiresAt;
+
+    private RequestDeadline(Duration timeout) {
+        this.timeout = timeout;
+        this.expiresAt = System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Returns a deadline {@code timeout} from now.
+     */
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(timeout);
+    }
+
+    /**
+     * Returns the deadline of the current thread, or {@code null}.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs {@code work} on the current thread within {@code deadline}.
+     */
+    public static <T> T callWithin(RequestDeadline deadline, Supplier<T> work) {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Wraps {@code work} so it runs within the current thread's deadline on whichever thread executes it.
+     */
+    public static <T> Supplier<T> withDeadline(Supplier<T> work) {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline == null ? work : () -> callWithin(deadline, work);
+    }
+
+    /**
+     * Fails if the current thread's deadline has passed; does nothing without a deadline.
+     *
+     * @throws GatewayTimeoutException if the deadline has passed
+     */
+    public static void check() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.expired()) throw new GatewayTimeoutException();
+    }
+
+    /**
+     * Whether the current thread has a deadline and it has passed. Used to tell a failure
+     * caused by a timeout derived from the deadline from any other.
+     */
+    public static boolean exceeded() {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline != null && deadline.expired();
+    }
+
+    /**
+     * Returns the time left until the current thread's deadline, at most {@code limit};
+     * {@code limit} if there is no deadline.
+     */
+    public static Duration remainingOr(Duration limit) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) return limit;
+        Duration remaining = deadline.remaining();
+        return remaining.compareTo(limit) < 0 ? remaining : limit;
+    }
+
+    /**
+     * Returns {@code tx}, or a copy of it that times out at the current thread's deadline.
+     * Spring applies the transaction timeout to every JPA and JDBC query of the transaction.
+     *
+     * @throws GatewayTimeoutException if the deadline has already passed
+     */
+    public static TransactionTemplate bound(TransactionTemplate tx) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) return tx;
+        check();
+        TransactionTemplate bounded = new TransactionTemplate(tx.getTransactionManager(), tx);
+        // Timeouts are whole seconds; queries are cut off at most a second late
+        long seconds = (deadline.remaining().toMillis() + 999) / 1000;
+        int timeout = (int) Math.min(seconds, Integer.MAX_VALUE);
+        bounded.setTimeout(tx.getTimeout() > 0 ? Math.min(tx.getTimeout(), timeout) : timeout);
+        return bounded;
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()));
+    }
+
+    public boolean expired() {
+        return expiresAt - System.nanoTime() <= 0;
+    }
+}
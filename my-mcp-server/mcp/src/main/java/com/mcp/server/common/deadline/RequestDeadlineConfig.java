@@ -0,0 +1,28 @@
+package com.mcp.server.common.deadline;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Registers {@link RequestDeadlineFilter} on {@link RequestDeadlineProperties#endpoints()},
+ * unless {@code deadline.enabled} is {@code false}.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestDeadlineProperties.class)
+public class RequestDeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            RequestDeadlineProperties props,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(props, exceptionResolver));
+        registration.setUrlPatterns(props.endpoints().keySet());
+        registration.setEnabled(props.enabled());
+        return registration;
+    }
+}
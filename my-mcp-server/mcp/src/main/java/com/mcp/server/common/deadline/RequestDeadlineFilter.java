@@ -0,0 +1,74 @@
+package com.mcp.server.common.deadline;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+import com.mcp.server.common.exception.core.BadRequestException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Binds the {@link RequestDeadline} of each request: the caller's timeout from the
+ * deadline header, capped at {@link RequestDeadlineProperties#max()}, or else the default
+ * of the endpoint. The clock starts when the request reaches the filter, so time spent
+ * waiting for admission counts against it.
+ * <p>
+ * A header that is not a positive duration is rejected with 400 ({@code GEN_002}).
+ * </p>
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final RequestDeadlineProperties props;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public RequestDeadlineFilter(RequestDeadlineProperties props, HandlerExceptionResolver exceptionResolver) {
+        this.props = props;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Duration timeout;
+        String header = request.getHeader(props.header());
+        if (header != null) {
+            timeout = parse(header);
+            if (timeout == null) {
+                exceptionResolver.resolveException(request, response, null,
+                        new BadRequestException(ExceptionError.BAD_REQUEST, Map.of("header", props.header())));
+                return;
+            }
+            if (timeout.compareTo(props.max()) > 0) timeout = props.max();
+        } else {
+            timeout = props.endpoints().get(request.getRequestURI());
+        }
+        if (timeout == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestDeadline.bind(RequestDeadline.after(timeout));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDeadline.unbind();
+        }
+    }
+
+    private static Duration parse(String raw) {
+        try {
+            Duration timeout = DurationStyle.detectAndParse(raw.trim(), ChronoUnit.MILLIS);
+            return timeout.isNegative() || timeout.isZero() ? null : timeout;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mcp.server.common.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for request deadlines.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * deadline:
+ *   header: X-Request-Timeout
+ *   max: 5m
+ *   endpoints:
+ *     "[/admin/nlp]": 30s
+ * </pre>
+ * </p>
+ *
+ * @param enabled   whether deadlines are applied at all
+ * @param header    the request header carrying the caller's timeout, e.g. {@code 2s} or {@code 2000} (milliseconds)
+ * @param max       the longest timeout a caller may ask for; longer ones are shortened
+ * @param endpoints the endpoints deadlines apply to, with the timeout used when the header is missing
+ */
+@ConfigurationProperties(prefix = "deadline")
+public record RequestDeadlineProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("X-Request-Timeout") String header,
+        @DefaultValue("5m") Duration max,
+        Map<String, Duration> endpoints
+) {
+
+    public RequestDeadlineProperties {
+        if (endpoints == null || endpoints.isEmpty()) endpoints = Map.of("/admin/nlp", Duration.ofSeconds(30));
+    }
+}
@@ -18,6 +18,10 @@ public enum ExceptionError {
     OPERATION_NOT_ALLOWED("GEN_010", "This operation is not allowed in the current state."),
     UNREACHABLE("GEN_011", "A code path marked as unreachable has been executed. This indicates a programming or control flow error."),
     GATEWAY_TIMEOUT("GEN_012", "The gateway has timed out."),
+    IDEMPOTENCY_KEY_REUSED("GEN_013", "The idempotency key was already used for a different request."),
+    IDEMPOTENCY_KEY_IN_PROGRESS("GEN_014", "A request with this idempotency key is still being processed."),
+    IDEMPOTENCY_RESPONSE_NOT_STORED("GEN_015", "A request with this idempotency key was already processed, but its response was too large to keep for replay."),
+    PAYLOAD_TOO_LARGE("GEN_016", "The request body is too large."),
     EXTERNAL_API_CALL_FAILED("INT_202", "An error occurred while calling an external system.");
 
     private final String code;
@@ -0,0 +1,21 @@
+package com.mcp.server.common.exception.core;
+
+import org.springframework.http.HttpStatus;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+
+import java.util.Map;
+
+public class ConflictException extends ApplicationException {
+    public ConflictException() {
+        super(HttpStatus.CONFLICT, ExceptionError.CONFLICT);
+    }
+
+    public ConflictException(ExceptionError exceptionError) {
+        super(HttpStatus.CONFLICT, exceptionError);
+    }
+
+    public ConflictException(ExceptionError exceptionError, Map<String, Object> errorValues) {
+        super(HttpStatus.CONFLICT, exceptionError, errorValues);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mcp.server.common.exception.core;
+
+import org.springframework.http.HttpStatus;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+
+import java.util.Map;
+
+public class GatewayTimeoutException extends ApplicationException {
+    public GatewayTimeoutException() {
+        super(HttpStatus.GATEWAY_TIMEOUT, ExceptionError.GATEWAY_TIMEOUT);
+    }
+
+    public GatewayTimeoutException(ExceptionError exceptionError) {
+        super(HttpStatus.GATEWAY_TIMEOUT, exceptionError);
+    }
+
+    public GatewayTimeoutException(ExceptionError exceptionError, Map<String, Object> errorValues) {
+        super(HttpStatus.GATEWAY_TIMEOUT, exceptionError, errorValues);
+    }
+}
@@ -0,0 +1,21 @@
+package com.mcp.server.common.exception.core;
+
+import org.springframework.http.HttpStatus;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+
+import java.util.Map;
+
+public class PayloadTooLargeException extends ApplicationException {
+    public PayloadTooLargeException() {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, ExceptionError.PAYLOAD_TOO_LARGE);
+    }
+
+    public PayloadTooLargeException(ExceptionError exceptionError) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, exceptionError);
+    }
+
+    public PayloadTooLargeException(ExceptionError exceptionError, Map<String, Object> errorValues) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, exceptionError, errorValues);
+    }
+}
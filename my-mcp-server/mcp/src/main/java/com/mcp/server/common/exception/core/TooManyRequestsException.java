@@ -0,0 +1,26 @@
+package com.mcp.server.common.exception.core;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Getter
+public class TooManyRequestsException extends ApplicationException {
+
+    /** Suggested delay before retrying, sent as the {@code Retry-After} header. */
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, ExceptionError.TOO_MANY_REQUESTS);
+        this.retryAfter = retryAfter;
+    }
+
+    public TooManyRequestsException(Duration retryAfter, Map<String, Object> errorValues) {
+        super(HttpStatus.TOO_MANY_REQUESTS, ExceptionError.TOO_MANY_REQUESTS, errorValues);
+        this.retryAfter = retryAfter;
+    }
+}
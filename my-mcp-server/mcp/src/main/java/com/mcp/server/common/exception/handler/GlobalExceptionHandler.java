@@ -0,0 +1,54 @@
+package com.mcp.server.common.exception.handler;
+
+import com.mcp.server.common.exception.core.ApplicationException;
+import com.mcp.server.common.exception.core.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Maps {@link ApplicationException}s to HTTP responses.
+ * <p>
+ * The response status is the exception's {@link ApplicationException#getStatusCode()} and the
+ * body carries its error code, message and values:
+ * <pre>
+ * {"errorCode": "GEN_007", "errorMessage": "Too many requests.", "errorValues": {...}}
+ * </pre>
+ * {@link TooManyRequestsException} additionally sets the {@code Retry-After} header.
+ * </p>
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * Error response body.
+     *
+     * @param errorCode    the stable error code, e.g. {@code GEN_007}
+     * @param errorMessage the human-readable message
+     * @param errorValues  additional details, may be {@code null}
+     */
+    public record ErrorResponse(String errorCode, String errorMessage, Map<String, Object> errorValues) {}
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(e.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(body(e));
+    }
+
+    @ExceptionHandler(ApplicationException.class)
+    public ResponseEntity<ErrorResponse> handleApplicationException(ApplicationException e) {
+        if (e.getStatusCode().is5xxServerError()) log.error("{}: {}", e.getErrorCode(), e.getErrorMessage(), e);
+        return ResponseEntity.status(e.getStatusCode()).body(body(e));
+    }
+
+    private static ErrorResponse body(ApplicationException e) {
+        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage(), e.getErrorValues());
+    }
+}
@@ -0,0 +1,34 @@
+package com.mcp.server.common.idempotency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Registers {@link IdempotencyFilter} on {@link IdempotencyProperties#paths()}, unless
+ * {@code idempotency.enabled} is {@code false}.
+ * <p>
+ * The filter runs before the dispatcher servlet, so a replayed request skips the
+ * {@code /admin/nlp} admission control as well as the controller.
+ * </p>
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store, IdempotencyProperties props,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, props, exceptionResolver, meterRegistry));
+        registration.setUrlPatterns(props.paths());
+        registration.setEnabled(props.enabled());
+        return registration;
+    }
+}
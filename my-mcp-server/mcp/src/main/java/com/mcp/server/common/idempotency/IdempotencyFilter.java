@@ -0,0 +1,276 @@
+package com.mcp.server.common.idempotency;
+
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+import com.mcp.server.common.exception.core.ApplicationException;
+import com.mcp.server.common.exception.core.BadRequestException;
+import com.mcp.server.common.exception.core.ConflictException;
+import com.mcp.server.common.exception.core.PayloadTooLargeException;
+import com.mcp.server.common.exception.core.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes {@code POST} requests carrying an {@code Idempotency-Key} header safe to retry.
+ * <p>
+ * The first request with a key executes normally and its response is kept in the
+ * {@link IdempotencyStore}. A retry with the same key and the same body gets the stored
+ * response back, marked with {@code Idempotent-Replayed: true}, without reaching the
+ * controller, so no user is created twice and no OpenAI call is repeated. The stored
+ * response keeps its headers, such as the {@code Location} of a {@code 201}. A duplicate that
+ * arrives while the first request is still running waits for it, up to
+ * {@link IdempotencyProperties#maxWait()}, and then replays its response.
+ * </p>
+ *
+ * <p>
+ * Keys are scoped to the request path. Reusing a key with a different body is rejected
+ * with 409 ({@code GEN_013}), and so is a duplicate whose wait timed out ({@code GEN_014}).
+ * Server errors and 429 responses are not stored: the entry is dropped and the next
+ * request with the key executes again. A response larger than
+ * {@link IdempotencyProperties#maxBodySize()} is not stored either, but its request is
+ * recorded as done, so a retry is rejected with 409 ({@code GEN_015}) rather than executed
+ * twice. A new key arriving while the store is full of requests still in flight is rejected
+ * with 429 ({@code GEN_007}).
+ * </p>
+ *
+ * <p>
+ * The request body is read into memory to be fingerprinted; a body larger than
+ * {@link IdempotencyProperties#maxRequestSize()} is rejected with 413 ({@code GEN_016}).
+ * </p>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    /** Headers not stored for replay: set from the stored body, or by the connection. */
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT));
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties props;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties props,
+                             HandlerExceptionResolver exceptionResolver, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.props = props;
+        this.exceptionResolver = exceptionResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(props.header()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(props.header());
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            fail(request, response, new BadRequestException(ExceptionError.BAD_REQUEST, Map.of("header", props.header())));
+            return;
+        }
+        long maxRequestSize = props.maxRequestSize().toBytes();
+        if (request.getContentLengthLong() > maxRequestSize) {
+            tooLarge(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes((int) Math.min(maxRequestSize + 1, Integer.MAX_VALUE));
+        if (body.length > maxRequestSize) {
+            tooLarge(request, response);
+            return;
+        }
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        String scopedKey = request.getRequestURI() + ' ' + key;
+        String fingerprint = fingerprint(body);
+        long deadline = System.nanoTime() + props.maxWait().toNanos();
+
+        while (true) {
+            IdempotencyStore.Claim claim;
+            try {
+                claim = store.claim(scopedKey, fingerprint);
+            } catch (TooManyRequestsException e) {
+                count("rejected");
+                fail(request, response, e);
+                return;
+            }
+            if (!claim.matches(fingerprint)) {
+                count("mismatch");
+                fail(request, response, new ConflictException(ExceptionError.IDEMPOTENCY_KEY_REUSED));
+                return;
+            }
+            if (claim.owner()) {
+                execute(cached, response, chain, claim);
+                return;
+            }
+            StoredResponse stored;
+            try {
+                stored = claim.await(Duration.ofNanos(deadline - System.nanoTime()));
+            } catch (TimeoutException e) {
+                count("timeout");
+                fail(request, response, new ConflictException(ExceptionError.IDEMPOTENCY_KEY_IN_PROGRESS));
+                return;
+            }
+            if (stored != null && !stored.replayable()) {
+                count("not_replayable");
+                fail(request, response, new ConflictException(ExceptionError.IDEMPOTENCY_RESPONSE_NOT_STORED,
+                        Map.of("status", stored.status())));
+                return;
+            }
+            if (stored != null) {
+                count("replayed");
+                replay(stored, response);
+                return;
+            }
+            // The first request failed and gave the key up; claim it again
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain chain,
+                         IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            if (status < 500 && status != 429) {
+                stored = wrapper.getContentSize() <= props.maxBodySize().toBytes()
+                        ? new StoredResponse(status, wrapper.getContentType(), headers(wrapper), wrapper.getContentAsByteArray())
+                        : StoredResponse.notReplayable(status);
+            }
+        } finally {
+            if (stored != null) claim.complete(stored);
+            else claim.abandon();
+        }
+        count("executed");
+        wrapper.copyBodyToResponse();
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) continue;
+            headers.put(name, List.copyOf(response.getHeaders(name)));
+        }
+        return headers;
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        stored.headers().forEach((name, values) -> {
+            response.setHeader(name, values.isEmpty() ? "" : values.get(0));
+            for (int i = 1; i < values.size(); i++) response.addHeader(name, values.get(i));
+        });
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void tooLarge(HttpServletRequest request, HttpServletResponse response) {
+        count("too_large");
+        fail(request, response, new PayloadTooLargeException(ExceptionError.PAYLOAD_TOO_LARGE,
+                Map.of("maxBytes", props.maxRequestSize().toBytes())));
+    }
+
+    /** Renders the exception through {@code GlobalExceptionHandler}, which filters are outside of. */
+    private void fail(HttpServletRequest request, HttpServletResponse response, ApplicationException e) {
+        exceptionResolver.resolveException(request, response, null, e);
+    }
+
+    private void count(String result) {
+        Counter.builder("mcp.idempotency").tag("result", result).register(meterRegistry).increment();
+    }
+
+    private static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serves the body read up front, so it can be fingerprinted and still be read by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
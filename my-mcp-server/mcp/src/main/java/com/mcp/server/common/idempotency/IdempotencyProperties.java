@@ -0,0 +1,43 @@
+package com.mcp.server.common.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for {@code Idempotency-Key} support.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * idempotency:
+ *   max-entries: 10000
+ *   ttl: 24h
+ *   paths: /users, /admin, /admin/nlp, /admin/nlp/jobs
+ * </pre>
+ * </p>
+ *
+ * @param enabled        whether the header is honoured at all
+ * @param header         the request header carrying the key
+ * @param paths          the {@code POST} endpoints the header applies to
+ * @param maxEntries     the number of stored responses; the least recently used are evicted first
+ * @param ttl            how long a stored response is replayed
+ * @param maxWait        how long a duplicate waits for the first request with the same key to finish
+ * @param maxBodySize    responses larger than this are not stored; a retry is refused with 409
+ *                       instead of executing again
+ * @param maxRequestSize requests with a larger body are rejected with 413, since the body is
+ *                       read into memory to be fingerprinted
+ */
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("Idempotency-Key") String header,
+        @DefaultValue({"/users", "/admin", "/admin/nlp", "/admin/nlp/jobs"}) List<String> paths,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("30s") Duration maxWait,
+        @DefaultValue("1MB") DataSize maxBodySize,
+        @DefaultValue("1MB") DataSize maxRequestSize
+) {}
@@ -0,0 +1,170 @@
+package com.mcp.server.common.idempotency;
+
+import com.mcp.server.common.exception.core.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory map from idempotency key to the response of the request that first
+ * used it.
+ * <p>
+ * {@link #claim} either makes the caller the owner of a new entry, which must later be
+ * {@linkplain Claim#complete completed} or {@linkplain Claim#abandon abandoned}, or returns
+ * the existing entry so the caller can {@linkplain Claim#await wait} for its response.
+ * Completed entries expire after {@link IdempotencyProperties#ttl()}; beyond
+ * {@link IdempotencyProperties#maxEntries()} the least recently used completed entry is
+ * evicted. Entries still in flight are never evicted, since their duplicates would execute
+ * again; when every entry is in flight, new keys are rejected with 429 ({@code GEN_007}).
+ * </p>
+ */
+@Component
+public class IdempotencyStore {
+
+    /** How long a caller rejected because every entry is in flight should wait before retrying. */
+    private static final Duration FULL_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final IdempotencyProperties props;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Access-ordered, so the eldest entry is the least recently used; guarded by {@link #lock}. */
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyStore(IdempotencyProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        Gauge.builder("mcp.idempotency.entries", this, IdempotencyStore::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the live entry for {@code key}, creating one owned by the caller if there is none.
+     *
+     * @param key         the scoped idempotency key
+     * @param fingerprint a digest of the request, stored with a new entry
+     * @return the claim on the entry
+     * @throws TooManyRequestsException if a new entry is needed and every stored one is in flight
+     */
+    public Claim claim(String key, String fingerprint) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() < 0) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry != null) return new Claim(key, entry, false);
+            if (entries.size() >= props.maxEntries() && !evictOne()) {
+                throw new TooManyRequestsException(FULL_RETRY_AFTER, Map.of("reason", "idempotency_store_full"));
+            }
+            entry = new Entry(fingerprint);
+            entries.put(key, entry);
+            return new Claim(key, entry, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the least recently used completed entry. Called with {@link #lock} held.
+     *
+     * @return {@code false} if every entry is still in flight
+     */
+    private boolean evictOne() {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().response.isDone()) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A caller's view of an entry.
+     */
+    public final class Claim {
+        private final String key;
+        private final Entry entry;
+        private final boolean owner;
+
+        private Claim(String key, Entry entry, boolean owner) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        /** Whether the caller created the entry and must execute the request. */
+        public boolean owner() {
+            return owner;
+        }
+
+        /** Whether the entry was created for a request with this fingerprint. */
+        public boolean matches(String fingerprint) {
+            return entry.fingerprint.equals(fingerprint);
+        }
+
+        /**
+         * Waits for the owner to finish.
+         *
+         * @param timeout the longest to wait
+         * @return the stored response, or {@code null} if the owner abandoned the entry
+         * @throws TimeoutException if the owner is still running after {@code timeout}
+         */
+        public StoredResponse await(Duration timeout) throws TimeoutException {
+            try {
+                return entry.response.get(Math.max(0, timeout.toNanos()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("interrupted");
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+
+        /** Stores the owner's response, releases waiting duplicates and starts the TTL. */
+        public void complete(StoredResponse response) {
+            entry.expiresAt = System.nanoTime() + props.ttl().toNanos();
+            entry.response.complete(response);
+        }
+
+        /** Removes the entry so the next request with the key executes again, and wakes waiting duplicates. */
+        public void abandon() {
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+            entry.response.complete(null);
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        /** {@link System#nanoTime()} after which a completed entry is ignored; in-flight entries never expire. */
+        volatile long expiresAt = System.nanoTime() + Long.MAX_VALUE / 2;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
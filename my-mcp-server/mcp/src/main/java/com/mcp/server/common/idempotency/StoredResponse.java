@@ -0,0 +1,27 @@
+package com.mcp.server.common.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response kept for replay.
+ *
+ * @param status      the HTTP status
+ * @param contentType the content type, may be {@code null}
+ * @param headers     the other response headers, such as {@code Location}, by name
+ * @param body        the response body; {@code null} if it was too large to keep
+ */
+public record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+
+    /**
+     * Records that a request completed with {@code status} without keeping its response, so
+     * retries are refused rather than executed again.
+     */
+    static StoredResponse notReplayable(int status) {
+        return new StoredResponse(status, null, Map.of(), null);
+    }
+
+    public boolean replayable() {
+        return body != null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mcp.server.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Central place for the application's custom meters and observations.
+ * <p>
+ * Every stage of the {@code /admin/nlp} pipeline (LLM call, command decode, command
+ * dispatch, persistence and response serialization) is wrapped in an
+ * {@link Observation}. Each observation produces both a timer with a histogram
+ * (exported through {@code /actuator/prometheus}) and a trace span, so a slow
+ * request can be broken down per stage either way.
+ * </p>
+ *
+ * <p>
+ * Meter names:
+ * <ul>
+ *     <li>{@code mcp.openai.call} - round trip to the OpenAI API, tagged by {@code model}</li>
+ *     <li>{@code mcp.openai.decode} - parsing the assistant content into a command</li>
+ *     <li>{@code mcp.nlp.dispatch} - mapping a command onto {@code ClientService}, tagged by {@code operation}</li>
+ *     <li>{@code mcp.client.operation} - each {@code ClientService} call, tagged by {@code operation}</li>
+ *     <li>{@code mcp.http.serialization} - writing a JSON response body</li>
+ *     <li>{@code mcp.nlp.operations} - NLP requests per {@code operation} and {@code outcome}</li>
+ *     <li>{@code mcp.openai.responses} - upstream responses per HTTP {@code status}</li>
+ *     <li>{@code mcp.openai.tokens} - tokens consumed per {@code type} (prompt, completion)</li>
+ *     <li>{@code mcp.db.queries} - SQL statements executed per statement {@code type}</li>
+ * </ul>
+ * </p>
+ */
+@Getter
+@Component
+@RequiredArgsConstructor
+public class McpMetrics {
+
+    public static final String OPENAI_CALL = "mcp.openai.call";
+    public static final String OPENAI_DECODE = "mcp.openai.decode";
+    public static final String NLP_DISPATCH = "mcp.nlp.dispatch";
+    public static final String CLIENT_OPERATION = "mcp.client.operation";
+    public static final String HTTP_SERIALIZATION = "mcp.http.serialization";
+
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Runs {@code work} inside an observation with a single low-cardinality tag.
+     *
+     * @param name     the observation (and timer) name
+     * @param tagKey   the tag key, or {@code null} for none
+     * @param tagValue the tag value
+     * @param work     the work to observe
+     * @param <T>      the result type
+     * @return the result of {@code work}
+     */
+    public <T> T observe(String name, String tagKey, String tagValue, Supplier<T> work) {
+        Observation observation = Observation.createNotStarted(name, observationRegistry);
+        if (tagKey != null) observation.lowCardinalityKeyValue(tagKey, tagValue == null ? "none" : tagValue);
+        return observation.observe(work);
+    }
+
+    /**
+     * Counts an NLP request by resolved operation and outcome.
+     *
+     * @param operation the command operation (e.g. "create"), or "unknown"
+     * @param outcome   "success", "client_error" or "server_error"
+     */
+    public void countOperation(String operation, String outcome) {
+        Counter.builder("mcp.nlp.operations")
+                .tag("operation", operation == null ? "unknown" : operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts an OpenAI response by HTTP status code.
+     *
+     * @param status the upstream status code
+     */
+    public void countUpstreamStatus(int status) {
+        Counter.builder("mcp.openai.responses")
+                .tag("status", String.valueOf(status))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records token usage reported by OpenAI.
+     *
+     * @param model            the model that served the request
+     * @param promptTokens     tokens in the prompt
+     * @param completionTokens tokens in the completion
+     */
+    public void recordTokens(String model, long promptTokens, long completionTokens) {
+        tokens(model, "prompt").increment(promptTokens);
+        tokens(model, "completion").increment(completionTokens);
+    }
+
+    private Counter tokens(String model, String type) {
+        return Counter.builder("mcp.openai.tokens")
+                .baseUnit("tokens")
+                .tag("model", model == null ? "unknown" : model)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
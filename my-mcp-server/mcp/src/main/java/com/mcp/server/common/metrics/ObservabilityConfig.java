@@ -0,0 +1,72 @@
+package com.mcp.server.common.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Wires the custom instrumentation described in {@link McpMetrics} into Spring MVC,
+ * Hibernate and the {@code @Observed} annotation support. The CBOR and Smile converters
+ * replace Spring MVC's defaults for those formats, so every negotiated format is timed.
+ *
+ * @see McpMetrics
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    /**
+     * Enables {@link io.micrometer.observation.annotation.Observed} on Spring beans.
+     */
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Registers the query counter with Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer(MeterRegistry meterRegistry) {
+        QueryCountingStatementInspector inspector = new QueryCountingStatementInspector(meterRegistry);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    /**
+     * Replaces Spring Boot's default JSON converter with one that times serialization.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   McpMetrics metrics) {
+        return new ObservedJackson2HttpMessageConverter(objectMapper, metrics);
+    }
+
+    /**
+     * CBOR converter for clients sending {@code Accept: application/cbor}. The mapper is
+     * built from Spring Boot's builder so it has the same modules and features as the JSON one.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, McpMetrics metrics) {
+        return new ObservedJackson2HttpMessageConverter.Cbor(builder.factory(new CBORFactory()).build(), metrics);
+    }
+
+    /**
+     * Smile converter for clients sending {@code Accept: application/x-jackson-smile}.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder, McpMetrics metrics) {
+        return new ObservedJackson2HttpMessageConverter.Smile(builder.factory(new SmileFactory()).build(), metrics);
+    }
+}
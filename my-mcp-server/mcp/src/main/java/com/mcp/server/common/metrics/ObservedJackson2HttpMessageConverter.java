@@ -0,0 +1,91 @@
+package com.mcp.server.common.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter that records response serialization as the
+ * {@link McpMetrics#HTTP_SERIALIZATION} observation, tagged by the body's top-level type.
+ * The nested {@link Cbor} and {@link Smile} converters do the same for the binary formats.
+ */
+public class ObservedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final McpMetrics metrics;
+
+    public ObservedJackson2HttpMessageConverter(ObjectMapper objectMapper, McpMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        observe(metrics, object, () -> super.writeInternal(object, type, outputMessage));
+    }
+
+    /**
+     * CBOR ({@code application/cbor}) variant; {@code objectMapper} must use a CBOR factory.
+     */
+    public static class Cbor extends MappingJackson2CborHttpMessageConverter {
+
+        private final McpMetrics metrics;
+
+        public Cbor(ObjectMapper objectMapper, McpMetrics metrics) {
+            super(objectMapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            observe(metrics, object, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    /**
+     * Smile ({@code application/x-jackson-smile}) variant; {@code objectMapper} must use a Smile factory.
+     */
+    public static class Smile extends MappingJackson2SmileHttpMessageConverter {
+
+        private final McpMetrics metrics;
+
+        public Smile(ObjectMapper objectMapper, McpMetrics metrics) {
+            super(objectMapper);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            observe(metrics, object, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private static void observe(McpMetrics metrics, Object object, Write write) throws IOException {
+        try {
+            metrics.observe(McpMetrics.HTTP_SERIALIZATION, "type", object.getClass().getSimpleName(), () -> {
+                try {
+                    write.run();
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mcp.server.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+/**
+ * Hibernate {@link StatementInspector} that counts every SQL statement Hibernate prepares,
+ * tagged by statement type, as {@code mcp.db.queries}.
+ * <p>
+ * The SQL itself is returned unchanged.
+ * </p>
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private final Counter selects;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter deletes;
+    private final Counter others;
+
+    public QueryCountingStatementInspector(MeterRegistry registry) {
+        this.selects = counter(registry, "select");
+        this.inserts = counter(registry, "insert");
+        this.updates = counter(registry, "update");
+        this.deletes = counter(registry, "delete");
+        this.others = counter(registry, "other");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String head = sql.stripLeading();
+        head = head.substring(0, Math.min(6, head.length())).toLowerCase(Locale.ROOT);
+        switch (head) {
+            case "select" -> selects.increment();
+            case "insert" -> inserts.increment();
+            case "update" -> updates.increment();
+            case "delete" -> deletes.increment();
+            default -> others.increment();
+        }
+        return sql;
+    }
+
+    private static Counter counter(MeterRegistry registry, String type) {
+        return Counter.builder("mcp.db.queries").tag("type", type).register(registry);
+    }
+}
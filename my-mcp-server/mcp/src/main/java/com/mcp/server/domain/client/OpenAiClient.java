@@ -1,37 +1,47 @@
 package com.mcp.server.domain.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.server.common.constant.OpenAIConstants;
+import com.mcp.server.common.deadline.RequestDeadline;
 import com.mcp.server.common.exception.common.enums.ExceptionError;
+import com.mcp.server.common.exception.core.GatewayTimeoutException;
 import com.mcp.server.common.exception.core.InternalServerErrorException;
+import com.mcp.server.common.metrics.McpMetrics;
 import com.mcp.server.domain.client.config.OpenAiProperties;
 import com.mcp.server.domain.client.dto.public_api.request.OpenAiChatRequest;
-import com.mcp.server.domain.client.dto.public_api.response.OpenAiChatResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestClient;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
  * Client for interacting with the OpenAI Chat API.
  * <p>
- * Sends prompts to OpenAI and parses the response as a JSON object.
+ * Sends prompts to OpenAI and parses the response as a JSON object. The response
+ * body is decoded in a single streaming pass by {@link OpenAiResponseDecoder}.
  * Provides methods for specifying a custom model or using the default one
  * defined in {@link OpenAiProperties}.
  * </p>
  *
  * <p>
  * Handles error cases including empty responses or HTTP 4xx/5xx errors, and
- * wraps them as {@link InternalServerErrorException}.
+ * wraps them as {@link InternalServerErrorException}. A call made for a request with a
+ * {@link RequestDeadline} waits at most until the deadline and then fails with
+ * {@link GatewayTimeoutException}; once the deadline has passed no call is made.
+ * </p>
+ *
+ * <p>
+ * The HTTP round trip and the decode of the assistant content are recorded as the
+ * {@link McpMetrics#OPENAI_CALL} and {@link McpMetrics#OPENAI_DECODE} observations;
+ * upstream status codes and token usage are counted as well.
  * </p>
  *
  * @see OpenAiChatRequest
- * @see OpenAiChatResponse
+ * @see OpenAiResponseDecoder
  * @see OpenAiProperties
  */
 @Slf4j
@@ -43,7 +53,8 @@ public class OpenAiClient {
 
     private final RestClient openAiRestClient;
     private final OpenAiProperties props;
-    private final ObjectMapper mapper;
+    private final OpenAiResponseDecoder decoder;
+    private final McpMetrics metrics;
 
     /**
      * Sends a prompt to OpenAI and parses the response into the specified type.
@@ -67,6 +78,7 @@ public class OpenAiClient {
      * @param <T>           the type of the response object
      * @return the parsed response object
      * @throws InternalServerErrorException if the OpenAI API call fails, response is empty, or content is invalid
+     * @throws GatewayTimeoutException      if the caller's request deadline passes before OpenAI answers
      */
     public <T> T chatJson(String prompt, String modelOverride, Class<T> responseType) {
         final String model = (modelOverride != null && !modelOverride.isBlank())
@@ -83,44 +95,40 @@ public class OpenAiClient {
         );
 
         try {
-            final OpenAiChatResponse resp = openAiRestClient
+            final OpenAiResponseDecoder.Decoded<T> decoded = metrics.observe(McpMetrics.OPENAI_CALL, "model", model, () -> openAiRestClient
                     .post()
                     .uri(CHAT_COMPLETIONS)
                     .body(requestBody)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::is4xxClientError, (req, res) -> {
-                        final String body = res.getBody() != null
-                                ? StreamUtils.copyToString(res.getBody(), StandardCharsets.UTF_8)
-                                : null;
-                        log.error("4xx OpenAI error. status={}, body={}", res.getStatusCode(), body);
-                        throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
-                    })
-                    .onStatus(HttpStatusCode::is5xxServerError, (req, res) -> {
-                        final String body = res.getBody() != null
-                                ? StreamUtils.copyToString(res.getBody(), StandardCharsets.UTF_8)
-                                : null;
-                        log.error("5xx OpenAI error. status={}, body={}", res.getStatusCode(), body);
-                        throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
-                    })
-                    .body(OpenAiChatResponse.class);
+                    .exchange((req, res) -> {
+                        final HttpStatusCode status = res.getStatusCode();
+                        metrics.countUpstreamStatus(status.value());
+                        if (status.isError()) {
+                            final String body = OpenAiResponseDecoder.readErrorBody(res.getBody());
+                            log.error("{} OpenAI error. status={}, body={}",
+                                    status.is4xxClientError() ? "4xx" : "5xx", status, body);
+                            throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
+                        }
+                        return metrics.observe(McpMetrics.OPENAI_DECODE, null, null, () -> {
+                            try {
+                                return decoder.decode(res.getBody(), responseType);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }));
 
-            if (resp == null || resp.choices() == null || resp.choices().isEmpty()) {
-                log.error("OpenAI returned empty/invalid response: {}", resp);
-                throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
+            if (decoded.usage() != null) {
+                metrics.recordTokens(model, decoded.usage().prompt_tokens(), decoded.usage().completion_tokens());
             }
+            return decoded.content();
 
-            final var first = resp.choices().get(0);
-            if (first.message() == null || first.message().content() == null || first.message().content().isBlank()) {
-                log.error("OpenAI response has no content. choice={}", first);
-                throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
-            }
-
-            final String content = first.message().content();
-            return mapper.readValue(content, responseType);
-
-        } catch (InternalServerErrorException e) {
+        } catch (InternalServerErrorException | GatewayTimeoutException e) {
             throw e; 
         } catch (Exception e) {
+            if (RequestDeadline.exceeded()) {
+                log.warn("OpenAI chat call abandoned at the request deadline: {}", e.getMessage());
+                throw new GatewayTimeoutException();
+            }
             log.error("OpenAI chat call error: {}", e.getMessage(), e);
             throw new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
         }
@@ -0,0 +1,213 @@
+package com.mcp.server.domain.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+import com.mcp.server.common.exception.core.InternalServerErrorException;
+import com.mcp.server.domain.client.dto.public_api.response.OpenAiChatResponse;
+import com.mcp.server.domain.client.dto.public_api.response.Usage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming decoder for OpenAI chat completion bodies.
+ * <p>
+ * Instead of binding the whole body to {@link OpenAiChatResponse} and then parsing
+ * {@code choices[0].message.content} a second time from a {@link String}, this decoder
+ * walks the body once with a {@link JsonParser}. When it reaches the content value it
+ * parses the embedded command directly from the parser's character buffer, so neither
+ * the response records nor a content string are allocated. Every other field is
+ * skipped without materializing it, except {@code usage}, which is needed for metrics.
+ * </p>
+ *
+ * <p>
+ * Error bodies are read through {@link #readErrorBody(InputStream)}, which stops at
+ * {@link #MAX_ERROR_BODY_BYTES} so a large upstream error page cannot be copied whole
+ * into the log.
+ * </p>
+ *
+ * @see OpenAiClient
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenAiResponseDecoder {
+
+    /** Upper bound on the number of error body bytes kept for logging. */
+    public static final int MAX_ERROR_BODY_BYTES = 2048;
+
+    private final ObjectMapper mapper;
+
+    /**
+     * Result of decoding a chat completion.
+     *
+     * @param content the assistant content parsed into the requested type
+     * @param usage   the reported token usage, or {@code null} if absent
+     */
+    public record Decoded<T>(T content, Usage usage) {}
+
+    /**
+     * Decodes a chat completion body and parses the first choice's content into {@code type}.
+     *
+     * @param body the response body; it is not closed by this method
+     * @param type the type to parse the assistant content into
+     * @param <T>  the content type
+     * @return the parsed content and token usage
+     * @throws IOException                  if the body is not valid JSON
+     * @throws InternalServerErrorException if the body has no (or blank) assistant content
+     */
+    public <T> Decoded<T> decode(InputStream body, Class<T> type) throws IOException {
+        try (JsonParser parser = mapper.createParser(body)) {
+            // The body belongs to the caller; closing the parser must not close it
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return decode(parser, type);
+        }
+    }
+
+    /**
+     * Same as {@link #decode(InputStream, Class)} for a body that is already in memory.
+     */
+    public <T> Decoded<T> decode(byte[] body, Class<T> type) throws IOException {
+        try (JsonParser parser = mapper.createParser(body)) {
+            return decode(parser, type);
+        }
+    }
+
+    private <T> Decoded<T> decode(JsonParser parser, Class<T> type) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) throw invalid("body is not a JSON object");
+
+        T content = null;
+        Usage usage = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                content = readFirstChoiceContent(parser, type);
+            } else if ("usage".equals(field) && value == JsonToken.START_OBJECT) {
+                usage = readUsage(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (content == null) throw invalid("response has no content");
+        return new Decoded<>(content, usage);
+    }
+
+    /**
+     * Reads {@code choices[0].message.content} and skips the remaining choices. The parser
+     * is positioned on the array's {@code START_ARRAY} on entry and on its {@code END_ARRAY} on exit.
+     */
+    private <T> T readFirstChoiceContent(JsonParser parser, Class<T> type) throws IOException {
+        T content = null;
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (first && parser.currentToken() == JsonToken.START_OBJECT) {
+                content = readChoice(parser, type);
+            } else {
+                parser.skipChildren();
+            }
+            first = false;
+        }
+        return content;
+    }
+
+    private <T> T readChoice(JsonParser parser, Class<T> type) throws IOException {
+        T content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("message".equals(field) && value == JsonToken.START_OBJECT) {
+                content = readMessage(parser, type);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+
+    private <T> T readMessage(JsonParser parser, Class<T> type) throws IOException {
+        T content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.VALUE_STRING) {
+                content = parseEmbedded(parser, type);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Parses the current string value as JSON straight from the parser's text buffer.
+     * The buffer is only valid until the next token, so parsing happens in place.
+     */
+    private <T> T parseEmbedded(JsonParser parser, Class<T> type) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (isBlank(chars, offset, length)) throw invalid("response content is blank");
+
+        try (JsonParser inner = mapper.createParser(chars, offset, length)) {
+            return mapper.readValue(inner, type);
+        }
+    }
+
+    private static Usage readUsage(JsonParser parser) throws IOException {
+        long prompt = 0;
+        long completion = 0;
+        long total = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                switch (field) {
+                    case "prompt_tokens" -> prompt = parser.getLongValue();
+                    case "completion_tokens" -> completion = parser.getLongValue();
+                    case "total_tokens" -> total = parser.getLongValue();
+                    default -> { }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Usage(prompt, completion, total);
+    }
+
+    /**
+     * Reads at most {@link #MAX_ERROR_BODY_BYTES} of an error body for logging.
+     *
+     * @param body the error body, may be {@code null}
+     * @return the (possibly truncated) body as text, or {@code null} if there is no body
+     */
+    public static String readErrorBody(InputStream body) {
+        if (body == null) return null;
+        try {
+            byte[] head = body.readNBytes(MAX_ERROR_BODY_BYTES + 1);
+            if (head.length <= MAX_ERROR_BODY_BYTES) return new String(head, StandardCharsets.UTF_8);
+            return new String(head, 0, MAX_ERROR_BODY_BYTES, StandardCharsets.UTF_8) + "...[truncated]";
+        } catch (IOException e) {
+            return "<unreadable: " + e.getMessage() + ">";
+        }
+    }
+
+    private static boolean isBlank(char[] chars, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (!Character.isWhitespace(chars[i])) return false;
+        }
+        return true;
+    }
+
+    private static InternalServerErrorException invalid(String reason) {
+        log.error("OpenAI returned empty/invalid response: {}", reason);
+        return new InternalServerErrorException(ExceptionError.EXTERNAL_API_CALL_FAILED);
+    }
+}
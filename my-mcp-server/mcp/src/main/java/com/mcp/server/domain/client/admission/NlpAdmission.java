@@ -0,0 +1,257 @@
+package com.mcp.server.domain.client.admission;
+
+import com.mcp.server.common.exception.core.TooManyRequestsException;
+import com.mcp.server.domain.client.config.NlpAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for {@code /admin/nlp}: per-caller concurrency limits with weighted
+ * fair queuing in front of a global concurrency limit.
+ * <p>
+ * A request runs immediately if its caller is below its own limit, nobody of the same
+ * caller is queued and a global slot is free. Otherwise it joins its caller's queue, which
+ * holds at most {@link NlpAdmissionProperties#perCallerQueue()} requests; a request that
+ * finds the queue full is rejected at once with {@link TooManyRequestsException}, and so is
+ * one that waited {@link NlpAdmissionProperties#maxQueueWait()} without getting a slot.
+ * </p>
+ *
+ * <p>
+ * Freed slots go to queued requests in virtual finish time order (start-time fair
+ * queuing): each queued request is tagged {@code max(virtualTime, caller's last tag) + 1/weight},
+ * so under contention callers get slots in proportion to their weight, and a caller that
+ * floods its queue only delays itself.
+ * </p>
+ *
+ * <p>
+ * Callers are identified by the API key header. Known keys map to the configured caller
+ * name, which is also the {@code caller} tag of the {@code mcp.nlp.admission} meters.
+ * Unknown keys are limited individually but tagged {@code unknown}, and requests without
+ * a key are limited per remote address and tagged {@code anonymous}, so metrics
+ * cardinality stays bounded and keys never appear in metrics.
+ * </p>
+ */
+@Component
+public class NlpAdmission {
+
+    private final NlpAdmissionProperties props;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, String> callerNamesByKey = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Callers with requests running or queued; guarded by {@link #lock}. */
+    private final Map<String, CallerState> active = new HashMap<>();
+    private int inFlight;
+    private double virtualTime;
+
+    public NlpAdmission(NlpAdmissionProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        if (props.callers() != null) {
+            props.callers().forEach((name, caller) -> {
+                if (caller.key() != null && !caller.key().isBlank()) callerNamesByKey.put(caller.key(), name);
+            });
+        }
+        Gauge.builder("mcp.nlp.admission.in_flight", this, NlpAdmission::inFlight).register(meterRegistry);
+    }
+
+    /**
+     * A granted slot; must be released exactly once.
+     */
+    public final class Permit {
+        private final CallerState caller;
+        private boolean released;
+
+        private Permit(CallerState caller) {
+            this.caller = caller;
+        }
+
+        public String caller() {
+            return caller.tag;
+        }
+
+        public void release() {
+            lock.lock();
+            try {
+                if (released) return;
+                released = true;
+                inFlight--;
+                caller.inFlight--;
+                dispatch();
+                evictIfIdle(caller);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Admits a request, waiting in the caller's queue if necessary.
+     *
+     * @param apiKey        the caller's API key, may be {@code null}
+     * @param remoteAddress the client address, used when there is no key
+     * @return the granted permit
+     * @throws TooManyRequestsException if the caller's queue is full or the wait timed out
+     */
+    public Permit acquire(String apiKey, String remoteAddress) {
+        long started = System.nanoTime();
+        Waiter waiter;
+        CallerState caller;
+        lock.lock();
+        try {
+            caller = active.computeIfAbsent(callerId(apiKey, remoteAddress), id -> newCaller(id, apiKey));
+            if (caller.queue.isEmpty() && caller.inFlight < caller.limit && inFlight < props.maxConcurrency()) {
+                grant(caller);
+                count(caller, "admitted");
+                return new Permit(caller);
+            }
+            if (caller.queue.size() >= props.perCallerQueue()) {
+                evictIfIdle(caller);
+                throw reject(caller, "queue_full");
+            }
+            double tag = Math.max(virtualTime, caller.lastTag) + 1.0 / caller.weight;
+            caller.lastTag = tag;
+            waiter = new Waiter(tag);
+            caller.queue.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.granted.get(props.maxQueueWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            lock.lock();
+            try {
+                // The slot may have been granted between the timeout and taking the lock
+                if (!waiter.granted.isDone()) {
+                    caller.queue.remove(waiter);
+                    evictIfIdle(caller);
+                    throw reject(caller, "timeout");
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Timer.builder("mcp.nlp.admission.wait").tag("caller", caller.tag).register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        count(caller, "admitted");
+        return new Permit(caller);
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands free global slots to queued requests, smallest virtual finish tag first,
+     * skipping callers at their own limit. Called with the lock held.
+     */
+    private void dispatch() {
+        while (inFlight < props.maxConcurrency()) {
+            CallerState next = null;
+            for (CallerState c : active.values()) {
+                if (c.queue.isEmpty() || c.inFlight >= c.limit) continue;
+                if (next == null || c.queue.peek().tag < next.queue.peek().tag) next = c;
+            }
+            if (next == null) return;
+            Waiter w = next.queue.poll();
+            virtualTime = Math.max(virtualTime, w.tag);
+            grant(next);
+            w.granted.complete(null);
+        }
+    }
+
+    private void grant(CallerState caller) {
+        inFlight++;
+        caller.inFlight++;
+    }
+
+    private void evictIfIdle(CallerState caller) {
+        if (caller.inFlight == 0 && caller.queue.isEmpty()) active.remove(caller.id);
+    }
+
+    private TooManyRequestsException reject(CallerState caller, String reason) {
+        count(caller, "rejected_" + reason);
+        return new TooManyRequestsException(props.maxQueueWait(), Map.of("caller", caller.tag, "reason", reason));
+    }
+
+    private void count(CallerState caller, String result) {
+        Counter.builder("mcp.nlp.admission")
+                .tag("caller", caller.tag)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String callerId(String apiKey, String remoteAddress) {
+        if (apiKey == null || apiKey.isBlank()) return "addr:" + remoteAddress;
+        String name = callerNamesByKey.get(apiKey);
+        return name != null ? "name:" + name : "key:" + fingerprint(apiKey);
+    }
+
+    private CallerState newCaller(String id, String apiKey) {
+        String name = apiKey == null ? null : callerNamesByKey.get(apiKey);
+        NlpAdmissionProperties.Caller configured = name == null ? null : props.callers().get(name);
+        String tag = name != null ? name : apiKey == null || apiKey.isBlank() ? "anonymous" : "unknown";
+        int limit = configured != null && configured.concurrency() != null ? configured.concurrency() : props.perCallerConcurrency();
+        int weight = configured != null ? Math.max(1, configured.weight()) : 1;
+        return new CallerState(id, tag, Math.max(1, limit), weight);
+    }
+
+    private static String fingerprint(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CallerState {
+        final String id;
+        final String tag;
+        final int limit;
+        final int weight;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        int inFlight;
+        double lastTag;
+
+        CallerState(String id, String tag, int limit, int weight) {
+            this.id = id;
+            this.tag = tag;
+            this.limit = limit;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Waiter {
+        final double tag;
+        final CompletableFuture<Void> granted = new CompletableFuture<>();
+
+        Waiter(double tag) {
+            this.tag = tag;
+        }
+    }
+}
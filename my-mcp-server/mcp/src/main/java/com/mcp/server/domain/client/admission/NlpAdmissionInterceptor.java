@@ -0,0 +1,36 @@
+package com.mcp.server.domain.client.admission;
+
+import com.mcp.server.domain.client.config.NlpAdmissionProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link NlpAdmission} to the requests it is registered for. The permit is taken
+ * before the handler runs and released once the response is complete, whatever the outcome.
+ * A rejected request never reaches the handler and is answered with 429 Too Many Requests.
+ */
+@RequiredArgsConstructor
+public class NlpAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = NlpAdmissionInterceptor.class.getName() + ".permit";
+
+    private final NlpAdmission admission;
+    private final NlpAdmissionProperties props;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        NlpAdmission.Permit permit = admission.acquire(request.getHeader(props.header()), request.getRemoteAddr());
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof NlpAdmission.Permit permit) {
+            request.removeAttribute(PERMIT);
+            permit.release();
+        }
+    }
+}
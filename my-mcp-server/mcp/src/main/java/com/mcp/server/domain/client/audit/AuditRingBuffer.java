@@ -0,0 +1,94 @@
+package com.mcp.server.domain.client.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer.
+ * <p>
+ * Each slot carries a sequence number (Vyukov's bounded queue): a producer claims a
+ * position with one CAS on the tail, writes the element and then publishes it by
+ * advancing the slot's sequence. The single consumer reads a slot only once its sequence
+ * says it is published, and releases it for the next lap by advancing the sequence
+ * again. Producers never wait on each other beyond CAS retries, and a full buffer is
+ * reported instead of waited on.
+ * </p>
+ *
+ * @param <T> the element type
+ */
+final class AuditRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /** Written by the consumer only; volatile so {@link #size()} can be read from other threads. */
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    /**
+     * Adds an element if there is space. Safe to call from any thread.
+     *
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(T element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code out}. Consumer thread only.
+     *
+     * @return the number of elements moved
+     */
+    int drainTo(List<T> out, int max) {
+        int drained = 0;
+        long pos = head;
+        while (drained < max) {
+            int index = (int) pos & mask;
+            if (sequences.get(index) != pos + 1) break;
+            out.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, pos + mask + 1);
+            pos++;
+            drained++;
+        }
+        head = pos;
+        return drained;
+    }
+
+    /**
+     * Approximate number of buffered elements.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
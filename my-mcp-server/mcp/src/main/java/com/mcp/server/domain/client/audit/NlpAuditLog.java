@@ -0,0 +1,179 @@
+package com.mcp.server.domain.client.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.domain.client.config.NlpAuditProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit log for {@code /admin/nlp} requests.
+ * <p>
+ * {@link #record} only builds a {@link NlpAuditRecord} and offers it to a bounded
+ * {@link AuditRingBuffer}; it never touches the database. A single background thread
+ * drains the buffer and writes up to {@link NlpAuditProperties#batchSize()} records per
+ * JDBC batch insert into {@code nlp_audit}, waiting at most
+ * {@link NlpAuditProperties#flushInterval()} before writing a partial batch.
+ * </p>
+ *
+ * <p>
+ * When the buffer is full, the {@link NlpAuditProperties.Overflow} policy applies:
+ * {@code DROP} discards the record at once; {@code BLOCK} waits for the writer to free
+ * space for at most {@link NlpAuditProperties#blockTimeout()} and then discards it, so a
+ * stalled database can never hold a request thread indefinitely. Written, dropped and
+ * failed records are counted in {@code mcp.nlp.audit}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class NlpAuditLog {
+
+    private static final String INSERT = "insert into nlp_audit"
+            + " (occurred_at, prompt, operation, command, cached, outcome, latency_micros, trace_id)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_TEXT = 4000;
+
+    private final NlpAuditProperties props;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper;
+    private final AuditRingBuffer<NlpAuditRecord> buffer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public NlpAuditLog(NlpAuditProperties props, JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                       ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.jdbc = jdbc;
+        // The prod pool runs with auto-commit off, so the batch needs an explicit transaction
+        this.tx = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        this.mapper = mapper;
+        this.buffer = new AuditRingBuffer<>(props.capacity());
+        this.written = Counter.builder("mcp.nlp.audit").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("mcp.nlp.audit").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("mcp.nlp.audit").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("mcp.nlp.audit.backlog", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!props.enabled()) return;
+        running = true;
+        writer = new Thread(this::drainLoop, "nlp-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Enqueues an audit record for a processed request.
+     *
+     * @param prompt        the raw user prompt
+     * @param operation     the resolved operation, may be {@code null}
+     * @param command       the resolved command, may be {@code null}
+     * @param cached        whether the command came from the command cache
+     * @param outcome       the request outcome
+     * @param startedNanos  the {@link System#nanoTime()} at which processing started
+     */
+    public void record(String prompt, String operation, Map<String, Object> command, boolean cached,
+                       String outcome, long startedNanos) {
+        if (!running) return;
+        long latencyMicros = (System.nanoTime() - startedNanos) / 1_000;
+        NlpAuditRecord record = new NlpAuditRecord(Instant.now().minusNanos(latencyMicros * 1_000), prompt,
+                operation, command, cached, outcome, latencyMicros, MDC.get("traceId"));
+        if (buffer.offer(record)) return;
+        if (props.overflow() == NlpAuditProperties.Overflow.BLOCK && offerWithin(record, props.blockTimeout().toNanos())) return;
+        dropped.increment();
+    }
+
+    public int backlog() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private boolean offerWithin(NlpAuditRecord record, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (buffer.offer(record)) return true;
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        List<NlpAuditRecord> batch = new ArrayList<>(props.batchSize());
+        long flushNanos = props.flushInterval().toNanos();
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, props.batchSize() - batch.size());
+            if (batch.size() >= props.batchSize() || (!batch.isEmpty() && !running)) {
+                write(batch);
+                continue;
+            }
+            // Give a partial batch up to one flush interval to fill up
+            LockSupport.parkNanos(flushNanos);
+            buffer.drainTo(batch, props.batchSize() - batch.size());
+            if (!batch.isEmpty()) write(batch);
+        }
+    }
+
+    private void write(List<NlpAuditRecord> batch) {
+        try {
+            tx.executeWithoutResult(status -> jdbc.batchUpdate(INSERT, batch, batch.size(), (ps, r) -> {
+                ps.setTimestamp(1, Timestamp.from(r.occurredAt()));
+                ps.setString(2, truncate(r.prompt()));
+                ps.setString(3, r.operation());
+                ps.setString(4, truncate(json(r.command())));
+                ps.setBoolean(5, r.cached());
+                ps.setString(6, r.outcome());
+                ps.setLong(7, r.latencyMicros());
+                ps.setString(8, r.traceId());
+            }));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Failed to write {} NLP audit records: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private String json(Map<String, Object> command) {
+        if (command == null) return null;
+        try {
+            return mapper.writeValueAsString(command);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(command);
+        }
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= MAX_TEXT ? s : s.substring(0, MAX_TEXT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mcp.server.domain.client.audit;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One audited {@code /admin/nlp} request.
+ * <p>
+ * The command is kept as the map the service worked with and only serialized by the
+ * background writer, so the request thread does no JSON encoding for the audit.
+ * </p>
+ *
+ * @param occurredAt    when the request started
+ * @param prompt        the raw user prompt
+ * @param operation     the operation from the command, {@code null} if none was resolved
+ * @param command       the command returned by the LLM or the cache, {@code null} if none was obtained
+ * @param cached        whether the command came from the command cache
+ * @param outcome       {@code success}, {@code client_error} or {@code server_error}
+ * @param latencyMicros end-to-end processing time in microseconds
+ * @param traceId       the current trace id, if any
+ */
+public record NlpAuditRecord(
+        Instant occurredAt,
+        String prompt,
+        String operation,
+        Map<String, Object> command,
+        boolean cached,
+        String outcome,
+        long latencyMicros,
+        String traceId
+) {}
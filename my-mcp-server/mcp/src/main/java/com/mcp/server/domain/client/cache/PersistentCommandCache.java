@@ -0,0 +1,328 @@
+package com.mcp.server.domain.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.common.constant.OpenAIConstants;
+import com.mcp.server.domain.client.config.CommandCacheProperties;
+import com.mcp.server.domain.client.config.OpenAiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable cache of validated prompt → command mappings that survives restarts.
+ * <p>
+ * Entries live in an in-memory LRU map bounded by {@link CommandCacheProperties#maxEntries()}
+ * and are appended to a log file on a background thread, so the request path never waits
+ * on disk I/O. On startup the log is replayed to warm the cache. Once the log holds
+ * {@code maxEntries * compactionFactor} records it is compacted: the live entries are
+ * rewritten in least- to most-recently-used order and atomically swapped in, which
+ * also keeps recency across restarts.
+ * </p>
+ *
+ * <p>
+ * The log header carries a version derived from the system prompt and the default model.
+ * If either changes, previously learned commands may no longer be valid, and the file is
+ * discarded instead of replayed.
+ * </p>
+ *
+ * <p>
+ * Log layout: {@code int magic, int format, UTF version}, then records of
+ * {@code int keyLength, key bytes, int valueLength, value bytes} (UTF-8 prompt and JSON command).
+ * Replay stops at the first record that is cut short, as left by a crash mid-write, or whose
+ * lengths are negative, above {@link #MAX_RECORD_LENGTH} or past the end of the file; the log
+ * is truncated there and the records before it are kept. A header that cannot be read
+ * discards the file.
+ * </p>
+ */
+@Slf4j
+@Component
+public class PersistentCommandCache {
+
+    private static final int MAGIC = 0x4D435043; // "MCPC"
+    private static final int FORMAT = 1;
+    /** Upper bound of a key or value length; a larger one can only come from a corrupt log. */
+    static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    private final CommandCacheProperties props;
+    private final OpenAiProperties openAiProps;
+    private final ObjectMapper mapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final LinkedHashMap<String, byte[]> entries;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "command-cache-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private String version;
+    private DataOutputStream journal;
+    private int logRecords;
+
+    public PersistentCommandCache(CommandCacheProperties props, OpenAiProperties openAiProps,
+                                  ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.openAiProps = openAiProps;
+        this.mapper = mapper;
+        this.hits = Counter.builder("mcp.nlp.command.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("mcp.nlp.command.cache").tag("result", "miss").register(meterRegistry);
+        int maxEntries = Math.max(1, props.maxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("mcp.nlp.command.cache.size", this, PersistentCommandCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Replays the log file into memory.
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (!props.enabled()) return;
+        version = version(OpenAIConstants.SYSTEM_PROMPT, openAiProps.model());
+        Path path = Path.of(props.path());
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            if (Files.exists(path) && !replay(path)) {
+                log.info("Command cache at {} was written for another prompt/model version, discarding it", path);
+                Files.delete(path);
+            }
+            synchronized (entries) {
+                log.info("Command cache warmed with {} entries from {}", entries.size(), path);
+            }
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Command cache at {} is unusable, continuing without persistence: {}", path, e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Looks up the command previously learned for {@code prompt}.
+     *
+     * @param prompt the raw user prompt
+     * @return a fresh, mutable copy of the cached command, or empty if unknown
+     */
+    public Optional<Map<String, Object>> get(String prompt) {
+        if (!props.enabled()) return Optional.empty();
+        byte[] value;
+        synchronized (entries) {
+            value = entries.get(normalize(prompt));
+        }
+        if (value == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> command = mapper.readValue(value, Map.class);
+            hits.increment();
+            return Optional.of(command);
+        } catch (IOException e) {
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a command that has been successfully executed for {@code prompt}.
+     * Persisting happens asynchronously.
+     *
+     * @param prompt  the raw user prompt
+     * @param command the command returned by the LLM
+     */
+    public void put(String prompt, Map<String, Object> command) {
+        if (!props.enabled()) return;
+        String key = normalize(prompt);
+        byte[] value;
+        try {
+            value = mapper.writeValueAsBytes(command);
+        } catch (IOException e) {
+            return;
+        }
+        synchronized (entries) {
+            byte[] previous = entries.put(key, value);
+            if (previous != null && Arrays.equals(previous, value)) return;
+        }
+        writer.execute(() -> append(key, value));
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        closeLog();
+    }
+
+    private void append(String key, byte[] value) {
+        if (journal == null) return;
+        try {
+            writeRecord(journal, key.getBytes(StandardCharsets.UTF_8), value);
+            journal.flush();
+            if (++logRecords > (long) props.maxEntries() * Math.max(2, props.compactionFactor())) compact();
+        } catch (IOException e) {
+            log.warn("Command cache append failed, disabling persistence: {}", e.getMessage());
+            closeLog();
+        }
+    }
+
+    /**
+     * Rewrites the log with only the live entries, oldest first, and reopens it for appending.
+     * Runs at startup and afterwards only on the writer thread.
+     */
+    private void compact() throws IOException {
+        List<Map.Entry<String, byte[]>> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries.entrySet());
+        }
+        Path path = Path.of(props.path());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        closeLog();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            writeHeader(out);
+            for (Map.Entry<String, byte[]> e : snapshot) {
+                writeRecord(out, e.getKey().getBytes(StandardCharsets.UTF_8), e.getValue());
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logRecords = snapshot.size();
+        journal = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Loads the records of the log into memory.
+     *
+     * @return {@code false} if the file is not a log of the current version
+     */
+    private boolean replay(Path path) throws IOException {
+        long size = Files.size(path);
+        long valid;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT || !version.equals(in.readUTF())) return false;
+            // The version is hex, so its modified UTF-8 form has one byte per character
+            valid = 4 + 4 + 2 + version.length();
+            while (valid < size) {
+                byte[] key = readField(in, size - valid - 4);
+                if (key == null) break;
+                byte[] value = readField(in, size - valid - 8 - key.length);
+                if (value == null) break;
+                synchronized (entries) {
+                    entries.put(new String(key, StandardCharsets.UTF_8), value);
+                }
+                valid += 8 + key.length + value.length;
+            }
+        } catch (EOFException | UTFDataFormatException badHeader) {
+            return false;
+        }
+        if (valid < size) {
+            log.warn("Command cache at {} has a malformed record at byte {}, dropping the {} bytes after it", path, valid, size - valid);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads one length-prefixed field, or returns {@code null} if it is cut short or its length
+     * is not between 0 and the smaller of {@link #MAX_RECORD_LENGTH} and {@code remaining}.
+     */
+    private static byte[] readField(DataInputStream in, long remaining) throws IOException {
+        if (remaining < 0) return null;
+        try {
+            int length = in.readInt();
+            if (length < 0 || length > MAX_RECORD_LENGTH || length > remaining) return null;
+            byte[] field = new byte[length];
+            in.readFully(field);
+            return field;
+        } catch (EOFException truncated) {
+            return null;
+        }
+    }
+
+    private void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeUTF(version);
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] key, byte[] value) throws IOException {
+        out.writeInt(key.length);
+        out.write(key);
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private void closeLog() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException ignored) {
+            // nothing left to flush
+        }
+        journal = null;
+    }
+
+    /**
+     * Prompts that differ only in surrounding or repeated whitespace map to the same entry.
+     */
+    static String normalize(String prompt) {
+        return prompt.strip().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Cache version: a short hash of everything that influences the prompt → command mapping.
+     */
+    static String version(String systemPrompt, String model) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(systemPrompt.getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(String.valueOf(model).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mcp.server.domain.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for the persistent prompt → command cache.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * openai:
+ *   command-cache:
+ *     enabled: true
+ *     path: data/command-cache.bin
+ *     max-entries: 10000
+ * </pre>
+ * </p>
+ *
+ * @param enabled           whether the cache is used at all
+ * @param path              the file holding the cache log
+ * @param maxEntries        the maximum number of entries kept; least recently used entries are evicted
+ * @param compactionFactor  the log is compacted once it holds {@code maxEntries * compactionFactor} records (at least 2)
+ */
+@ConfigurationProperties(prefix = "openai.command-cache")
+public record CommandCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("data/command-cache.bin") String path,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("2") int compactionFactor
+) {}
@@ -0,0 +1,31 @@
+package com.mcp.server.domain.client.config;
+
+import com.mcp.server.domain.client.admission.NlpAdmission;
+import com.mcp.server.domain.client.admission.NlpAdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers {@link NlpAdmissionInterceptor} in front of {@code POST /admin/nlp}, unless
+ * {@code admission.nlp.enabled} is {@code false}.
+ *
+ * @see NlpAdmission
+ * @see NlpAdmissionProperties
+ */
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(NlpAdmissionProperties.class)
+public class NlpAdmissionConfig implements WebMvcConfigurer {
+
+    private final NlpAdmission admission;
+    private final NlpAdmissionProperties props;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!props.enabled()) return;
+        registry.addInterceptor(new NlpAdmissionInterceptor(admission, props)).addPathPatterns("/admin/nlp");
+    }
+}
@@ -0,0 +1,56 @@
+package com.mcp.server.domain.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for admission control on {@code /admin/nlp}.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * admission:
+ *   nlp:
+ *     max-concurrency: 16
+ *     per-caller-concurrency: 2
+ *     callers:
+ *       reporting:
+ *         key: ${REPORTING_API_KEY}
+ *         weight: 1
+ *       dashboard:
+ *         key: ${DASHBOARD_API_KEY}
+ *         weight: 4
+ *         concurrency: 4
+ * </pre>
+ * </p>
+ *
+ * @param enabled              whether admission control is applied
+ * @param header               the request header carrying the caller's API key
+ * @param maxConcurrency       NLP requests processed at the same time across all callers
+ * @param perCallerConcurrency default concurrent requests per caller
+ * @param perCallerQueue       requests per caller that may wait for a slot; beyond that requests are rejected
+ * @param maxQueueWait         how long a queued request waits for a slot before it is rejected
+ * @param callers              known callers by name; their name is used as the metrics tag
+ */
+@ConfigurationProperties(prefix = "admission.nlp")
+public record NlpAdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("X-Api-Key") String header,
+        @DefaultValue("16") int maxConcurrency,
+        @DefaultValue("2") int perCallerConcurrency,
+        @DefaultValue("4") int perCallerQueue,
+        @DefaultValue("2s") Duration maxQueueWait,
+        Map<String, Caller> callers
+) {
+
+    /**
+     * A known caller.
+     *
+     * @param key         the caller's API key
+     * @param weight      the caller's share of contended capacity relative to other callers
+     * @param concurrency the caller's concurrency limit, {@code null} for {@code perCallerConcurrency}
+     */
+    public record Caller(String key, @DefaultValue("1") int weight, Integer concurrency) {}
+}
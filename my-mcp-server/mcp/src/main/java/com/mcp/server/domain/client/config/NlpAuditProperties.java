@@ -0,0 +1,46 @@
+package com.mcp.server.domain.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the {@code /admin/nlp} audit log.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * audit:
+ *   nlp:
+ *     capacity: 8192
+ *     overflow: drop
+ * </pre>
+ * </p>
+ *
+ * @param enabled       whether requests are audited at all
+ * @param capacity      the number of records the in-memory buffer holds (rounded up to a power of two)
+ * @param batchSize     the maximum number of records per batched insert
+ * @param flushInterval how long the writer waits for more records before writing a partial batch
+ * @param overflow      what a request does when the buffer is full
+ * @param blockTimeout  with {@link Overflow#BLOCK}, the longest a request waits for space before the record is dropped
+ */
+@ConfigurationProperties(prefix = "audit.nlp")
+public record NlpAuditProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8192") int capacity,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("drop") Overflow overflow,
+        @DefaultValue("5ms") Duration blockTimeout
+) {
+
+    /**
+     * Overflow policy when the audit buffer is full.
+     */
+    public enum Overflow {
+        /** Drop the record immediately and count it. */
+        DROP,
+        /** Wait up to {@code blockTimeout} for the writer to free space, then drop. */
+        BLOCK
+    }
+}
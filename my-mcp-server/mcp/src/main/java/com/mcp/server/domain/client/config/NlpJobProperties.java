@@ -0,0 +1,40 @@
+package com.mcp.server.domain.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for asynchronous {@code /admin/nlp/jobs} requests.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * nlp:
+ *   jobs:
+ *     workers: 8
+ *     max-attempts: 3
+ *     retention: 7d
+ * </pre>
+ * </p>
+ *
+ * @param enabled       whether this instance runs jobs; submitted jobs are stored either way
+ * @param workers       the number of jobs this instance runs at once
+ * @param pollInterval  how often an idle worker pool looks for jobs submitted to other instances
+ * @param lease         how long a claimed job stays with its worker without a renewal; renewed every third of it
+ * @param maxAttempts   how often a job is tried when OpenAI fails transiently
+ * @param retryBackoff  the delay before the first retry; doubled for every further one
+ * @param maxQueued     submissions are rejected with 429 while this many jobs are waiting
+ * @param retention     how long finished jobs and their results are kept
+ */
+@ConfigurationProperties(prefix = "nlp.jobs")
+public record NlpJobProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4") int workers,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("2m") Duration lease,
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("2s") Duration retryBackoff,
+        @DefaultValue("10000") int maxQueued,
+        @DefaultValue("7d") Duration retention
+) {}
@@ -0,0 +1,31 @@
+package com.mcp.server.domain.client.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for speculative user lookups during the OpenAI call.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * nlp:
+ *   prefetch:
+ *     enabled: true
+ *     threads: 4
+ * </pre>
+ * </p>
+ *
+ * @param enabled       whether ids and mails in prompts are looked up speculatively
+ * @param threads       threads running lookups; each holds a database connection while it runs
+ * @param queueCapacity lookups waiting for a thread; further lookups are skipped
+ * @param maxWait       how long the command waits for a lookup still in flight before querying on its own
+ */
+@ConfigurationProperties(prefix = "nlp.prefetch")
+public record NlpPrefetchProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4") int threads,
+        @DefaultValue("64") int queueCapacity,
+        @DefaultValue("200ms") Duration maxWait
+) {}
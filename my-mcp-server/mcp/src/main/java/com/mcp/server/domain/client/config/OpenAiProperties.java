@@ -2,8 +2,11 @@ package com.mcp.server.domain.client.config;
 
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for OpenAI API integration.
  * <p>
@@ -20,17 +23,23 @@ import org.springframework.validation.annotation.Validated;
  *     key: YOUR_API_KEY
  *     url: https://api.openai.com
  *   model: gpt-4
+ *   connect-timeout: 5s
+ *   timeout: 60s
  * </pre>
  * </p>
  * 
- * @param api   the API configuration containing key and URL
- * @param model the model name to use for OpenAI requests
+ * @param api            the API configuration containing key and URL
+ * @param model          the model name to use for OpenAI requests
+ * @param connectTimeout how long to wait for a connection to the API
+ * @param timeout        how long to wait for a response; shortened to the caller's request deadline
  */
 @Validated
 @ConfigurationProperties(prefix = "openai")
 public record OpenAiProperties(
         @Validated Api api,            
-        String model   
+        String model,
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("60s") Duration timeout
 ) {
 
     /**
@@ -1,5 +1,7 @@
 package com.mcp.server.domain.client.config;
 
+import com.mcp.server.common.deadline.DeadlineClientHttpRequestFactory;
+import com.mcp.server.common.deadline.RequestDeadline;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +16,18 @@ import org.springframework.web.client.RestClient;
  * other necessary settings. The RestClient is configured with default headers for
  * authorization and content type.
  * </p>
+ *
+ * <p>
+ * The client is derived from Spring Boot's auto-configured {@link RestClient.Builder}, so
+ * outgoing calls are observed ({@code http.client.requests}) and carry the current
+ * trace context to the upstream API.
+ * </p>
+ *
+ * <p>
+ * Requests go through a {@link DeadlineClientHttpRequestFactory}, so the response timeout
+ * is {@link OpenAiProperties#timeout()} or the time left until the caller's
+ * {@link RequestDeadline}, whichever is shorter.
+ * </p>
  * 
  * <p>
  * Example usage:
@@ -27,18 +41,21 @@ import org.springframework.web.client.RestClient;
  * @see OpenAiProperties
  */
 @Configuration
-@EnableConfigurationProperties(OpenAiProperties.class)
+@EnableConfigurationProperties({OpenAiProperties.class, CommandCacheProperties.class, NlpAuditProperties.class,
+        NlpPrefetchProperties.class, NlpJobProperties.class})
 public class OpenAiRestClientConfig {
 
     /**
      * Creates and configures a {@link RestClient} bean for OpenAI API.
      *
-     * @param props the {@link OpenAiProperties} containing API key and URL
+     * @param builder the auto-configured, observation-aware builder
+     * @param props   the {@link OpenAiProperties} containing API key and URL
      * @return a configured {@link RestClient} instance
      */
     @Bean
-    public RestClient openAiRestClient(OpenAiProperties props) {
-        return RestClient.builder()
+    public RestClient openAiRestClient(RestClient.Builder builder, OpenAiProperties props) {
+        return builder
+                .requestFactory(new DeadlineClientHttpRequestFactory(props.connectTimeout(), props.timeout()))
                 .baseUrl(props.api().url())
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + props.api().key())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
@@ -1,10 +1,16 @@
 package com.mcp.server.domain.client.controller.public_api;
 
 import com.mcp.server.domain.client.OpenAiClient;
+import com.mcp.server.domain.client.dto.public_api.job.NlpJobDto;
 import com.mcp.server.domain.client.dto.public_api.user.CreateUserDto;
 import com.mcp.server.domain.client.dto.public_api.user.UpdateUserDto;
+import com.mcp.server.domain.client.job.NlpJobService;
 import com.mcp.server.domain.client.service.public_api.user.core.ClientService;
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
 import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,6 +20,7 @@ import org.springframework.web.server.ResponseStatusException;
 import com.mcp.server.domain.client.service.public_api.user.core.NlpCrudService;
 
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -30,10 +37,14 @@ import java.util.UUID;
  * <ul>
  *     <li>{@code POST /admin} - Create a new user</li>
  *     <li>{@code GET /admin} - Retrieve all users</li>
+ *     <li>{@code GET /admin?fields=} - Retrieve all users with only the listed fields</li>
+ *     <li>{@code GET /admin?modifiedSince=} - Retrieve users changed after a watermark</li>
  *     <li>{@code GET /admin/{id}} - Retrieve a user by ID</li>
  *     <li>{@code PUT /admin/{id}} - Update a user by ID</li>
  *     <li>{@code DELETE /admin/{id}} - Delete a user by ID</li>
  *     <li>{@code POST /admin/nlp} - Perform NLP-based CRUD operations</li>
+ *     <li>{@code POST /admin/nlp/jobs} - Queue an NLP-based CRUD operation to run asynchronously</li>
+ *     <li>{@code GET /admin/nlp/jobs/{id}} - Status and result of a queued NLP operation</li>
  * </ul>
  * </p>
  * 
@@ -50,6 +61,7 @@ public class McpCompletionToolController {
 
     private final ClientService userService;
     private final NlpCrudService nlpCrudService;
+    private final NlpJobService nlpJobService;
 
     /**
      * Creates a new user.
@@ -73,6 +85,44 @@ public class McpCompletionToolController {
         return ResponseEntity.ok(userService.getAll());
     }
 
+    /**
+     * Retrieves all users with only the requested fields selected and serialized.
+     *
+     * @param fields a comma-separated subset of {@code id,name,mail,age,createdAt,updatedAt}
+     * @return all users projected to {@code fields}
+     * @throws ResponseStatusException if a field is unknown
+     */
+    @GetMapping(params = {"fields", "!modifiedSince"})
+    public ResponseEntity<List<ProjectedUser>> getAll(@RequestParam String fields) {
+        List<UserField> selected;
+        try {
+            selected = UserField.parse(fields, UserField.ALL);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok(userService.getAll(selected));
+    }
+
+    /**
+     * Retrieves only the users created, updated or deleted after a watermark.
+     *
+     * @param modifiedSince an ISO-8601 instant, or the {@code nextWatermark} of the previous response
+     * @param limit         the maximum number of upserts plus deletions, between 1 and 1000
+     * @return the changes and the watermark for the next request
+     * @throws ResponseStatusException if the watermark is malformed
+     */
+    @GetMapping(params = "modifiedSince")
+    public ResponseEntity<UserDeltaDto> getModified(@RequestParam String modifiedSince,
+                                                    @RequestParam(defaultValue = "500") int limit) {
+        DeltaWatermark since;
+        try {
+            since = DeltaWatermark.parse(modifiedSince);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok(userService.modifiedSince(since, Math.max(1, Math.min(limit, 1000))));
+    }
+
     /**
      * Retrieves a user by their unique ID.
      *
@@ -138,4 +188,32 @@ public class McpCompletionToolController {
     public ResponseEntity<?> nlpCrud(@RequestBody Map<String,Object> body) {
         return nlpCrudService.process(body);
     }
+
+    /**
+     * Queues an NLP-based CRUD operation and returns at once, for prompts that may take
+     * longer than the client is willing to hold a connection open.
+     *
+     * @param body a map with the "prompt" key and optionally "priority" ({@code high}, {@code normal}, {@code low})
+     * @return the queued job with HTTP status 202 (Accepted) and its status URL in {@code Location}
+     * @throws ResponseStatusException if the prompt is missing or the priority is unknown
+     */
+    @PostMapping("/nlp/jobs")
+    public ResponseEntity<NlpJobDto> submitNlpJob(@RequestBody Map<String, Object> body) {
+        NlpJobDto job = nlpJobService.submit(body);
+        return ResponseEntity.accepted().location(URI.create("/admin/nlp/jobs/" + job.id())).body(job);
+    }
+
+    /**
+     * Retrieves the status of a queued NLP operation and, once it finished, its result.
+     *
+     * @param id the job id
+     * @return the job
+     * @throws ResponseStatusException if the job does not exist or was purged
+     */
+    @GetMapping("/nlp/jobs/{id}")
+    public ResponseEntity<NlpJobDto> getNlpJob(@PathVariable UUID id) {
+        return nlpJobService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found"));
+    }
 }
@@ -0,0 +1,33 @@
+package com.mcp.server.domain.client.dto.public_api.job;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.mcp.server.domain.client.job.NlpJobPriority;
+import com.mcp.server.domain.client.job.NlpJobStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Status of an asynchronous {@code /admin/nlp} request.
+ *
+ * @param id           the job id
+ * @param priority     the lane the job runs in
+ * @param status       the job state
+ * @param attempts     how often a worker has started the job
+ * @param createdAt    when the job was submitted
+ * @param finishedAt   when the job succeeded or failed, otherwise {@code null}
+ * @param resultStatus the HTTP status the synchronous endpoint would have answered with, once finished
+ * @param result       the response body the synchronous endpoint would have returned, once succeeded
+ * @param error        why the job failed, or why its last attempt did
+ */
+public record NlpJobDto(
+        UUID id,
+        NlpJobPriority priority,
+        NlpJobStatus status,
+        int attempts,
+        Instant createdAt,
+        Instant finishedAt,
+        Integer resultStatus,
+        @JsonRawValue String result,
+        String error
+) {}
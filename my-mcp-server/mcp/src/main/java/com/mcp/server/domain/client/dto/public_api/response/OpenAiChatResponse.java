@@ -14,11 +14,13 @@ import java.util.List;
  * @param created the timestamp of creation in epoch seconds
  * @param model   the model used to generate this response
  * @param choices the list of generated responses as {@link Choice} objects
+ * @param usage   the token usage of the request, if reported
  */
 public record OpenAiChatResponse(
         String id,
         String object,
         long created,
         String model,
-        List<Choice> choices
+        List<Choice> choices,
+        Usage usage
 ) {}
\ No newline at end of file
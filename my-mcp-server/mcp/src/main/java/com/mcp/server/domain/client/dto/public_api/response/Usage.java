@@ -0,0 +1,14 @@
+package com.mcp.server.domain.client.dto.public_api.response;
+
+/**
+ * Token accounting returned by the OpenAI Chat API for a single request.
+ *
+ * @param prompt_tokens     the number of tokens in the prompt
+ * @param completion_tokens the number of tokens in the generated completion
+ * @param total_tokens      the total number of tokens billed for the request
+ */
+public record Usage(
+        long prompt_tokens,
+        long completion_tokens,
+        long total_tokens
+) {}
@@ -0,0 +1,28 @@
+package com.mcp.server.domain.client.job;
+
+/**
+ * Lane of an NLP job. Waiting jobs are claimed lane by lane, {@code HIGH} first, and in
+ * submission order within a lane.
+ *
+ * <ul>
+ *     <li>{@code HIGH} - interactive callers waiting on the result</li>
+ *     <li>{@code NORMAL} - the default</li>
+ *     <li>{@code LOW} - bulk and background work</li>
+ * </ul>
+ */
+public enum NlpJobPriority {
+    HIGH,
+    NORMAL,
+    LOW;
+
+    /**
+     * Parses a priority case-insensitively, defaulting to {@link #NORMAL}.
+     *
+     * @param raw the raw priority, may be {@code null}
+     * @return the parsed priority
+     * @throws IllegalArgumentException if the value is not a known priority
+     */
+    public static NlpJobPriority parse(String raw) {
+        return raw == null || raw.isBlank() ? NORMAL : valueOf(raw.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,70 @@
+package com.mcp.server.domain.client.job;
+
+import com.mcp.server.common.exception.core.TooManyRequestsException;
+import com.mcp.server.domain.client.config.NlpJobProperties;
+import com.mcp.server.domain.client.dto.public_api.job.NlpJobDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Accepts asynchronous {@code /admin/nlp} requests into the {@code nlp_jobs} table and
+ * reports on them; {@link NlpJobWorker} runs them.
+ * <p>
+ * Submitting only inserts a row, so it answers at once however long OpenAI and the
+ * database take. Jobs are durable: a job accepted before a restart runs after it.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class NlpJobService {
+
+    private static final int MAX_PROMPT = 4000;
+
+    private final NlpJobProperties props;
+    private final NlpJobStore store;
+    private final NlpJobWorker worker;
+
+    /**
+     * Queues a prompt for processing.
+     *
+     * @param body a map containing the "prompt" key and optionally "priority" ({@code high}, {@code normal}, {@code low})
+     * @return the queued job
+     * @throws ResponseStatusException   if the prompt is missing or too long, or the priority is unknown
+     * @throws TooManyRequestsException  if {@link NlpJobProperties#maxQueued()} jobs are already waiting
+     */
+    public NlpJobDto submit(Map<String, Object> body) {
+        Object rawPrompt = body.get("prompt");
+        String prompt = rawPrompt == null ? null : String.valueOf(rawPrompt);
+        if (prompt == null || prompt.isBlank()) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Prompt is required");
+        if (prompt.length() > MAX_PROMPT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Prompt is longer than " + MAX_PROMPT + " characters");
+        }
+        NlpJobPriority priority;
+        try {
+            Object rawPriority = body.get("priority");
+            priority = NlpJobPriority.parse(rawPriority == null ? null : String.valueOf(rawPriority));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown priority: " + body.get("priority"));
+        }
+        if (store.countQueued() >= props.maxQueued()) {
+            throw new TooManyRequestsException(props.retryBackoff(), Map.of("reason", "job_queue_full"));
+        }
+
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        store.insert(id, priority, prompt, now);
+        worker.wake();
+        return new NlpJobDto(id, priority, NlpJobStatus.QUEUED, 0, now, null, null, null, null);
+    }
+
+    public Optional<NlpJobDto> get(UUID id) {
+        return store.find(id);
+    }
+}
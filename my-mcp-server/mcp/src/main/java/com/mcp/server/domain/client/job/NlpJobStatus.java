@@ -0,0 +1,18 @@
+package com.mcp.server.domain.client.job;
+
+/**
+ * State of an NLP job.
+ *
+ * <ul>
+ *     <li>{@code QUEUED} - waiting for a worker, possibly for a retry backoff to pass</li>
+ *     <li>{@code RUNNING} - claimed by a worker holding a lease on it</li>
+ *     <li>{@code SUCCEEDED} - processed; the result holds the response</li>
+ *     <li>{@code FAILED} - rejected, or out of attempts; the error says why</li>
+ * </ul>
+ */
+public enum NlpJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,180 @@
+package com.mcp.server.domain.client.job;
+
+import com.mcp.server.domain.client.dto.public_api.job.NlpJobDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC access to the {@code nlp_jobs} table.
+ * <p>
+ * Claims are optimistic, so several instances can share the table without row locks: a
+ * worker reads the oldest waiting jobs of the highest lane and moves each to
+ * {@code RUNNING} with a conditional update, keeping the ones it won. Every write runs in
+ * its own transaction.
+ * </p>
+ */
+@Component
+public class NlpJobStore {
+
+    private static final int MAX_TEXT = 4000;
+    private static final String COLUMNS = "id, priority, status, attempts, created_at, finished_at, result_status, result, error";
+
+    private static final RowMapper<NlpJobDto> JOB = (rs, n) -> new NlpJobDto(
+            rs.getObject("id", UUID.class),
+            NlpJobPriority.values()[rs.getInt("priority")],
+            NlpJobStatus.valueOf(rs.getString("status")),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toInstant(),
+            instant(rs.getTimestamp("finished_at")),
+            (Integer) rs.getObject("result_status"),
+            rs.getString("result"),
+            rs.getString("error"));
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+
+    public NlpJobStore(JdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        // The prod pool runs with auto-commit off, so every write needs an explicit transaction
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A job claimed by this instance.
+     *
+     * @param id       the job id
+     * @param prompt   the prompt to process
+     * @param attempts how often the job has been started, this time included
+     */
+    public record Claimed(UUID id, String prompt, int attempts) {}
+
+    public void insert(UUID id, NlpJobPriority priority, String prompt, Instant now) {
+        tx.executeWithoutResult(status -> jdbc.update(
+                "insert into nlp_jobs (id, priority, status, prompt, attempts, created_at, run_after)"
+                        + " values (?, ?, ?, ?, 0, ?, ?)",
+                id, priority.ordinal(), NlpJobStatus.QUEUED.name(), prompt, Timestamp.from(now), Timestamp.from(now)));
+    }
+
+    public Optional<NlpJobDto> find(UUID id) {
+        return jdbc.query("select " + COLUMNS + " from nlp_jobs where id = ?", JOB, id).stream().findFirst();
+    }
+
+    public long countQueued() {
+        Long count = jdbc.queryForObject("select count(*) from nlp_jobs where status = ?", Long.class, NlpJobStatus.QUEUED.name());
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Claims up to {@code max} waiting jobs, highest lane first and oldest first within a lane.
+     * Jobs another instance claimed in the meantime are skipped, so fewer may be returned.
+     */
+    public List<Claimed> claim(int max, Instant now, Instant leaseUntil) {
+        List<Claimed> candidates = jdbc.query(
+                "select id, prompt, attempts from nlp_jobs where status = ? and run_after <= ?"
+                        + " order by priority, created_at limit ?",
+                (rs, n) -> new Claimed(rs.getObject("id", UUID.class), rs.getString("prompt"), rs.getInt("attempts") + 1),
+                NlpJobStatus.QUEUED.name(), Timestamp.from(now), max);
+        List<Claimed> claimed = new ArrayList<>(candidates.size());
+        for (Claimed job : candidates) {
+            Integer won = tx.execute(status -> jdbc.update(
+                    "update nlp_jobs set status = ?, lease_until = ?, attempts = attempts + 1 where id = ? and status = ?",
+                    NlpJobStatus.RUNNING.name(), Timestamp.from(leaseUntil), job.id(), NlpJobStatus.QUEUED.name()));
+            if (won != null && won == 1) claimed.add(job);
+        }
+        return claimed;
+    }
+
+    /**
+     * Extends the leases of jobs this instance is still running.
+     */
+    public void renew(Collection<UUID> ids, Instant leaseUntil) {
+        if (ids.isEmpty()) return;
+        tx.executeWithoutResult(status -> jdbc.batchUpdate(
+                "update nlp_jobs set lease_until = ? where id = ? and status = ?",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setTimestamp(1, Timestamp.from(leaseUntil));
+                    ps.setObject(2, id);
+                    ps.setString(3, NlpJobStatus.RUNNING.name());
+                }));
+    }
+
+    /**
+     * Puts running jobs whose lease expired, because their worker died, back in their lane.
+     *
+     * @return the number of jobs requeued
+     */
+    public int requeueExpired(Instant now) {
+        Integer requeued = tx.execute(status -> jdbc.update(
+                "update nlp_jobs set status = ?, lease_until = null where status = ? and lease_until < ?",
+                NlpJobStatus.QUEUED.name(), NlpJobStatus.RUNNING.name(), Timestamp.from(now)));
+        return requeued == null ? 0 : requeued;
+    }
+
+    /**
+     * Hands jobs this instance has not finished back to the queue, without counting the attempt.
+     */
+    public void release(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        tx.executeWithoutResult(status -> jdbc.batchUpdate(
+                "update nlp_jobs set status = ?, lease_until = null, attempts = attempts - 1 where id = ? and status = ?",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setString(1, NlpJobStatus.QUEUED.name());
+                    ps.setObject(2, id);
+                    ps.setString(3, NlpJobStatus.RUNNING.name());
+                }));
+    }
+
+    public void succeed(UUID id, int resultStatus, String result, Instant now) {
+        finish(id, NlpJobStatus.SUCCEEDED, resultStatus, result, null, now);
+    }
+
+    public void fail(UUID id, int resultStatus, String error, Instant now) {
+        finish(id, NlpJobStatus.FAILED, resultStatus, null, error, now);
+    }
+
+    /**
+     * Puts a job back in its lane, not to be claimed before {@code runAfter}.
+     */
+    public void retry(UUID id, Instant runAfter, String error) {
+        tx.executeWithoutResult(status -> jdbc.update(
+                "update nlp_jobs set status = ?, lease_until = null, run_after = ?, error = ? where id = ? and status = ?",
+                NlpJobStatus.QUEUED.name(), Timestamp.from(runAfter), truncate(error), id, NlpJobStatus.RUNNING.name()));
+    }
+
+    /**
+     * Deletes jobs that finished before {@code before}.
+     *
+     * @return the number of jobs deleted
+     */
+    public int purge(Instant before) {
+        Integer purged = tx.execute(status -> jdbc.update(
+                "delete from nlp_jobs where finished_at < ?", Timestamp.from(before)));
+        return purged == null ? 0 : purged;
+    }
+
+    private void finish(UUID id, NlpJobStatus outcome, int resultStatus, String result, String error, Instant now) {
+        tx.executeWithoutResult(status -> jdbc.update(
+                "update nlp_jobs set status = ?, lease_until = null, finished_at = ?, result_status = ?, result = ?, error = ?"
+                        + " where id = ? and status = ?",
+                outcome.name(), Timestamp.from(now), resultStatus, result, truncate(error), id, NlpJobStatus.RUNNING.name()));
+    }
+
+    private static Instant instant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= MAX_TEXT ? s : s.substring(0, MAX_TEXT);
+    }
+}
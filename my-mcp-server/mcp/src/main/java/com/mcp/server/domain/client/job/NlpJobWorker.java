@@ -0,0 +1,219 @@
+package com.mcp.server.domain.client.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.common.exception.common.enums.ExceptionError;
+import com.mcp.server.common.exception.core.ApplicationException;
+import com.mcp.server.domain.client.config.NlpJobProperties;
+import com.mcp.server.domain.client.service.public_api.user.core.NlpCrudService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs queued NLP jobs through {@link NlpCrudService} on a fixed pool of
+ * {@link NlpJobProperties#workers()} threads.
+ * <p>
+ * A single poller thread claims as many jobs as there are idle workers, highest lane first,
+ * and hands them to the pool. It wakes up when a job is submitted or finishes, and otherwise
+ * every {@link NlpJobProperties#pollInterval()} to pick up jobs submitted to other instances.
+ * Every third of {@link NlpJobProperties#lease()} it renews the leases of the jobs it runs,
+ * requeues jobs whose lease expired, and purges finished jobs past their retention.
+ * </p>
+ *
+ * <p>
+ * A job that fails because OpenAI or the database failed transiently is retried after an
+ * exponential backoff, up to {@link NlpJobProperties#maxAttempts()} attempts; any other
+ * failure, such as an unknown operation, fails the job at once. Jobs still running at
+ * shutdown are handed back to the queue, and jobs of an instance that died are run again
+ * once their lease expires, so a job runs at least once.
+ * </p>
+ *
+ * <p>
+ * Finished jobs are counted in {@code mcp.nlp.jobs} by {@code result} ({@code succeeded},
+ * {@code retried}, {@code failed}); running jobs are exposed as {@code mcp.nlp.jobs.running}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class NlpJobWorker {
+
+    private final NlpJobProperties props;
+    private final NlpJobStore store;
+    private final NlpCrudService nlpCrudService;
+    private final ObjectMapper mapper;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final Counter succeeded;
+    private final Counter retried;
+    private final Counter failed;
+
+    private volatile boolean active;
+    private ExecutorService pool;
+    private Thread poller;
+
+    public NlpJobWorker(NlpJobProperties props, NlpJobStore store, NlpCrudService nlpCrudService,
+                        ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.store = store;
+        this.nlpCrudService = nlpCrudService;
+        this.mapper = mapper;
+        this.succeeded = Counter.builder("mcp.nlp.jobs").tag("result", "succeeded").register(meterRegistry);
+        this.retried = Counter.builder("mcp.nlp.jobs").tag("result", "retried").register(meterRegistry);
+        this.failed = Counter.builder("mcp.nlp.jobs").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("mcp.nlp.jobs.running", running, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Starts the worker pool and the poller once the schema is migrated and the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!props.enabled()) return;
+        AtomicInteger threads = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(props.workers(), r -> {
+            Thread t = new Thread(r, "nlp-job-worker-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        active = true;
+        poller = new Thread(this::pollLoop, "nlp-job-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /**
+     * Makes the poller look for jobs now rather than at its next interval.
+     */
+    public void wake() {
+        Thread t = poller;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (poller == null) return;
+        active = false;
+        LockSupport.unpark(poller);
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        try {
+            store.release(List.copyOf(running));
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} running NLP jobs, they run again when their lease expires: {}",
+                    running.size(), e.getMessage());
+        }
+    }
+
+    private void pollLoop() {
+        long maintenanceNanos = props.lease().toNanos() / 3;
+        long nextMaintenance = System.nanoTime();
+        while (active) {
+            try {
+                if (System.nanoTime() - nextMaintenance >= 0) {
+                    maintain();
+                    nextMaintenance = System.nanoTime() + maintenanceNanos;
+                }
+                int idle = props.workers() - running.size();
+                if (idle > 0) {
+                    Instant now = Instant.now();
+                    for (NlpJobStore.Claimed job : store.claim(idle, now, now.plus(props.lease()))) {
+                        running.add(job.id());
+                        pool.execute(() -> run(job));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("NLP job poll failed: {}", e.getMessage());
+            }
+            LockSupport.parkNanos(props.pollInterval().toNanos());
+        }
+    }
+
+    private void maintain() {
+        Instant now = Instant.now();
+        store.renew(List.copyOf(running), now.plus(props.lease()));
+        int requeued = store.requeueExpired(now);
+        if (requeued > 0) log.info("Requeued {} NLP jobs whose lease expired", requeued);
+        store.purge(now.minus(props.retention()));
+    }
+
+    private void run(NlpJobStore.Claimed job) {
+        try {
+            ResponseEntity<?> response = nlpCrudService.process(Map.of("prompt", job.prompt()));
+            store.succeed(job.id(), response.getStatusCode().value(), json(response.getBody()), Instant.now());
+            succeeded.increment();
+        } catch (RuntimeException e) {
+            finishFailed(job, e);
+        } finally {
+            running.remove(job.id());
+            wake();
+        }
+    }
+
+    private void finishFailed(NlpJobStore.Claimed job, RuntimeException e) {
+        try {
+            if (isTransient(e) && job.attempts() < props.maxAttempts()) {
+                Duration backoff = props.retryBackoff().multipliedBy(1L << Math.min(job.attempts() - 1, 20));
+                store.retry(job.id(), Instant.now().plus(backoff), message(e));
+                retried.increment();
+            } else {
+                store.fail(job.id(), status(e).value(), message(e), Instant.now());
+                failed.increment();
+            }
+        } catch (RuntimeException storeFailure) {
+            // The lease is no longer renewed, so the job runs again once it expires
+            log.warn("Could not record the outcome of NLP job {}: {}", job.id(), storeFailure.getMessage());
+        }
+    }
+
+    private String json(Object body) {
+        if (body == null) return null;
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize NLP job result", e);
+        }
+    }
+
+    /**
+     * Whether the failure may go away on its own: OpenAI being unavailable or the database
+     * failing transiently. Rejected prompts and commands are not retried.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof ApplicationException ae) return ExceptionError.EXTERNAL_API_CALL_FAILED.getCode().equals(ae.getErrorCode());
+        return e instanceof TransientDataAccessException;
+    }
+
+    private static HttpStatus status(RuntimeException e) {
+        if (e instanceof ResponseStatusException rse) return HttpStatus.valueOf(rse.getStatusCode().value());
+        if (e instanceof ApplicationException ae) return ae.getStatusCode();
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static String message(RuntimeException e) {
+        if (e instanceof ResponseStatusException rse && rse.getReason() != null) return rse.getReason();
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
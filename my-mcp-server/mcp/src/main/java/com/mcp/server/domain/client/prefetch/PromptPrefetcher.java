@@ -0,0 +1,191 @@
+package com.mcp.server.domain.client.prefetch;
+
+import com.mcp.server.common.datasource.ReadYourWrites;
+import com.mcp.server.domain.client.config.NlpPrefetchProperties;
+import com.mcp.server.domain.client.service.public_api.user.core.ClientService;
+import com.mcp.server.domain.user.entity.user.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Speculative user lookups that overlap the OpenAI call.
+ * <p>
+ * {@link #start(String)} scans the raw prompt for UUIDs and mail addresses and starts
+ * {@link ClientService#getById}/{@link ClientService#getByMail} for each on a small
+ * bounded pool, before the prompt is sent to the LLM. When the command comes back,
+ * the dispatcher asks the returned {@link Prefetch} for the user it needs: if that exact
+ * lookup was started, its result is used (waiting at most
+ * {@link NlpPrefetchProperties#maxWait()} if it is still running); otherwise the regular
+ * query runs. Lookups the command does not need are discarded.
+ * </p>
+ *
+ * <p>
+ * Only reads reuse prefetched rows. Updates and deletes must load the row inside their
+ * own transaction, so a row read before the LLM call is never written back.
+ * </p>
+ *
+ * <p>
+ * Results are counted in {@code mcp.nlp.prefetch} by {@code result}: {@code hit} (used),
+ * {@code late} (still running after {@code maxWait}), {@code unused}, and {@code skipped}
+ * (pool saturated).
+ * </p>
+ */
+@Slf4j
+@Component
+public class PromptPrefetcher {
+
+    static final Pattern UUID_PATTERN = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    static final Pattern MAIL_PATTERN = Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}");
+    /** Upper bound on lookups per prompt, so a prompt listing many ids cannot flood the pool. */
+    static final int MAX_LOOKUPS = 4;
+
+    private final ClientService clientService;
+    private final NlpPrefetchProperties props;
+    private final ThreadPoolExecutor executor;
+    private final Counter hits;
+    private final Counter late;
+    private final Counter unused;
+    private final Counter skipped;
+
+    public PromptPrefetcher(ClientService clientService, NlpPrefetchProperties props, MeterRegistry meterRegistry) {
+        this.clientService = clientService;
+        this.props = props;
+        int threads = Math.max(1, props.threads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.queueCapacity())), r -> {
+                    Thread t = new Thread(r, "nlp-prefetch");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.hits = counter(meterRegistry, "hit");
+        this.late = counter(meterRegistry, "late");
+        this.unused = counter(meterRegistry, "unused");
+        this.skipped = counter(meterRegistry, "skipped");
+    }
+
+    /**
+     * Starts lookups for the ids and mails mentioned in {@code prompt}.
+     *
+     * @param prompt the raw user prompt
+     * @return the in-flight lookups; {@link Prefetch#close()} must be called when done
+     */
+    public Prefetch start(String prompt) {
+        Prefetch prefetch = new Prefetch();
+        if (!props.enabled() || prompt == null) return prefetch;
+
+        int started = 0;
+        Matcher ids = UUID_PATTERN.matcher(prompt);
+        while (started < MAX_LOOKUPS && ids.find()) {
+            UUID id = UUID.fromString(ids.group());
+            if (!prefetch.byId.containsKey(id) && submit(prefetch.byId, id, clientService::getById)) started++;
+        }
+        Matcher mails = MAIL_PATTERN.matcher(prompt);
+        while (started < MAX_LOOKUPS && mails.find()) {
+            String mail = mails.group();
+            if (!prefetch.byMail.containsKey(mail) && submit(prefetch.byMail, mail, clientService::getByMail)) started++;
+        }
+        return prefetch;
+    }
+
+    /**
+     * Returns a prefetch with no lookups, for commands that need no LLM call.
+     */
+    public Prefetch none() {
+        return new Prefetch();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <K> boolean submit(Map<K, CompletableFuture<User>> lookups, K key, Function<K, User> query) {
+        try {
+            // Runs as the request's caller, so replica routing keeps its read-your-writes guarantee
+            lookups.put(key, CompletableFuture.supplyAsync(ReadYourWrites.withCaller(() -> query.apply(key)), executor));
+            return true;
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            return false;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("mcp.nlp.prefetch").tag("result", result).register(registry);
+    }
+
+    /**
+     * Lookups started for one prompt. Not thread-safe; used by the request thread only.
+     */
+    public final class Prefetch implements AutoCloseable {
+
+        private final Map<UUID, CompletableFuture<User>> byId = new LinkedHashMap<>();
+        private final Map<String, CompletableFuture<User>> byMail = new LinkedHashMap<>();
+
+        /**
+         * Returns the user with {@code id}, from the prefetch if it was started, else from {@code fallback}.
+         */
+        public User getById(UUID id, Function<UUID, User> fallback) {
+            return resolve(byId.remove(id), id, fallback);
+        }
+
+        /**
+         * Returns the user with {@code mail}, from the prefetch if it was started, else from {@code fallback}.
+         */
+        public User getByMail(String mail, Function<String, User> fallback) {
+            return resolve(byMail.remove(mail), mail, fallback);
+        }
+
+        private <K> User resolve(CompletableFuture<User> lookup, K key, Function<K, User> fallback) {
+            if (lookup == null) return fallback.apply(key);
+            try {
+                User user = lookup.get(props.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+                hits.increment();
+                return user;
+            } catch (TimeoutException e) {
+                late.increment();
+            } catch (ExecutionException e) {
+                log.debug("Prefetch for {} failed, querying again: {}", key, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lookup.cancel(false);
+            return fallback.apply(key);
+        }
+
+        /**
+         * Discards lookups the command did not use.
+         */
+        @Override
+        public void close() {
+            for (CompletableFuture<User> f : byId.values()) discard(f);
+            for (CompletableFuture<User> f : byMail.values()) discard(f);
+            byId.clear();
+            byMail.clear();
+        }
+
+        private void discard(CompletableFuture<User> lookup) {
+            unused.increment();
+            lookup.cancel(false);
+        }
+    }
+}
@@ -2,7 +2,14 @@ package com.mcp.server.domain.client.service.public_api.user.core;
 
 import com.mcp.server.domain.client.dto.public_api.user.CreateUserDto;
 import com.mcp.server.domain.client.dto.public_api.user.UpdateUserDto;
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserLookupDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import com.mcp.server.domain.user.search.SearchMode;
 
 import java.util.List;
 import java.util.UUID;
@@ -34,6 +41,14 @@ public interface ClientService {
      */
     List<User> getAll();
 
+    /**
+     * Retrieves all users with only the given fields selected.
+     *
+     * @param fields the fields to return, in output order
+     * @return a list of all users, projected to {@code fields}
+     */
+    List<ProjectedUser> getAll(List<UserField> fields);
+
     /**
      * Retrieves a user by their unique identifier.
      *
@@ -42,6 +57,22 @@ public interface ClientService {
      */
     User getById(UUID id);
 
+    /**
+     * Retrieves the users with the given identifiers.
+     *
+     * @param ids the UUIDs of the users, possibly with repeats
+     * @return the {@link User} entities in the order of {@code ids}, with the ids no user has listed as missing
+     */
+    UserLookupDto<User> getByIds(List<UUID> ids);
+
+    /**
+     * Retrieves a user by their email address.
+     *
+     * @param mail the email of the user
+     * @return the {@link User} entity, or {@code null} if not found
+     */
+    User getByMail(String mail);
+
     /**
      * Updates an existing user.
      *
@@ -58,4 +89,31 @@ public interface ClientService {
      * @return {@code true} if deletion was successful, {@code false} otherwise
      */
     boolean deleteById(UUID id);
+
+    /**
+     * Searches users by name and mail.
+     *
+     * @param query the query text
+     * @param mode  the matching strategy (prefix, substring, fuzzy or auto)
+     * @param limit the maximum number of results
+     * @return matching {@link User} entities, best matches first
+     */
+    List<User> search(String query, SearchMode mode, int limit);
+
+    /**
+     * Computes aggregate statistics over all users.
+     *
+     * @param topDomains how many of the most common mail domains to include
+     * @return the user count, age statistics and histogram, and top mail domains
+     */
+    UserStatsDto stats(int topDomains);
+
+    /**
+     * Returns the users created, updated or deleted after a watermark.
+     *
+     * @param since the watermark from the previous sync
+     * @param limit the maximum number of upserts plus deletions
+     * @return the changes and the watermark for the next request
+     */
+    UserDeltaDto modifiedSince(DeltaWatermark since, int limit);
 }
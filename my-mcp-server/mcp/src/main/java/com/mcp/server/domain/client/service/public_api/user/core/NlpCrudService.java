@@ -1,16 +1,31 @@
 package com.mcp.server.domain.client.service.public_api.user.core;
 
+import com.mcp.server.common.deadline.RequestDeadline;
+import com.mcp.server.common.exception.core.ApplicationException;
+import com.mcp.server.common.exception.core.GatewayTimeoutException;
+import com.mcp.server.common.metrics.McpMetrics;
 import com.mcp.server.domain.client.OpenAiClient;
+import com.mcp.server.domain.client.audit.NlpAuditLog;
+import com.mcp.server.domain.client.cache.PersistentCommandCache;
 import com.mcp.server.domain.client.dto.public_api.user.CreateUserDto;
 import com.mcp.server.domain.client.dto.public_api.user.UpdateUserDto;
+import com.mcp.server.domain.client.prefetch.PromptPrefetcher;
 import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.UserField;
+import com.mcp.server.domain.user.search.SearchMode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -24,9 +39,11 @@ import java.util.UUID;
  * Supported operations:
  * <ul>
  *     <li>{@code create} - Create a new user</li>
- *     <li>{@code get} - Get a user by ID or all users if no ID provided</li>
+ *     <li>{@code get} - Get a user by ID or mail, users by a list of IDs, or all users if none is provided</li>
  *     <li>{@code update} - Update a user by ID</li>
  *     <li>{@code delete} - Delete a user by ID</li>
+ *     <li>{@code search} - Search users by name or mail</li>
+ *     <li>{@code aggregate} - Count users, age statistics and histogram, top mail domains</li>
  * </ul>
  * </p>
  *
@@ -40,6 +57,30 @@ import java.util.UUID;
  * </pre>
  * </p>
  *
+ * <p>
+ * While the OpenAI call is in flight, users whose id or mail appears in the prompt are
+ * looked up speculatively by {@link PromptPrefetcher}, so a {@code get} costs
+ * max(LLM, DB) rather than their sum.
+ * </p>
+ *
+ * <p>
+ * Commands that executed successfully are remembered in {@link PersistentCommandCache},
+ * so repeating a prompt (also across restarts) skips the OpenAI call.
+ * </p>
+ *
+ * <p>
+ * Command dispatch is recorded as the {@link McpMetrics#NLP_DISPATCH} observation, and
+ * every request is counted per operation and outcome. Every request is also recorded,
+ * with its command, latency and outcome, in the write-behind {@link NlpAuditLog}.
+ * </p>
+ *
+ * <p>
+ * A request with a {@link RequestDeadline} gives OpenAI only the time left, and its command
+ * runs in one transaction whose queries time out at the deadline. A command whose deadline
+ * passed during the OpenAI call is not executed. Either way the request fails with
+ * {@link GatewayTimeoutException} and is counted with the outcome {@code timeout}.
+ * </p>
+ *
  * @see OpenAiClient
  * @see ClientService
  */
@@ -47,8 +88,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class NlpCrudService {
 
+    private static final int MAX_IDS = 10_000;
+    private static final Set<String> READS = Set.of("get", "search", "aggregate");
+
     private final ClientService userService;
     private final OpenAiClient openAiClient;
+    private final McpMetrics metrics;
+    private final PersistentCommandCache commandCache;
+    private final NlpAuditLog auditLog;
+    private final PromptPrefetcher prefetcher;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * Processes an NLP-based CRUD request.
@@ -56,17 +105,67 @@ public class NlpCrudService {
      * @param body a map containing the "prompt" key for OpenAI
      * @return a {@link ResponseEntity} containing the result of the operation
      * @throws ResponseStatusException if the prompt is missing, invalid, or the operation is unknown
+     * @throws GatewayTimeoutException if the request deadline passes before the operation completes
      */
     public ResponseEntity<?> process(Map<String, Object> body) {
         String prompt = str(body.get("prompt"));
         if (isBlank(prompt)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Prompt is required");
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> cmd = openAiClient.chatJson(prompt, Map.class);
+        long started = System.nanoTime();
+        String op = null;
+        Map<String, Object> cmd = null;
+        Map<String, Object> cached = null;
+        try {
+            cached = commandCache.get(prompt).orElse(null);
+            ResponseEntity<?> response;
+            // Users mentioned in the prompt are looked up while the OpenAI call is in flight
+            try (PromptPrefetcher.Prefetch prefetch = cached != null ? prefetcher.none() : prefetcher.start(prompt)) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> resolved = cached != null ? cached : openAiClient.chatJson(prompt, Map.class);
+                cmd = resolved;
 
-        String op = str(cmd.get("operation"));
-        Map<String,Object> data = (Map<String,Object>) cmd.get("data");
+                op = str(cmd.get("operation"));
+                Map<String,Object> data = data(cmd.get("data"));
 
+                final String operation = op;
+                response = metrics.observe(McpMetrics.NLP_DISPATCH, "operation", operation,
+                        () -> dispatchWithinDeadline(operation, data, prefetch));
+            }
+            metrics.countOperation(op, "success");
+            if (cached == null) commandCache.put(prompt, cmd);
+            auditLog.record(prompt, op, cmd, cached != null, "success", started);
+            return response;
+        } catch (RuntimeException e) {
+            String outcome = outcome(e);
+            metrics.countOperation(op, outcome);
+            auditLog.record(prompt, op, cmd, cached != null, outcome, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the command in a transaction that times out at the request deadline, if there is one.
+     * The outer transaction is joined by the {@link ClientService} methods, so the timeout
+     * covers every query of the command.
+     */
+    private ResponseEntity<?> dispatchWithinDeadline(String op, Map<String, Object> data, PromptPrefetcher.Prefetch prefetch) {
+        if (RequestDeadline.current() == null) return dispatch(op, data, prefetch);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        // Set.of rejects null lookups; a command without an operation is rejected by dispatch
+        tx.setReadOnly(op != null && READS.contains(op));
+        try {
+            return RequestDeadline.bound(tx).execute(status -> dispatch(op, data, prefetch));
+        } catch (ResponseStatusException | ApplicationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // A query cancelled by the transaction timeout, or a transaction that timed out between queries
+            if (RequestDeadline.exceeded()) throw new GatewayTimeoutException();
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> dispatch(String op, Map<String, Object> data, PromptPrefetcher.Prefetch prefetch) {
+        if (op == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown op: null");
         return switch (op) {
             case "create" -> {
                 CreateUserDto dto = new CreateUserDto(str(data.get("name")), str(data.get("mail")), i(data.get("age")));
@@ -74,7 +173,11 @@ public class NlpCrudService {
             }
             case "get" -> {
                 String idStr = str(data.get("id"));
-                if (notBlank(idStr)) yield ResponseEntity.ok(userService.getById(parse(idStr)));
+                String mail = str(data.get("mail"));
+                if (data.get("ids") instanceof Collection<?> ids) yield ResponseEntity.ok(userService.getByIds(ids(ids)));
+                else if (notBlank(idStr)) yield ResponseEntity.ok(prefetch.getById(parse(idStr), userService::getById));
+                else if (notBlank(mail)) yield ResponseEntity.ok(prefetch.getByMail(mail, userService::getByMail));
+                else if (data.get("fields") != null) yield ResponseEntity.ok(userService.getAll(fields(data.get("fields"))));
                 else yield ResponseEntity.ok(userService.getAll());
             }
             case "update" -> {
@@ -85,13 +188,48 @@ public class NlpCrudService {
                 userService.deleteById(parse(str(data.get("id"))));
                 yield ResponseEntity.noContent().build();
             }
+            case "search" -> {
+                String query = str(data.get("query"));
+                if (isBlank(query)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is required");
+                Integer limit = i(data.get("limit"));
+                yield ResponseEntity.ok(userService.search(query, mode(str(data.get("mode"))),
+                        limit == null ? 20 : Math.max(1, Math.min(limit, 100))));
+            }
+            case "aggregate" -> {
+                Integer top = i(data.get("topDomains"));
+                yield ResponseEntity.ok(userService.stats(top == null ? 10 : Math.max(1, Math.min(top, 100))));
+            }
             default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown op: " + op);
         };
     }
 
+    private static String outcome(RuntimeException e) {
+        if (e instanceof GatewayTimeoutException) return "timeout";
+        HttpStatusCode status = e instanceof ResponseStatusException rse ? rse.getStatusCode()
+                : e instanceof ApplicationException ae ? ae.getStatusCode()
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        return status.is4xxClientError() ? "client_error" : "server_error";
+    }
+
     private static String str(Object o) { return o == null ? null : String.valueOf(o); }
+    /** The command's arguments; a command without any, such as a bare "get", has none. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> data(Object raw) {
+        if (raw == null) return Map.of();
+        if (raw instanceof Map<?, ?> m) return (Map<String, Object>) m;
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Command data must be an object");
+    }
     private static boolean isBlank(String s) { return s == null || s.isBlank(); }
     private static boolean notBlank(String s) { return !isBlank(s); }
     private static Integer i(Object o) { try { return o == null ? null : Integer.parseInt(String.valueOf(o)); } catch (Exception e) { return null; } }
+    private static SearchMode mode(String raw) { try { return SearchMode.parse(raw); } catch (IllegalArgumentException e) { return SearchMode.AUTO; } }
+    private static List<UserField> fields(Object raw) {
+        String names = raw instanceof Collection<?> c ? String.join(",", c.stream().map(String::valueOf).toList()) : String.valueOf(raw);
+        try { return UserField.parse(names, UserField.ALL); } catch (IllegalArgumentException e) { throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()); }
+    }
+    private static List<UUID> ids(Collection<?> raw) {
+        if (raw.size() > MAX_IDS) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_IDS + " ids per lookup");
+        return raw.stream().map(id -> parse(str(id))).toList();
+    }
     private static UUID parse(String raw) { try { return UUID.fromString(raw); } catch (Exception e) { throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid UUID: " + raw); } }
 }
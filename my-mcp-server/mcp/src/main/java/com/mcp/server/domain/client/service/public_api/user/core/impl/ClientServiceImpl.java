@@ -1,22 +1,43 @@
 package com.mcp.server.domain.client.service.public_api.user.core.impl;
 
+import com.mcp.server.common.metrics.McpMetrics;
 import com.mcp.server.domain.client.dto.public_api.user.CreateUserDto;
 import com.mcp.server.domain.client.dto.public_api.user.UpdateUserDto;
 import com.mcp.server.domain.client.service.public_api.user.core.ClientService;
+import com.mcp.server.domain.user.bloom.UserBloomGuard;
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.changes.UserDeltaQuery;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserLookupDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
 import com.mcp.server.domain.user.repository.public_api.user.UserRepository;
+import com.mcp.server.domain.user.search.SearchMode;
+import com.mcp.server.domain.user.search.UserSearchIndex;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Implementation of {@link ClientService} for managing {@link User} entities.
  * <p>
- * Uses {@link UserRepository} to perform CRUD operations.
+ * Uses {@link ShardedUserRepository} to perform CRUD operations on top of {@link UserRepository}.
  * Transactions are managed with Spring's {@link Transactional} annotation.
+ * Each operation is recorded as the {@link McpMetrics#CLIENT_OPERATION} observation,
+ * and every mutation publishes a {@link UserChangedEvent}.
  * </p>
  * 
  * @see ClientService
@@ -27,45 +48,113 @@ import java.util.UUID;
 @Transactional
 public class ClientServiceImpl implements ClientService {
 
-    private final UserRepository userRepository;
+    private final ShardedUserRepository userRepository;
+    private final ApplicationEventPublisher events;
+    private final UserSearchIndex searchIndex;
+    private final UserDeltaQuery deltaQuery;
+    private final UserBloomGuard bloomGuard;
 
     @Override
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-create", lowCardinalityKeyValues = {"operation", "create"})
     public User create(CreateUserDto dto) {
         User u = new User();
         u.setName(dto.name());
         u.setMail(dto.mail());
         u.setAge(dto.age());
-        return userRepository.save(u);
+        User saved = userRepository.create(u);
+        events.publishEvent(UserChangedEvent.created(saved));
+        return saved;
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-get-all", lowCardinalityKeyValues = {"operation", "getAll"})
     public List<User> getAll() {
         return userRepository.findAll();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-get-all-projected", lowCardinalityKeyValues = {"operation", "getAllProjected"})
+    public List<ProjectedUser> getAll(List<UserField> fields) {
+        return userRepository.findAllProjected(fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-get-by-id", lowCardinalityKeyValues = {"operation", "getById"})
     public User getById(UUID id) {
-        return userRepository.findById(id).orElse(null);
+        return bloomGuard.findById(id, () -> userRepository.findById(id)).orElse(null);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-get-by-ids", lowCardinalityKeyValues = {"operation", "getByIds"})
+    public UserLookupDto<User> getByIds(List<UUID> ids) {
+        Map<UUID, User> found = new HashMap<>();
+        for (User u : userRepository.findAllById(bloomGuard.mightExist(ids))) found.put(u.getId(), u);
+        return UserLookupDto.of(ids, found);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-get-by-mail", lowCardinalityKeyValues = {"operation", "getByMail"})
+    public User getByMail(String mail) {
+        return bloomGuard.findByMail(mail, () -> userRepository.findByMail(mail)).orElse(null);
+    }
+
+    @Override
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-update", lowCardinalityKeyValues = {"operation", "update"})
     public User update(UUID id, UpdateUserDto dto) {
         User u = userRepository.findById(id).orElse(null);
         if (u == null) return null;
 
+        UserResponseDto before = UserChangedEvent.snapshot(u);
         if (dto.name() != null && !dto.name().isBlank()) u.setName(dto.name());
         if (dto.mail() != null && !dto.mail().isBlank()) u.setMail(dto.mail());
         if (dto.age()  != null)                          u.setAge(dto.age());
 
-        return userRepository.save(u);
+        User saved = userRepository.save(u);
+        events.publishEvent(UserChangedEvent.updated(before, saved));
+        return saved;
     }
 
     @Override
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-delete", lowCardinalityKeyValues = {"operation", "deleteById"})
     public boolean deleteById(UUID id) {
-        if (!userRepository.existsById(id)) return false;
-        userRepository.deleteById(id);
+        User u = userRepository.findById(id).orElse(null);
+        if (u == null) return false;
+        userRepository.delete(u);
+        events.publishEvent(UserChangedEvent.deleted(UserChangedEvent.snapshot(u)));
         return true;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-search", lowCardinalityKeyValues = {"operation", "search"})
+    public List<User> search(String query, SearchMode mode, int limit) {
+        if (!searchIndex.isReady()) {
+            return userRepository.searchSubstring(query, limit);
+        }
+        List<UUID> ids = searchIndex.search(query, mode, limit).stream().map(UserResponseDto::id).toList();
+        Map<UUID, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) rank.put(ids.get(i), i);
+        return userRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparingInt(u -> rank.get(u.getId())))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-stats", lowCardinalityKeyValues = {"operation", "stats"})
+    public UserStatsDto stats(int topDomains) {
+        return userRepository.stats(topDomains);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Observed(name = McpMetrics.CLIENT_OPERATION, contextualName = "client-modified-since", lowCardinalityKeyValues = {"operation", "modifiedSince"})
+    public UserDeltaDto modifiedSince(DeltaWatermark since, int limit) {
+        return deltaQuery.since(since, limit);
+    }
 }
@@ -0,0 +1,107 @@
+package com.mcp.server.domain.user.bloom;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter with 4-bit counters, so that keys can be removed again.
+ * <p>
+ * Counters are packed sixteen to a {@code long} and updated with CAS, so concurrent adds and
+ * removes need no lock. A counter that reaches 15 saturates and is never decremented again;
+ * it then only costs false positives, never false negatives. Probe positions come from
+ * double hashing over the two 32-bit halves of one well-mixed 64-bit hash.
+ * </p>
+ *
+ * <p>
+ * Removing a key that was never added decrements counters owned by other keys and can cause
+ * false negatives, so callers must only remove what they added.
+ * </p>
+ */
+final class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+    /** Counters that are not zero, for estimating the false positive rate. */
+    private final AtomicLong nonZero = new AtomicLong();
+
+    /**
+     * Sizes the filter for {@code expectedKeys} at a false positive rate of {@code fpp}.
+     */
+    CountingBloomFilter(long expectedKeys, double fpp) {
+        long n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.counters = Math.max(COUNTERS_PER_WORD, m);
+        this.hashes = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    void add(long hash) {
+        for (int i = 0; i < hashes; i++) increment(index(hash, i));
+    }
+
+    void remove(long hash) {
+        for (int i = 0; i < hashes; i++) decrement(index(hash, i));
+    }
+
+    boolean mightContain(long hash) {
+        for (int i = 0; i < hashes; i++) {
+            if (counter(index(hash, i)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The false positive rate implied by the current fill: the chance that all probes of an absent key hit a non-zero counter.
+     */
+    double expectedFpp() {
+        return Math.pow((double) nonZero.get() / counters, hashes);
+    }
+
+    private long index(long hash, int i) {
+        long h1 = hash & 0xffffffffL;
+        long h2 = (hash >>> 32) | 1;
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & MAX;
+    }
+
+    private void increment(long index) {
+        int w = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(w);
+            long value = (word >>> shift) & MAX;
+            if (value == MAX) return;
+            if (words.compareAndSet(w, word, word + (1L << shift))) {
+                if (value == 0) nonZero.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int w = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(w);
+            long value = (word >>> shift) & MAX;
+            if (value == 0 || value == MAX) return;
+            if (words.compareAndSet(w, word, word - (1L << shift))) {
+                if (value == 1) nonZero.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+}
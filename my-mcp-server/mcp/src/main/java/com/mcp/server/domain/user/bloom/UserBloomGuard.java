@@ -0,0 +1,432 @@
+package com.mcp.server.domain.user.bloom;
+
+import com.mcp.server.domain.user.changes.UserChangesProperties;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.repository.public_api.change.UserChangeRepository;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counting Bloom filters over existing user ids and mails, answering lookups for users that
+ * certainly do not exist without a database query.
+ * <p>
+ * The filters are built from a keyset-paginated scan once the application is ready, and are
+ * kept current from {@link UserChangedEvent}s after their transaction commits: creates add,
+ * deletes and mail changes remove. Until the first build completes every key passes.
+ * Removals are queued and applied by the next outbox sync, described below, once it has
+ * added everything committed before them: a user created by another instance can be deleted
+ * here before the sync adds it, and removing a key that was never added could take a present
+ * user's counters to zero. A queued removal is dropped if the filters it was meant for have
+ * been replaced in the meantime.
+ * </p>
+ *
+ * <p>
+ * Those events only cover this instance. Users created, imported or given a new mail by
+ * other instances are read from the shared {@code user_changes} outbox of every shard each
+ * {@link UserBloomProperties#syncInterval()} and added as well; their deletes are left to
+ * the next rebuild, which only costs false positives. The outbox cursor moves only past
+ * changes older than {@link UserChangesProperties#visibilityDelay()}, and changes above it
+ * are remembered once applied, so a change that commits out of {@code seq} order is not
+ * skipped. Changes of this instance are added a second time by the sync; that keeps their
+ * counters higher, which can only leave a false positive until the next rebuild.
+ * </p>
+ *
+ * <p>
+ * The filters are rebuilt in the background every {@link UserBloomProperties#rebuildInterval()},
+ * and as soon as the user count exceeds the size they were built for. While a rebuild scans,
+ * changes are applied to the live filters as usual, but only additions reach the new ones:
+ * a removal there could hit a key the scan has not added, and make a present user look absent.
+ * Keys deleted during the scan therefore stay in the new filters as false positives until the
+ * next rebuild.
+ * </p>
+ *
+ * <p>
+ * Outcomes are counted in {@code mcp.users.bloom} by {@code index} ({@code id}, {@code mail})
+ * and {@code result}: {@code rejected} (answered without the database), {@code found} and
+ * {@code false_positive} (passed but not found). The rate implied by the filters' fill is
+ * exposed as {@code mcp.users.bloom.expected_fpp}.
+ * </p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UserBloomProperties.class)
+public class UserBloomGuard {
+
+    private static final int BUILD_PAGE_SIZE = 1_000;
+    private static final int SYNC_PAGE_SIZE = 500;
+
+    private final UserBloomProperties props;
+    private final ShardedUserRepository userRepository;
+    private final UserChangeRepository changes;
+    private final UserShards shards;
+    private final Duration visibilityDelay;
+    private final ScheduledExecutorService rebuilder;
+    private final ScheduledExecutorService syncer;
+    // Per shard, only touched by the syncer: every change up to the cursor is applied, -1 until initialized
+    private final long[] cursors;
+    // Per shard: changes above the cursor already applied
+    private final List<NavigableSet<Long>> applied = new ArrayList<>();
+    // Removals waiting for a sync that has added their keys; only drained by the syncer
+    private final Queue<Removal> removals = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Outcomes ids;
+    private final Outcomes mails;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public UserBloomGuard(UserBloomProperties props, ShardedUserRepository userRepository, UserChangeRepository changes,
+                          UserShards shards, UserChangesProperties changesProps, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.userRepository = userRepository;
+        this.changes = changes;
+        this.shards = shards;
+        this.visibilityDelay = changesProps.visibilityDelay();
+        this.rebuilder = props.enabled() ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-bloom-rebuild");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.syncer = props.enabled() ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-bloom-sync");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.cursors = new long[shards.count()];
+        Arrays.fill(cursors, -1);
+        for (int shard = 0; shard < shards.count(); shard++) applied.add(new TreeSet<>());
+        this.ids = new Outcomes(meterRegistry, "id");
+        this.mails = new Outcomes(meterRegistry, "mail");
+        Gauge.builder("mcp.users.bloom.expected_fpp", this, g -> g.expectedFpp(true)).tag("index", "id").register(meterRegistry);
+        Gauge.builder("mcp.users.bloom.expected_fpp", this, g -> g.expectedFpp(false)).tag("index", "mail").register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Starts the initial build and schedules the periodic rebuilds and the outbox sync.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (rebuilder == null) return;
+        long interval = props.rebuildInterval().toMillis();
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, interval, TimeUnit.MILLISECONDS);
+        long syncInterval = props.syncInterval().toMillis();
+        syncer.scheduleWithFixedDelay(this::sync, 0, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs {@code query} unless the id filter rules the user out.
+     */
+    public <T> Optional<T> findById(UUID id, Supplier<Optional<T>> query) {
+        Filters filters = current;
+        if (filters == null) return query.get();
+        if (!filters.ids.mightContain(hash(id))) {
+            ids.rejected.increment();
+            return Optional.empty();
+        }
+        return ids.record(query.get());
+    }
+
+    /**
+     * Returns the ids the id filter does not rule out, in their original order.
+     */
+    public List<UUID> mightExist(List<UUID> candidates) {
+        Filters filters = current;
+        if (filters == null) return candidates;
+        List<UUID> passed = new ArrayList<>(candidates.size());
+        for (UUID id : candidates) {
+            if (filters.ids.mightContain(hash(id))) passed.add(id);
+            else ids.rejected.increment();
+        }
+        return passed;
+    }
+
+    /**
+     * Runs {@code query} unless the mail filter rules the user out.
+     */
+    public <T> Optional<T> findByMail(String mail, Supplier<Optional<T>> query) {
+        Filters filters = current;
+        if (filters == null || mail == null) return query.get();
+        if (!filters.mails.mightContain(hash(mail))) {
+            mails.rejected.increment();
+            return Optional.empty();
+        }
+        return mails.record(query.get());
+    }
+
+    /**
+     * Applies a committed user mutation's additions to the live filters and, during a rebuild, to
+     * the new ones, and queues its removals for the next sync.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (rebuilder == null) return;
+        // Read before current: a rebuild publishes current before clearing building, so one of
+        // the two is always the filters that survive the swap
+        Filters next = building;
+        Filters live = current;
+        UserResponseDto before = event.before();
+        UserResponseDto after = event.after();
+        boolean mailChanged = before == null || after == null || !before.mail().equals(after.mail());
+
+        if (after != null) {
+            addTo(live, event.id(), after, before == null, mailChanged);
+            if (next != live) addTo(next, event.id(), after, before == null, mailChanged);
+        }
+        if (live != null && before != null && (mailChanged || after == null)) {
+            removals.add(new Removal(live, after == null ? event.id() : null, mailChanged ? before.mail() : null));
+        }
+        if (live != null && live.size.get() > live.capacity) requestRebuild();
+    }
+
+    /**
+     * Applies a committed chunk of a bulk import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.changes().forEach(this::onUserChanged);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (rebuilder != null) rebuilder.shutdownNow();
+        if (syncer != null) syncer.shutdownNow();
+    }
+
+    private static void addTo(Filters filters, UUID id, UserResponseDto after, boolean created, boolean mailChanged) {
+        if (filters == null) return;
+        if (created) filters.add(hash(id));
+        if (mailChanged) filters.mails.add(hash(after.mail()));
+    }
+
+    /**
+     * Adds the users created or given a new mail since the last sync, on any instance, to the
+     * live filters and, during a rebuild, to the new ones. Then applies the removals queued
+     * before the sync started, whose keys it has now added.
+     */
+    private void sync() {
+        int queued = removals.size();
+        try {
+            Instant visibleBefore = Instant.now().minus(visibilityDelay);
+            for (int shard = 0; shard < cursors.length; shard++) syncShard(shard, visibleBefore);
+        } catch (RuntimeException e) {
+            log.warn("User Bloom filter sync failed, retrying in {}: {}", props.syncInterval(), e.getMessage());
+            return;
+        }
+        Filters live = current;
+        for (int i = 0; i < queued; i++) {
+            Removal removal = removals.poll();
+            // Filters built since were scanned after the change and never held the key
+            if (removal.filters != live) continue;
+            if (removal.mail != null) live.mails.remove(hash(removal.mail));
+            if (removal.id != null) live.remove(hash(removal.id));
+        }
+    }
+
+    private void syncShard(int shard, Instant visibleBefore) {
+        if (cursors[shard] < 0) {
+            // The initial build scans the users table, so only changes from about now on are needed
+            cursors[shard] = shards.query(shard, s -> changes.findFirstByOccurredAtBeforeOrderBySeqDesc(visibleBefore))
+                    .map(UserChange::getSeq)
+                    .orElse(0L);
+        }
+        NavigableSet<Long> done = applied.get(shard);
+        boolean settled = true;
+        long after = cursors[shard];
+        List<UserChange> rows;
+        do {
+            long from = after;
+            rows = shards.query(shard, s -> changes.findBySeqGreaterThanOrderBySeqAsc(from, PageRequest.ofSize(SYNC_PAGE_SIZE)));
+            for (UserChange row : rows) {
+                if (done.add(row.getSeq())) apply(row);
+                settled &= row.getOccurredAt().isBefore(visibleBefore);
+                if (settled) cursors[shard] = row.getSeq();
+                after = row.getSeq();
+            }
+        } while (rows.size() == SYNC_PAGE_SIZE);
+        done.headSet(cursors[shard], true).clear();
+    }
+
+    private void apply(UserChange change) {
+        if (change.getType() == UserChangedEvent.Type.DELETED) return;
+        Filters next = building;
+        Filters live = current;
+        boolean created = change.getType() == UserChangedEvent.Type.CREATED;
+        addTo(live, change.getUserId(), change.getMail(), created);
+        if (next != live) addTo(next, change.getUserId(), change.getMail(), created);
+        if (live != null && live.size.get() > live.capacity) requestRebuild();
+    }
+
+    private static void addTo(Filters filters, UUID id, String mail, boolean created) {
+        if (filters == null) return;
+        if (created) filters.add(hash(id));
+        if (mail != null) filters.mails.add(hash(mail));
+    }
+
+    private void rebuild() {
+        if (rebuilding.compareAndSet(false, true)) runRebuild();
+    }
+
+    private void requestRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) return;
+        try {
+            rebuilder.execute(this::runRebuild);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Builds new filters with a keyset-paginated scan of the users table on every shard and swaps them in.
+     * The caller has claimed {@link #rebuilding}.
+     */
+    private void runRebuild() {
+        try {
+            long started = System.nanoTime();
+            Filters live = current;
+            long capacity = Math.max(props.expectedUsers(), live == null ? 0 : 2 * live.size.get());
+            Filters next = new Filters(capacity, props.falsePositiveRate());
+            building = next;
+
+            List<User> page = userRepository.page(null, BUILD_PAGE_SIZE);
+            while (!page.isEmpty()) {
+                for (User u : page) {
+                    next.add(hash(u.getId()));
+                    next.mails.add(hash(u.getMail()));
+                }
+                UUID last = page.get(page.size() - 1).getId();
+                page = userRepository.page(last, BUILD_PAGE_SIZE);
+            }
+            current = next;
+            building = null;
+            log.info("User Bloom filters built for {} users (capacity {}) in {} ms",
+                    next.size.get(), capacity, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            building = null;
+            log.warn("User Bloom filter rebuild failed, keeping the previous filters: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private double expectedFpp(boolean byId) {
+        Filters filters = current;
+        if (filters == null) return Double.NaN;
+        return byId ? filters.ids.expectedFpp() : filters.mails.expectedFpp();
+    }
+
+    private static long hash(UUID id) {
+        return mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+    }
+
+    private static long hash(String mail) {
+        // 64-bit FNV-1a over the UTF-16 code units
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < mail.length(); i++) {
+            h ^= mail.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, so that both 32-bit halves of the hash depend on every input bit.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Filters {
+        final CountingBloomFilter ids;
+        final CountingBloomFilter mails;
+        final long capacity;
+        /** Users added minus users removed; drives the resize. */
+        final AtomicLong size = new AtomicLong();
+
+        Filters(long capacity, double fpp) {
+            this.ids = new CountingBloomFilter(capacity, fpp);
+            this.mails = new CountingBloomFilter(capacity, fpp);
+            this.capacity = capacity;
+        }
+
+        void add(long idHash) {
+            ids.add(idHash);
+            size.incrementAndGet();
+        }
+
+        void remove(long idHash) {
+            ids.remove(idHash);
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * A removal from the filters that were live when it was committed; {@code id} is set for a
+     * delete, {@code mail} for a delete or mail change.
+     */
+    private record Removal(Filters filters, UUID id, String mail) {}
+
+    private static final class Outcomes {
+        final Counter rejected;
+        final Counter found;
+        final Counter falsePositive;
+
+        Outcomes(MeterRegistry registry, String index) {
+            this.rejected = counter(registry, index, "rejected");
+            this.found = counter(registry, index, "found");
+            this.falsePositive = counter(registry, index, "false_positive");
+        }
+
+        <T> Optional<T> record(Optional<T> result) {
+            (result.isPresent() ? found : falsePositive).increment();
+            return result;
+        }
+
+        private static Counter counter(MeterRegistry registry, String index, String result) {
+            return Counter.builder("mcp.users.bloom").tag("index", index).tag("result", result).register(registry);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.mcp.server.domain.user.bloom;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Bloom filters guarding user lookups.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   bloom:
+ *     expected-users: 20000000
+ *     false-positive-rate: 0.01
+ *     rebuild-interval: 6h
+ *     sync-interval: 1s
+ * </pre>
+ * </p>
+ *
+ * @param enabled           whether lookups by id and mail are checked against the filters
+ * @param expectedUsers     the minimum number of users the filters are sized for; a rebuild sizes them for twice the current count
+ * @param falsePositiveRate the target false positive rate at the sized capacity
+ * @param rebuildInterval   how often the filters are rebuilt from the database, dropping residue left by concurrent changes
+ * @param syncInterval      how often users created or renamed by other instances are read from the {@code user_changes} outbox;
+ *                          until then a lookup of such a user on this instance is answered as absent
+ */
+@ConfigurationProperties(prefix = "users.bloom")
+public record UserBloomProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000000") long expectedUsers,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("6h") Duration rebuildInterval,
+        @DefaultValue("1s") Duration syncInterval
+) {}
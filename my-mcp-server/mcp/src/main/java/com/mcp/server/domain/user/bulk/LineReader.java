@@ -0,0 +1,67 @@
+package com.mcp.server.domain.user.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines of at most a fixed length, so one oversized line cannot exhaust memory.
+ * <p>
+ * Accepts {@code \n} and {@code \r\n} line ends. A line longer than the limit is skipped
+ * up to its line end and returned as {@link Line#tooLong()} with only its first
+ * characters. Not thread-safe.
+ * </p>
+ */
+final class LineReader {
+
+    /** A line and its 1-based number in the upload. */
+    record Line(long number, String text, boolean tooLong) {}
+
+    private static final int PREVIEW = 200;
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int pos;
+    private int limit;
+    private long number;
+
+    LineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the next line, or {@code null} at the end of the input.
+     */
+    Line next() throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        boolean any = false;
+        while (true) {
+            if (pos == limit) {
+                limit = in.read(buffer);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return any ? line(tooLong) : null;
+                }
+            }
+            any = true;
+            char c = buffer[pos++];
+            if (c == '\n') return line(tooLong);
+            if (tooLong) continue;
+            line.append(c);
+            if (line.length() > maxLength) {
+                tooLong = true;
+                line.setLength(Math.min(PREVIEW, maxLength));
+            }
+        }
+    }
+
+    private Line line(boolean tooLong) {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') line.setLength(end - 1);
+        return new Line(++number, line.toString(), tooLong);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mcp.server.domain.user.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns one line of an upload into a {@link CreateUserDto}, before bean validation.
+ * <p>
+ * Parsers are stateless after construction and are shared by the validator threads.
+ * A line that cannot be parsed fails with an {@link IllegalArgumentException} whose
+ * message is the rejection reason.
+ * </p>
+ */
+interface RowParser {
+
+    CreateUserDto parse(String line);
+
+    /**
+     * One JSON object per line, with the fields of {@link CreateUserDto}.
+     */
+    static RowParser ndjson(ObjectMapper mapper) {
+        return line -> {
+            try {
+                return mapper.readValue(line, CreateUserDto.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    /**
+     * RFC 4180 CSV with a header row naming the {@code name}, {@code mail} and {@code age}
+     * columns in any order; other columns are ignored. Quoted fields may contain commas and
+     * doubled quotes, but not line breaks.
+     *
+     * @param header the first line of the upload
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    static RowParser csv(String header) {
+        List<String> columns = fields(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int name = -1, mail = -1, age = -1;
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "name" -> name = i;
+                case "mail" -> mail = i;
+                case "age" -> age = i;
+                default -> { }
+            }
+        }
+        if (name < 0 || mail < 0 || age < 0) {
+            throw new IllegalArgumentException("CSV header must name the columns name, mail and age, got: " + header);
+        }
+        int nameAt = name, mailAt = mail, ageAt = age;
+        int width = Math.max(name, Math.max(mail, age)) + 1;
+        return line -> {
+            List<String> fields = fields(line);
+            if (fields.size() < width) {
+                throw new IllegalArgumentException("expected at least " + width + " fields, got " + fields.size());
+            }
+            String rawAge = fields.get(ageAt).trim();
+            Integer parsedAge;
+            try {
+                parsedAge = rawAge.isEmpty() ? null : Integer.valueOf(rawAge);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age: not an integer");
+            }
+            return new CreateUserDto(fields.get(nameAt), fields.get(mailAt).trim(), parsedAge);
+        };
+    }
+
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quoted field; fields spanning lines are not supported");
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mcp.server.domain.user.bulk;
+
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts validated import rows with JDBC batches, bypassing the persistence context.
+ * <p>
+ * Each chunk is split by shard, and each shard's part is inserted in one transaction
+ * together with its {@code user_changes} outbox rows, so the change log stays complete.
+ * The PostgreSQL driver runs with {@code reWriteBatchedInserts}, which turns each batch
+ * into multi-row {@code INSERT}s. A {@link UsersImportedEvent} per transaction updates the
+ * in-memory views after commit.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserBulkWriter {
+
+    private static final String INSERT_USER = "insert into users (id, created_at, updated_at, name, mail, age)"
+            + " values (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CHANGE = "insert into user_changes (user_id, change_type, name, mail, age, occurred_at)"
+            + " values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final UserShards shards;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Inserts {@code rows} as new users with generated ids.
+     *
+     * @return the number of users inserted
+     */
+    public int insert(List<CreateUserDto> rows) {
+        Instant now = Instant.now();
+        // Bound the way Hibernate binds Instant, so these rows compare correctly with JPA-written ones
+        OffsetDateTime timestamp = OffsetDateTime.ofInstant(now, ZoneOffset.UTC);
+        List<List<UserResponseDto>> byShard = new ArrayList<>(shards.count());
+        for (int i = 0; i < shards.count(); i++) byShard.add(new ArrayList<>());
+        for (CreateUserDto row : rows) {
+            UUID id = UUID.randomUUID();
+            byShard.get(shards.shardOf(id)).add(new UserResponseDto(id, row.name(), row.mail(), row.age()));
+        }
+
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            List<UserResponseDto> users = byShard.get(shard);
+            if (users.isEmpty()) continue;
+            shards.write(shard, s -> {
+                jdbc.batchUpdate(INSERT_USER, users, users.size(), (ps, u) -> {
+                    ps.setObject(1, u.id());
+                    ps.setObject(2, timestamp);
+                    ps.setObject(3, timestamp);
+                    ps.setString(4, u.name());
+                    ps.setString(5, u.mail());
+                    ps.setInt(6, u.age());
+                });
+                jdbc.batchUpdate(INSERT_CHANGE, users, users.size(), (ps, u) -> {
+                    ps.setObject(1, u.id());
+                    ps.setString(2, UserChangedEvent.Type.CREATED.name());
+                    ps.setString(3, u.name());
+                    ps.setString(4, u.mail());
+                    ps.setInt(5, u.age());
+                    ps.setObject(6, timestamp);
+                });
+                events.publishEvent(new UsersImportedEvent(users, now));
+                return null;
+            });
+        }
+        return rows.size();
+    }
+}
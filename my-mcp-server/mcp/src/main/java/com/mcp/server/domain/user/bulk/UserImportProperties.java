@@ -0,0 +1,38 @@
+package com.mcp.server.domain.user.bulk;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for bulk user imports ({@code POST /users/import}).
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   import:
+ *     chunk-size: 5000
+ *     validator-threads: 4
+ *     directory: /var/lib/mcp/user-imports
+ * </pre>
+ * Memory per import is bounded by {@code chunkSize * maxInFlightChunks} rows of at most
+ * {@code maxLineLength} characters each, whatever the size of the upload.
+ * </p>
+ *
+ * @param chunkSize         rows validated and inserted together; each chunk commits in its own transaction per shard
+ * @param validatorThreads  threads validating chunks, shared by all imports
+ * @param maxInFlightChunks chunks read ahead of the insert; reading pauses when they are all taken
+ * @param maxLineLength     characters per line; longer lines are rejected without being buffered
+ * @param maxConcurrent     imports running at the same time; further ones are rejected with 429
+ * @param directory         where the rejected-rows files are written
+ * @param retained          finished imports kept for {@code GET /users/import}; older ones and their files are removed
+ */
+@ConfigurationProperties(prefix = "users.import")
+public record UserImportProperties(
+        @DefaultValue("5000") int chunkSize,
+        @DefaultValue("4") int validatorThreads,
+        @DefaultValue("8") int maxInFlightChunks,
+        @DefaultValue("65536") int maxLineLength,
+        @DefaultValue("2") int maxConcurrent,
+        @DefaultValue("data/user-imports") String directory,
+        @DefaultValue("20") int retained
+) {}
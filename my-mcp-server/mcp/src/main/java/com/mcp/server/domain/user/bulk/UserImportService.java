@@ -0,0 +1,363 @@
+package com.mcp.server.domain.user.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserImportDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Streams CSV and NDJSON uploads into the users table.
+ * <p>
+ * The upload is read line by line on the request thread and cut into chunks of
+ * {@link UserImportProperties#chunkSize()} rows. Each chunk is parsed and checked against the
+ * bean validation constraints of {@link CreateUserDto} on a shared validator pool, while
+ * the request thread reads on; valid rows are then inserted in upload order through
+ * {@link UserBulkWriter}. At most {@link UserImportProperties#maxInFlightChunks()} chunks are
+ * held at once, so memory stays bounded however large the upload is.
+ * </p>
+ *
+ * <p>
+ * Rejected rows are written to a CSV file with their line number and reason, available
+ * through {@link #rejectedRows(UUID)}. Every chunk commits on its own: an import that fails
+ * halfway keeps the rows inserted before the failure, and its status says how many.
+ * Progress of running imports and the outcome of the last
+ * {@link UserImportProperties#retained()} ones are available through {@link #list()}.
+ * </p>
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(UserImportProperties.class)
+public class UserImportService {
+
+    /** Upload formats, by request content type. */
+    public enum Format { CSV, NDJSON }
+
+    private final UserImportProperties props;
+    private final UserBulkWriter writer;
+    private final Validator validator;
+    private final ObjectMapper mapper;
+    private final ExecutorService validators;
+    private final Semaphore slots;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Job> finished = new ConcurrentLinkedDeque<>();
+    private final Counter imported;
+    private final Counter rejected;
+
+    public UserImportService(UserImportProperties props, UserBulkWriter writer, Validator validator,
+                             ObjectMapper mapper, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.writer = writer;
+        this.validator = validator;
+        this.mapper = mapper;
+        this.validators = Executors.newFixedThreadPool(Math.max(1, props.validatorThreads()), r -> {
+            Thread t = new Thread(r, "user-import-validate");
+            t.setDaemon(true);
+            return t;
+        });
+        this.slots = new Semaphore(Math.max(1, props.maxConcurrent()));
+        this.imported = Counter.builder("mcp.users.import.rows").tag("result", "imported").register(meterRegistry);
+        this.rejected = Counter.builder("mcp.users.import.rows").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Imports the users in {@code body}, returning when the whole upload has been processed.
+     *
+     * @param format the upload format
+     * @param body   the upload
+     * @return the final status; {@code failed} if the import stopped early
+     * @throws ResponseStatusException 429 if too many imports are running, 400 if the CSV header lacks a required column
+     */
+    public UserImportDto importUsers(Format format, InputStream body) {
+        if (!slots.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many user imports running");
+        }
+        Job job = new Job(UUID.randomUUID(), format, Path.of(props.directory()));
+        jobs.put(job.id, job);
+        try {
+            run(job, body);
+            job.finish(null);
+        } catch (BadUploadException e) {
+            job.finish(e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.warn("User import {} failed after {} rows: {}", job.id, job.rowsImported.get(), e.getMessage());
+            job.finish(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            slots.release();
+            retire(job);
+        }
+        return job.toDto();
+    }
+
+    public List<UserImportDto> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job j) -> j.startedAt).reversed())
+                .map(Job::toDto)
+                .toList();
+    }
+
+    public Optional<UserImportDto> get(UUID id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+    }
+
+    /**
+     * Returns the rejected-rows file of an import, if it has one.
+     */
+    public Optional<Path> rejectedRows(UUID id) {
+        Job job = jobs.get(id);
+        return job == null || job.rowsRejected.get() == 0 ? Optional.empty() : Optional.of(job.rejectedFile);
+    }
+
+    @PreDestroy
+    public void close() {
+        validators.shutdownNow();
+    }
+
+    private void run(Job job, InputStream body) throws IOException {
+        LineReader lines = new LineReader(
+                new InputStreamReader(new CountingInputStream(body, job.bytesRead), StandardCharsets.UTF_8),
+                props.maxLineLength());
+        RowParser parser;
+        if (job.format == Format.CSV) {
+            LineReader.Line header = lines.next();
+            if (header == null) return;
+            if (header.tooLong()) throw new BadUploadException("CSV header is longer than " + props.maxLineLength() + " characters");
+            try {
+                parser = RowParser.csv(header.text());
+            } catch (IllegalArgumentException e) {
+                throw new BadUploadException(e.getMessage());
+            }
+        } else {
+            parser = RowParser.ndjson(mapper);
+        }
+
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try (RejectedRows rejects = new RejectedRows(job.rejectedFile)) {
+            List<LineReader.Line> chunk = new ArrayList<>(props.chunkSize());
+            LineReader.Line line;
+            while ((line = lines.next()) != null) {
+                if (!line.tooLong() && line.text().isBlank()) continue;
+                job.rowsRead.incrementAndGet();
+                chunk.add(line);
+                if (chunk.size() >= props.chunkSize()) {
+                    submit(job, parser, chunk, inFlight, rejects);
+                    chunk = new ArrayList<>(props.chunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) submit(job, parser, chunk, inFlight, rejects);
+            while (!inFlight.isEmpty()) write(job, inFlight.poll(), rejects);
+        } finally {
+            inFlight.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private void submit(Job job, RowParser parser, List<LineReader.Line> chunk,
+                        ArrayDeque<Future<Chunk>> inFlight, RejectedRows rejects) throws IOException {
+        inFlight.add(validators.submit(() -> validate(parser, chunk)));
+        if (inFlight.size() >= Math.max(1, props.maxInFlightChunks())) write(job, inFlight.poll(), rejects);
+    }
+
+    private void write(Job job, Future<Chunk> pending, RejectedRows rejects) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+        if (!chunk.valid().isEmpty()) {
+            int inserted = writer.insert(chunk.valid());
+            job.rowsImported.addAndGet(inserted);
+            imported.increment(inserted);
+        }
+        for (Rejection r : chunk.rejections()) rejects.write(r);
+        job.rowsRejected.addAndGet(chunk.rejections().size());
+        rejected.increment(chunk.rejections().size());
+    }
+
+    private Chunk validate(RowParser parser, List<LineReader.Line> lines) {
+        Chunk chunk = new Chunk(new ArrayList<>(lines.size()), new ArrayList<>());
+        for (LineReader.Line line : lines) {
+            if (line.tooLong()) {
+                chunk.rejections().add(new Rejection(line, "line longer than " + props.maxLineLength() + " characters"));
+                continue;
+            }
+            try {
+                CreateUserDto dto = parser.parse(line.text());
+                if (dto == null) throw new IllegalArgumentException("empty row");
+                Set<ConstraintViolation<CreateUserDto>> violations = validator.validate(dto);
+                if (violations.isEmpty()) chunk.valid().add(dto);
+                else chunk.rejections().add(new Rejection(line, reason(violations)));
+            } catch (IllegalArgumentException e) {
+                chunk.rejections().add(new Rejection(line, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private static String reason(Set<ConstraintViolation<CreateUserDto>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void retire(Job job) {
+        finished.add(job);
+        while (finished.size() > Math.max(0, props.retained())) {
+            Job old = finished.poll();
+            if (old == null) break;
+            jobs.remove(old.id);
+            try {
+                Files.deleteIfExists(old.rejectedFile);
+            } catch (IOException e) {
+                log.debug("Could not delete {}: {}", old.rejectedFile, e.getMessage());
+            }
+        }
+    }
+
+    private record Chunk(List<CreateUserDto> valid, List<Rejection> rejections) {}
+
+    private record Rejection(LineReader.Line line, String reason) {}
+
+    /** A problem with the upload as a whole, answered with 400. */
+    private static final class BadUploadException extends RuntimeException {
+        BadUploadException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Job {
+        final UUID id;
+        final Format format;
+        final Path rejectedFile;
+        final Instant startedAt = Instant.now();
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsImported = new AtomicLong();
+        final AtomicLong rowsRejected = new AtomicLong();
+        volatile Instant finishedAt;
+        volatile String error;
+
+        Job(UUID id, Format format, Path directory) {
+            this.id = id;
+            this.format = format;
+            this.rejectedFile = directory.resolve(id + "-rejected.csv");
+        }
+
+        void finish(String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+        }
+
+        UserImportDto toDto() {
+            Instant finishedAt = this.finishedAt;
+            String state = finishedAt == null ? "running" : error == null ? "completed" : "failed";
+            return new UserImportDto(id, format.name().toLowerCase(Locale.ROOT), state, startedAt, finishedAt,
+                    bytesRead.get(), rowsRead.get(), rowsImported.get(), rowsRejected.get(), error,
+                    rowsRejected.get() == 0 ? null : "/users/import/" + id + "/rejected");
+        }
+    }
+
+    /**
+     * Rejected rows as CSV, created on the first rejection.
+     */
+    private static final class RejectedRows implements AutoCloseable {
+        private final Path file;
+        private BufferedWriter out;
+
+        RejectedRows(Path file) {
+            this.file = file;
+        }
+
+        void write(Rejection r) throws IOException {
+            if (out == null) {
+                Files.createDirectories(file.getParent());
+                out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                out.write("line,reason,row\n");
+            }
+            out.write(r.line().number() + "," + quote(r.reason()) + "," + quote(r.line().text()) + "\n");
+        }
+
+        @Override
+        public void close() {
+            if (out == null) return;
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String quote(String s) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    /**
+     * Counts the bytes read from the upload for progress reporting.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mcp.server.domain.user.changes;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Position in the delta sync stream: a modification time and the id that breaks ties
+ * between rows modified at the same instant.
+ * <p>
+ * The text form is either a plain ISO-8601 instant, as a client sends on its first sync,
+ * or {@code <instant>_<uuid>}, as returned in {@code nextWatermark}.
+ * </p>
+ *
+ * @param at the modification time
+ * @param id the last id delivered at {@code at}, the nil UUID to include every row at {@code at}
+ */
+public record DeltaWatermark(Instant at, UUID id) {
+
+    static final UUID NIL = new UUID(0L, 0L);
+
+    /**
+     * Orders UUIDs the way the database does: as unsigned bytes, unlike {@link UUID#compareTo(UUID)}.
+     */
+    public static final Comparator<UUID> UUID_ORDER = (a, b) -> {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    /**
+     * Orders (time, id) pairs the way the database does.
+     */
+    static final Comparator<DeltaWatermark> ORDER = Comparator.comparing(DeltaWatermark::at)
+            .thenComparing(DeltaWatermark::id, UUID_ORDER);
+
+    /**
+     * Parses a watermark.
+     *
+     * @param raw an instant or a token returned as {@code nextWatermark}
+     * @return the watermark
+     * @throws IllegalArgumentException if {@code raw} is neither
+     */
+    public static DeltaWatermark parse(String raw) {
+        try {
+            int sep = raw.indexOf('_');
+            if (sep < 0) return new DeltaWatermark(Instant.parse(raw), NIL);
+            return new DeltaWatermark(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid watermark: " + raw, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return at + "_" + id;
+    }
+}
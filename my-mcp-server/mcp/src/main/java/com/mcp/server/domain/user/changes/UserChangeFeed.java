@@ -0,0 +1,253 @@
+package com.mcp.server.domain.user.changes;
+
+import com.mcp.server.domain.user.dto.public_api.UserChangeDto;
+import com.mcp.server.domain.user.dto.public_api.UserChangesPageDto;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.repository.public_api.change.UserChangeRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the user change feed from the {@code user_changes} outbox.
+ * <p>
+ * {@link #page(long, int)} answers incremental polls by cursor. {@link #subscribe(long)}
+ * opens a Server-Sent Events stream: the subscriber first catches up from the table, then
+ * receives changes as their transactions commit.
+ * </p>
+ *
+ * <p>
+ * Each subscriber has a bounded buffer of {@link UserChangesProperties#bufferSize()} changes
+ * and at most one sender task, so a slow client never blocks writers or other subscribers.
+ * When the buffer is full the subscriber is marked as lagging: the buffer is dropped and
+ * the sender catches up from the table by cursor instead, so memory stays bounded and
+ * no committed change is lost.
+ * </p>
+ *
+ * <p>
+ * A {@code seq} is taken when a change is written but becomes visible when its transaction
+ * commits, so a lower {@code seq} can commit after a higher one. The subscriber's cursor
+ * therefore only moves past changes older than {@link UserChangesProperties#visibilityDelay()},
+ * as with {@link #page}; changes above the cursor that were already sent are remembered
+ * and not sent again. Once {@link UserChangesProperties#bufferSize()} of those accumulate,
+ * the sender catches up from the table to move the cursor on, at most once per visibility delay.
+ * </p>
+ *
+ * <p>
+ * Events carry the subscriber's cursor as their SSE id, so a reconnecting client resumes
+ * through the {@code Last-Event-ID} header without skipping a late commit. Delivery is at
+ * least once; consumers should ignore a {@code seq} they have already applied.
+ * </p>
+ *
+ * <p>
+ * With users sharded, each shard has its own outbox and {@code seq}, which a single
+ * cursor cannot span; the feed then answers 501 and consumers use delta sync
+ * ({@link UserDeltaQuery}) instead.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserChangeFeed {
+
+    private final UserChangeRepository changes;
+    private final UserChangesProperties props;
+    private final UserShards shards;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // One task per subscriber at most; subscribers are capped by maxSubscribers
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "user-change-sender");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Returns the changes after {@code since}, oldest first.
+     *
+     * @param since the cursor, {@code 0} to start from the oldest retained change
+     * @param limit the maximum number of changes
+     * @return the page and the cursor for the next one
+     */
+    public UserChangesPageDto page(long since, int limit) {
+        requireUnsharded();
+        Instant visibleBefore = Instant.now().minus(props.visibilityDelay());
+        List<UserChangeDto> rows = changes
+                .findBySeqGreaterThanAndOccurredAtBeforeOrderBySeqAsc(since, visibleBefore, PageRequest.ofSize(limit + 1))
+                .stream()
+                .map(UserChangeDto::from)
+                .toList();
+        boolean hasMore = rows.size() > limit;
+        List<UserChangeDto> page = hasMore ? rows.subList(0, limit) : rows;
+        long next = page.isEmpty() ? since : page.get(page.size() - 1).seq();
+        return new UserChangesPageDto(page, next, hasMore);
+    }
+
+    /**
+     * Opens a change stream starting after {@code since}.
+     *
+     * @param since the cursor to resume from
+     * @return the emitter to return from the controller
+     * @throws ResponseStatusException 503 if the subscriber limit is reached, 501 if users are sharded
+     */
+    public SseEmitter subscribe(long since) {
+        requireUnsharded();
+        if (subscribers.size() >= props.maxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(props.streamTimeout().toMillis());
+        Subscriber s = new Subscriber(emitter, since, props.bufferSize());
+        emitter.onCompletion(() -> subscribers.remove(s));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(s));
+        subscribers.add(s);
+        schedule(s);
+        return emitter;
+    }
+
+    private void requireUnsharded() {
+        if (shards.sharded()) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                    "The change feed is not available while users are sharded, use GET /users?modifiedSince= instead");
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Fans a committed change out to all subscribers.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(UserChangeDto change) {
+        for (Subscriber s : subscribers) {
+            if (!s.buffer.offer(change)) s.lagging = true;
+            schedule(s);
+        }
+    }
+
+    /**
+     * Sends the outbox rows of a committed import chunk by letting every subscriber catch up
+     * from the table, instead of buffering one event per row.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImported(UsersImportedEvent imported) {
+        for (Subscriber s : subscribers) {
+            s.lagging = true;
+            schedule(s);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(s -> s.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void schedule(Subscriber s) {
+        if (s.scheduled.compareAndSet(false, true)) senders.execute(() -> drain(s));
+    }
+
+    private void drain(Subscriber s) {
+        try {
+            while (s.lagging || !s.buffer.isEmpty()) {
+                if (s.lagging) {
+                    s.lagging = false;
+                    s.buffer.clear();
+                    catchUp(s);
+                }
+                UserChangeDto change;
+                while (!s.lagging && (change = s.buffer.poll()) != null) {
+                    // Already sent while catching up from the table
+                    if (change.seq() <= s.cursor || s.sent.contains(change.seq())) continue;
+                    send(s, change);
+                }
+                // Moves the cursor on, so the set of changes sent above it stays small
+                if (!s.lagging && s.sent.size() >= props.bufferSize() && System.nanoTime() - s.resyncAfter >= 0) catchUp(s);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Change stream subscriber disconnected: {}", e.getMessage());
+            subscribers.remove(s);
+            s.emitter.completeWithError(e);
+            return;
+        } finally {
+            s.scheduled.set(false);
+        }
+        // A change may have been offered between the last poll and releasing the flag
+        if (s.lagging || !s.buffer.isEmpty()) schedule(s);
+    }
+
+    /**
+     * Sends the committed changes above the cursor that were not sent yet. The cursor moves
+     * over the leading changes older than the visibility delay, since no change below them
+     * can still commit; newer ones are sent but stay above it.
+     */
+    private void catchUp(Subscriber s) throws IOException {
+        Instant visibleBefore = Instant.now().minus(props.visibilityDelay());
+        boolean settled = true;
+        long after = s.cursor;
+        List<UserChange> rows;
+        do {
+            rows = changes.findBySeqGreaterThanOrderBySeqAsc(after, PageRequest.ofSize(props.pageSize()));
+            for (UserChange row : rows) {
+                if (!s.sent.contains(row.getSeq())) send(s, UserChangeDto.from(row));
+                settled &= row.getOccurredAt().isBefore(visibleBefore);
+                if (settled) s.cursor = row.getSeq();
+                after = row.getSeq();
+            }
+        } while (rows.size() == props.pageSize());
+        s.sent.headSet(s.cursor, true).clear();
+        s.resyncAfter = System.nanoTime() + props.visibilityDelay().toNanos();
+    }
+
+    private static void send(Subscriber s, UserChangeDto change) throws IOException {
+        s.emitter.send(SseEmitter.event()
+                .id(String.valueOf(s.cursor))
+                .name(change.type().name().toLowerCase(Locale.ROOT))
+                .data(change, MediaType.APPLICATION_JSON));
+        s.sent.add(change.seq());
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<UserChangeDto> buffer;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // Changes above the cursor already sent; only touched by the single sender task
+        final NavigableSet<Long> sent = new TreeSet<>();
+        // Starts lagging so that the first drain catches up from the table
+        volatile boolean lagging = true;
+        // Every change up to here has been sent
+        volatile long cursor;
+        volatile long resyncAfter;
+
+        Subscriber(SseEmitter emitter, long since, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+            this.cursor = since;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mcp.server.domain.user.changes;
+
+import com.mcp.server.domain.user.dto.public_api.UserChangeDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.entity.tombstone.UserTombstone;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.repository.public_api.change.UserChangeRepository;
+import com.mcp.server.domain.user.repository.public_api.tombstone.UserTombstoneRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Writes every {@link UserChangedEvent} to the {@code user_changes} outbox table, and a
+ * {@link UserTombstone} for every deletion.
+ * <p>
+ * The listener is synchronous, so the row is inserted in the transaction of the service
+ * method that published the event: the outbox commits or rolls back together with the
+ * mutation, on the shard of the user. Once stored, the change is republished as a {@link UserChangeDto} event,
+ * which {@link UserChangeFeed} pushes to stream subscribers after commit.
+ * </p>
+ *
+ * <p>
+ * Changes older than {@link UserChangesProperties#retention()} and tombstones older than
+ * {@link UserChangesProperties#tombstoneRetention()} are purged periodically on every shard.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserChangeRecorder {
+
+    private final UserChangeRepository changes;
+    private final UserTombstoneRepository tombstones;
+    private final UserChangesProperties props;
+    private final ApplicationEventPublisher events;
+    private final UserShards shards;
+
+    @EventListener
+    public void record(UserChangedEvent event) {
+        UserResponseDto after = event.after();
+        UserChange saved = changes.save(UserChange.builder()
+                .userId(event.id())
+                .type(event.type())
+                .name(after == null ? null : after.name())
+                .mail(after == null ? null : after.mail())
+                .age(after == null ? null : after.age())
+                .occurredAt(event.occurredAt())
+                .build());
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            tombstones.save(new UserTombstone(event.id(), event.occurredAt()));
+        }
+        events.publishEvent(UserChangeDto.from(saved));
+    }
+
+    @Scheduled(fixedDelayString = "${users.changes.purge-interval:PT1H}", initialDelayString = "${users.changes.purge-interval:PT1H}")
+    public void purge() {
+        Instant now = Instant.now();
+        shards.forEachShard(shard -> {
+            int purged = changes.deleteOlderThan(now.minus(props.retention()));
+            if (purged > 0) log.info("Purged {} user changes older than {} on shard {}", purged, props.retention(), shard);
+            int purgedTombstones = tombstones.deleteOlderThan(now.minus(props.tombstoneRetention()));
+            if (purgedTombstones > 0) log.info("Purged {} user tombstones older than {} on shard {}", purgedTombstones, props.tombstoneRetention(), shard);
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.mcp.server.domain.user.changes;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration for the user change feed.
+ * <p>
+ * Registers {@link UserChangesProperties} and enables scheduling for the outbox
+ * retention purge in {@link UserChangeRecorder}.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(UserChangesProperties.class)
+public class UserChangesConfig {
+}
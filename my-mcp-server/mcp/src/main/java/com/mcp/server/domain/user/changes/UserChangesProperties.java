@@ -0,0 +1,40 @@
+package com.mcp.server.domain.user.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the user change feed.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   changes:
+ *     buffer-size: 256
+ *     max-subscribers: 100
+ *     retention: 7d
+ * </pre>
+ * </p>
+ *
+ * @param bufferSize      changes buffered per stream subscriber; a subscriber that falls further behind catches up from the table
+ * @param maxSubscribers  the maximum number of concurrent stream subscribers
+ * @param pageSize        rows read per query when a subscriber catches up
+ * @param visibilityDelay how far {@code GET /users/changes} and delta sync stay behind the newest change, so that
+ *                        rows of transactions that committed out of order are not skipped
+ * @param streamTimeout   how long a stream stays open before the client has to reconnect
+ * @param retention       how long changes are kept
+ * @param tombstoneRetention how long deleted-user tombstones are kept for delta sync; consumers whose watermark
+ *                        is older have to do a full sync
+ */
+@ConfigurationProperties(prefix = "users.changes")
+public record UserChangesProperties(
+        @DefaultValue("256") int bufferSize,
+        @DefaultValue("100") int maxSubscribers,
+        @DefaultValue("500") int pageSize,
+        @DefaultValue("2s") Duration visibilityDelay,
+        @DefaultValue("30m") Duration streamTimeout,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("30d") Duration tombstoneRetention
+) {}
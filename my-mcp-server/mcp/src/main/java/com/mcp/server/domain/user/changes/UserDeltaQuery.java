@@ -0,0 +1,98 @@
+package com.mcp.server.domain.user.changes;
+
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.tombstone.UserTombstone;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.repository.public_api.tombstone.UserTombstoneRepository;
+import com.mcp.server.domain.user.repository.public_api.user.UserRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Answers delta sync requests: the users modified and deleted after a {@link DeltaWatermark}.
+ * <p>
+ * Live rows ({@code users.updated_at}) and tombstones ({@code user_tombstones.deleted_at})
+ * are read with one keyset query each and merged into a single stream ordered by
+ * (time, id), so one watermark covers both. With sharding, both queries run on every
+ * shard and the results are merged by the same order. Rows newer than
+ * {@link UserChangesProperties#visibilityDelay()} are held back, because their
+ * transactions may not have committed in timestamp order yet.
+ * </p>
+ *
+ * <p>
+ * Callers must run inside a read-only transaction.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDeltaQuery {
+
+    private final UserRepository users;
+    private final UserTombstoneRepository tombstones;
+    private final UserChangesProperties props;
+    private final UserShards shards;
+
+    /**
+     * Returns up to {@code limit} upserts and deletions after {@code since}.
+     *
+     * @param since the watermark from the previous sync
+     * @param limit the maximum number of upserts plus deletions
+     * @return the page and the watermark for the next request
+     * @throws ResponseStatusException 410 Gone if {@code since} predates the tombstone retention,
+     *                                 so deletions may have been purged and a full sync is required
+     */
+    public UserDeltaDto since(DeltaWatermark since, int limit) {
+        Instant now = Instant.now();
+        if (since.at().isBefore(now.minus(props.tombstoneRetention()))) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Watermark is older than the tombstone retention of " + props.tombstoneRetention() + ", do a full sync");
+        }
+        Instant upper = now.minus(props.visibilityDelay());
+        PageRequest page = PageRequest.ofSize(limit + 1);
+        List<Slice> slices = shards.scatter(s -> new Slice(
+                users.findModifiedAfter(since.at(), since.id(), upper, page),
+                tombstones.findAfter(since.at(), since.id(), upper, page)));
+        List<User> live = merge(slices.stream().map(Slice::live).toList(),
+                Comparator.comparing(u -> new DeltaWatermark(u.getUpdatedAt(), u.getId()), DeltaWatermark.ORDER));
+        List<UserTombstone> dead = merge(slices.stream().map(Slice::dead).toList(),
+                Comparator.comparing(t -> new DeltaWatermark(t.getDeletedAt(), t.getId()), DeltaWatermark.ORDER));
+
+        List<UserResponseDto> upserted = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        DeltaWatermark next = since;
+        int u = 0;
+        int d = 0;
+        while (upserted.size() + deleted.size() < limit && (u < live.size() || d < dead.size())) {
+            DeltaWatermark lw = u < live.size() ? new DeltaWatermark(live.get(u).getUpdatedAt(), live.get(u).getId()) : null;
+            DeltaWatermark dw = d < dead.size() ? new DeltaWatermark(dead.get(d).getDeletedAt(), dead.get(d).getId()) : null;
+            if (dw == null || (lw != null && DeltaWatermark.ORDER.compare(lw, dw) <= 0)) {
+                upserted.add(UserChangedEvent.snapshot(live.get(u++)));
+                next = lw;
+            } else {
+                deleted.add(dead.get(d++).getId());
+                next = dw;
+            }
+        }
+        boolean hasMore = u < live.size() || d < dead.size();
+        return new UserDeltaDto(upserted, deleted, next.toString(), hasMore);
+    }
+
+    private static <T> List<T> merge(List<List<T>> parts, Comparator<T> order) {
+        if (parts.size() == 1) return parts.get(0);
+        return parts.stream().flatMap(List::stream).sorted(order).toList();
+    }
+
+    private record Slice(List<User> live, List<UserTombstone> dead) {}
+}
@@ -1,16 +1,40 @@
 package com.mcp.server.domain.user.controller.public_api;
 
+import com.mcp.server.domain.user.bulk.UserImportService;
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.changes.UserChangeFeed;
 import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserChangesPageDto;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserImportDto;
+import com.mcp.server.domain.user.dto.public_api.UserLookupDto;
 import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.dto.public_api.UserUpdateDto;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import com.mcp.server.domain.user.search.SearchMode;
 import com.mcp.server.domain.user.service.public_api.user.core.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 /**
  * REST controller for managing users in the public API.
@@ -29,7 +53,12 @@ import java.util.UUID;
 @RequestMapping("/users")
 public class UserController {
 
+    private static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    private static final int MAX_LOOKUP_IDS = 10_000;
+
     private final UserService userService;
+    private final UserChangeFeed changeFeed;
+    private final UserImportService importService;
 
     /**
      * Creates a new user.
@@ -42,6 +71,68 @@ public class UserController {
         return ResponseEntity.ok(userService.create(dto));
     }
 
+    /**
+     * Imports users from a CSV ({@code text/csv}, with a header row) or NDJSON
+     * ({@code application/x-ndjson}) upload, streamed rather than buffered. The upload may
+     * be sent with {@code Content-Encoding: gzip}. Returns once the whole upload is processed;
+     * progress is visible meanwhile through {@code GET /users/import}.
+     *
+     * @param request the request carrying the upload
+     * @return the import status, with 500 Internal Server Error if it stopped early;
+     *         400 Bad Request for a CSV header without the required columns,
+     *         429 Too Many Requests if too many imports are running
+     */
+    @PostMapping(path = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<UserImportDto> importUsers(HttpServletRequest request) throws IOException {
+        UserImportService.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        InputStream body = request.getInputStream();
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding != null && encoding.trim().equalsIgnoreCase("gzip")) body = new GZIPInputStream(body, 64 * 1024);
+        UserImportDto result = importService.importUsers(format, body);
+        return ResponseEntity.status("failed".equals(result.state()) ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK).body(result);
+    }
+
+    /**
+     * Lists running imports and the most recent finished ones, newest first.
+     *
+     * @return the import statuses
+     */
+    @GetMapping("/import")
+    public ResponseEntity<List<UserImportDto>> listImports() {
+        return ResponseEntity.ok(importService.list());
+    }
+
+    /**
+     * Retrieves the status of one import.
+     *
+     * @param id the import id
+     * @return the status, or 404 Not Found for an unknown or expired import
+     */
+    @GetMapping("/import/{id}")
+    public ResponseEntity<UserImportDto> getImport(@PathVariable UUID id) {
+        return importService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Downloads the rows an import rejected, as CSV with line number, reason and the original row.
+     *
+     * @param id the import id
+     * @return the file, or 404 Not Found if the import is unknown or rejected nothing
+     */
+    @GetMapping(path = "/import/{id}/rejected", produces = "text/csv")
+    public ResponseEntity<Resource> getRejectedRows(@PathVariable UUID id) {
+        return importService.rejectedRows(id)
+                .map(path -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename("rejected-" + id + ".csv").build().toString())
+                        .body((Resource) new FileSystemResource(path)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Retrieves all users.
      *
@@ -52,6 +143,58 @@ public class UserController {
         return ResponseEntity.ok(userService.getAll());
     }
 
+    /**
+     * Retrieves all users with only the requested fields. Only those columns are selected
+     * from the database, and only those properties are written to the response.
+     *
+     * @param fields a comma-separated subset of {@code id,name,mail,age}, e.g. {@code id,mail}
+     * @return all users projected to {@code fields}, or 400 Bad Request for an unknown field
+     */
+    @GetMapping(params = {"fields", "!modifiedSince", "!ids"})
+    public ResponseEntity<List<ProjectedUser>> getAllUsers(@RequestParam String fields) {
+        return ResponseEntity.ok(userService.getAll(fields(fields, UserField.PUBLIC)));
+    }
+
+    /**
+     * Retrieves only the users created, updated or deleted after a watermark.
+     * Repeat with the returned {@code nextWatermark} while {@code hasMore} is set.
+     *
+     * @param modifiedSince an ISO-8601 instant, or the {@code nextWatermark} of the previous response
+     * @param limit         the maximum number of upserts plus deletions, between 1 and 1000
+     * @return the changes, 400 Bad Request for a malformed watermark, or 410 Gone if the
+     *         watermark is too old to include all deletions
+     */
+    @GetMapping(params = "modifiedSince")
+    public ResponseEntity<UserDeltaDto> getModifiedUsers(@RequestParam String modifiedSince,
+                                                         @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(userService.modifiedSince(watermark(modifiedSince), Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Retrieves users by a short, comma-separated list of IDs. Use {@code POST /users/lookup}
+     * for lists too long for a URL.
+     *
+     * @param ids the UUIDs of the users, at most 10000
+     * @return the users in request order with {@code null} for unknown ids, which are also
+     *         listed in {@code missing}; 400 Bad Request for too many ids
+     */
+    @GetMapping(params = {"ids", "!modifiedSince"})
+    public ResponseEntity<UserLookupDto<UserResponseDto>> getUsersByIds(@RequestParam List<UUID> ids) {
+        return ResponseEntity.ok(userService.getByIds(lookupIds(ids)));
+    }
+
+    /**
+     * Retrieves users by a list of IDs sent as a JSON array.
+     *
+     * @param ids the UUIDs of the users, at most 10000
+     * @return the users in request order with {@code null} for unknown ids, which are also
+     *         listed in {@code missing}; 400 Bad Request for too many ids
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<UserLookupDto<UserResponseDto>> lookupUsers(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(userService.getByIds(lookupIds(ids)));
+    }
+
     /**
      * Retrieves a user by their unique ID.
      *
@@ -78,6 +221,90 @@ public class UserController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Returns aggregate statistics over all users, computed by the database.
+     *
+     * @param topDomains how many of the most common mail domains to include, between 1 and 100
+     * @return the user count, age statistics and histogram, and top mail domains
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<UserStatsDto> getStats(@RequestParam(defaultValue = "10") int topDomains) {
+        return ResponseEntity.ok(userService.stats(Math.max(1, Math.min(topDomains, 100))));
+    }
+
+    /**
+     * Returns the user changes (creates, updates, deletes) after a cursor, oldest first.
+     *
+     * @param since the {@code next} cursor of the previous page, {@code 0} to start from the beginning
+     * @param limit the maximum number of changes, between 1 and 1000
+     * @return one page of changes and the cursor for the next one
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesPageDto> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                         @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(changeFeed.page(since, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Streams user changes after a cursor as Server-Sent Events.
+     * A reconnecting client resumes from the {@code Last-Event-ID} header, which takes
+     * precedence over {@code since}.
+     *
+     * @param since       the cursor to start after
+     * @param lastEventId the id of the last event received before reconnecting
+     * @return the event stream, or 503 Service Unavailable if too many streams are open
+     */
+    @GetMapping(path = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") long since,
+                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    private static DeltaWatermark watermark(String raw) {
+        try {
+            return DeltaWatermark.parse(raw);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static List<UUID> lookupIds(List<UUID> ids) {
+        if (ids.size() > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_LOOKUP_IDS + " ids per lookup");
+        }
+        if (ids.contains(null)) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not contain null");
+        return ids;
+    }
+
+    private static List<UserField> fields(String raw, Set<UserField> allowed) {
+        try {
+            return UserField.parse(raw, allowed);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Searches users by name and mail.
+     *
+     * @param q     the query text
+     * @param mode  {@code prefix}, {@code substring}, {@code fuzzy} or {@code auto} (default)
+     * @param limit the maximum number of results, between 1 and 100
+     * @return matching users, best matches first, or 400 Bad Request for an unknown mode
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponseDto>> searchUsers(@RequestParam String q,
+                                                             @RequestParam(required = false) String mode,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        SearchMode searchMode;
+        try {
+            searchMode = SearchMode.parse(mode);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown search mode: " + mode);
+        }
+        return ResponseEntity.ok(userService.search(q, searchMode, Math.max(1, Math.min(limit, 100))));
+    }
+
     /**
      * Updates an existing user by ID.
      *
@@ -0,0 +1,33 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object representing one entry of the user change feed.
+ *
+ * <ul>
+ *     <li>{@code seq} - the position in the feed; pass it as {@code since} to continue after this entry</li>
+ *     <li>{@code type} - {@code CREATED}, {@code UPDATED} or {@code DELETED}</li>
+ *     <li>{@code id} - the id of the affected user</li>
+ *     <li>{@code user} - the user after the change, {@code null} for deletions</li>
+ *     <li>{@code occurredAt} - when the change was made</li>
+ * </ul>
+ */
+public record UserChangeDto(
+        long seq,
+        UserChangedEvent.Type type,
+        UUID id,
+        UserResponseDto user,
+        Instant occurredAt
+) {
+
+    public static UserChangeDto from(UserChange c) {
+        UserResponseDto user = c.getType() == UserChangedEvent.Type.DELETED ? null
+                : new UserResponseDto(c.getUserId(), c.getName(), c.getMail(), c.getAge());
+        return new UserChangeDto(c.getSeq(), c.getType(), c.getUserId(), user, c.getOccurredAt());
+    }
+}
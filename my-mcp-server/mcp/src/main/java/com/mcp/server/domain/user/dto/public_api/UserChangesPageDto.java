@@ -0,0 +1,18 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of the user change feed.
+ *
+ * <ul>
+ *     <li>{@code changes} - the changes after the requested cursor, oldest first</li>
+ *     <li>{@code next} - the cursor to request the following page with</li>
+ *     <li>{@code hasMore} - whether more changes are available right away</li>
+ * </ul>
+ */
+public record UserChangesPageDto(
+        List<UserChangeDto> changes,
+        long next,
+        boolean hasMore
+) {}
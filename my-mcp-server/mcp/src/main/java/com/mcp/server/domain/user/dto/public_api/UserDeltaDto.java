@@ -0,0 +1,21 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for one page of a delta sync.
+ *
+ * <ul>
+ *     <li>{@code upserted} - users created or updated after the watermark, in modification order</li>
+ *     <li>{@code deleted} - ids of users deleted after the watermark</li>
+ *     <li>{@code nextWatermark} - the {@code modifiedSince} value for the next request</li>
+ *     <li>{@code hasMore} - whether more changes are available right away</li>
+ * </ul>
+ */
+public record UserDeltaDto(
+        List<UserResponseDto> upserted,
+        List<UUID> deleted,
+        String nextWatermark,
+        boolean hasMore
+) {}
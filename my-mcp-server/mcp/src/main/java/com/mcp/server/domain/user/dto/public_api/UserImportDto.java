@@ -0,0 +1,32 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object describing a bulk user import and its progress.
+ *
+ * <ul>
+ *     <li>{@code id} - the import id, used to fetch its status and rejected rows</li>
+ *     <li>{@code format} - {@code csv} or {@code ndjson}</li>
+ *     <li>{@code state} - {@code running}, {@code completed} or {@code failed}</li>
+ *     <li>{@code bytesRead} - upload bytes consumed so far</li>
+ *     <li>{@code rowsRead}, {@code rowsImported}, {@code rowsRejected} - row counts so far; rows read but
+ *     neither imported nor rejected are still being validated or inserted</li>
+ *     <li>{@code error} - why a failed import stopped; rows imported before that stay imported</li>
+ *     <li>{@code rejectedRows} - the path of the rejected-rows download, {@code null} if no row was rejected</li>
+ * </ul>
+ */
+public record UserImportDto(
+        UUID id,
+        String format,
+        String state,
+        Instant startedAt,
+        Instant finishedAt,
+        long bytesRead,
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        String error,
+        String rejectedRows
+) {}
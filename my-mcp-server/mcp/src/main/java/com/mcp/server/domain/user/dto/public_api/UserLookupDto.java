@@ -0,0 +1,40 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for a lookup of users by a list of ids.
+ *
+ * <ul>
+ *     <li>{@code users} - one entry per requested id, in request order; {@code null} where no user has the id</li>
+ *     <li>{@code missing} - the requested ids no user has, in request order</li>
+ * </ul>
+ *
+ * @param <T> the user representation, {@link UserResponseDto} or the entity
+ */
+public record UserLookupDto<T>(
+        List<T> users,
+        List<UUID> missing
+) {
+
+    /**
+     * Arranges the users found in the order of {@code ids}.
+     *
+     * @param ids   the requested ids, possibly with repeats
+     * @param found the users found, by id
+     */
+    public static <T> UserLookupDto<T> of(List<UUID> ids, Map<UUID, T> found) {
+        List<T> users = new ArrayList<>(ids.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            T user = found.get(id);
+            users.add(user);
+            if (user == null) missing.add(id);
+        }
+        return new UserLookupDto<>(Collections.unmodifiableList(users), List.copyOf(missing));
+    }
+}
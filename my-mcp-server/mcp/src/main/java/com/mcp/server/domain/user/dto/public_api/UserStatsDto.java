@@ -0,0 +1,37 @@
+package com.mcp.server.domain.user.dto.public_api;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object with aggregate statistics over all users.
+ * <p>
+ * Every value is computed by the database, so no user rows are transferred to build it.
+ * Age statistics are {@code null} when there are no users.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code count} - the number of users</li>
+ *     <li>{@code minAge}, {@code maxAge}, {@code avgAge} - age range and mean</li>
+ *     <li>{@code ageHistogram} - user count per age bucket, ascending, empty buckets omitted</li>
+ *     <li>{@code topMailDomains} - the most common mail domains, most frequent first</li>
+ * </ul>
+ */
+public record UserStatsDto(
+        long count,
+        Integer minAge,
+        Integer maxAge,
+        Double avgAge,
+        List<AgeBucket> ageHistogram,
+        List<MailDomain> topMailDomains
+) {
+
+    /**
+     * Users whose age falls in {@code [from, from + width)}.
+     */
+    public record AgeBucket(int from, int to, long users) {}
+
+    /**
+     * Users whose mail address is in {@code domain}.
+     */
+    public record MailDomain(String domain, long users) {}
+}
@@ -0,0 +1,48 @@
+package com.mcp.server.domain.user.entity.change;
+
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outbox row recording one user mutation.
+ * <p>
+ * {@code seq} is assigned by the database and is the cursor consumers page by.
+ * {@code name}, {@code mail} and {@code age} hold the state after the mutation and are
+ * {@code null} for deletions.
+ * </p>
+ */
+@Entity
+@Table(name = "user_changes")
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq", updatable = false, nullable = false)
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", length = 16, nullable = false, updatable = false)
+    private UserChangedEvent.Type type;
+
+    @Column(name = "name", length = 255)
+    private String name;
+    @Column(name = "mail", length = 255)
+    private String mail;
+    @Column(name = "age")
+    private Integer age;
+
+    @Column(name = "occurred_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false, updatable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,29 @@
+package com.mcp.server.domain.user.entity.tombstone;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marker for a deleted user, kept so that delta sync consumers learn about deletions.
+ */
+@Entity
+@Table(name = "user_tombstones")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserTombstone {
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "deleted_at", columnDefinition = "TIMESTAMP WITHOUT TIME ZONE", nullable = false, updatable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,55 @@
+package com.mcp.server.domain.user.event;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Application event published by the user services for every create, update and delete.
+ * <p>
+ * The event is published inside the service transaction. Listeners that maintain derived
+ * in-memory state should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener} so they only see
+ * committed changes.
+ * </p>
+ *
+ * @param type       the kind of mutation
+ * @param id         the id of the affected user
+ * @param before     the user state before the mutation, {@code null} for {@link Type#CREATED}
+ * @param after      the user state after the mutation, {@code null} for {@link Type#DELETED}
+ * @param occurredAt when the mutation happened
+ */
+public record UserChangedEvent(
+        Type type,
+        UUID id,
+        UserResponseDto before,
+        UserResponseDto after,
+        Instant occurredAt
+) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), null, snapshot(user), Instant.now());
+    }
+
+    public static UserChangedEvent updated(UserResponseDto before, User user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), before, snapshot(user), Instant.now());
+    }
+
+    public static UserChangedEvent deleted(UserResponseDto before) {
+        return new UserChangedEvent(Type.DELETED, before.id(), before, null, Instant.now());
+    }
+
+    /**
+     * Captures the publicly visible state of a user.
+     *
+     * @param u the user entity
+     * @return an immutable snapshot
+     */
+    public static UserResponseDto snapshot(User u) {
+        return new UserResponseDto(u.getId(), u.getName(), u.getMail(), u.getAge());
+    }
+}
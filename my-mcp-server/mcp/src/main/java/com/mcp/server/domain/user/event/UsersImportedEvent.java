@@ -0,0 +1,30 @@
+package com.mcp.server.domain.user.event;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Application event published once per chunk of users inserted by a bulk import.
+ * <p>
+ * Imports write the {@code user_changes} outbox rows themselves, in the same batch as the
+ * users, so this event does not go through the per-row outbox listener. Listeners that
+ * maintain derived in-memory state handle it like the {@link UserChangedEvent}s of
+ * {@link #changes()}, after the chunk's transaction commits.
+ * </p>
+ *
+ * @param users      the inserted users
+ * @param occurredAt when the chunk was inserted
+ */
+public record UsersImportedEvent(List<UserResponseDto> users, Instant occurredAt) {
+
+    /**
+     * Returns one {@link UserChangedEvent.Type#CREATED} event per imported user.
+     */
+    public List<UserChangedEvent> changes() {
+        return users.stream()
+                .map(u -> new UserChangedEvent(UserChangedEvent.Type.CREATED, u.id(), null, u, occurredAt))
+                .toList();
+    }
+}
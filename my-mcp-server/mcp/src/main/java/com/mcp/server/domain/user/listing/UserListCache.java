@@ -0,0 +1,348 @@
+package com.mcp.server.domain.user.listing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mcp.server.domain.user.changes.UserChangesProperties;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.repository.public_api.change.UserChangeRepository;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized bodies of the full user listings, {@code GET /users} and {@code GET /admin},
+ * keyed by a version counter of the users table.
+ * <p>
+ * Every committed create, update, delete and import chunk bumps the version, which makes the
+ * cached bodies stale at once: {@link #get} only returns a body built at the current version,
+ * so a caller never sees a listing older than its own write. Changes committed by other
+ * instances are found in the shared {@code user_changes} outbox, which is polled every
+ * {@link UserListCacheProperties#syncInterval()}, and bump the version the same way; if the
+ * outbox cannot be read, the version is bumped too, so that a listing is never served for
+ * longer than that without confirmation. A rebuild is then scheduled on
+ * a background thread after {@link UserListCacheProperties#rebuildDelay()}; until it lands,
+ * requests fall through to the controller as if there were no cache. Readers never wait on
+ * a rebuild.
+ * </p>
+ *
+ * <p>
+ * One scan of the users table feeds both listings. It runs in a read-write transaction so
+ * that, with replica routing, it reads the primary the version counter describes rather
+ * than a replica that may lag behind it. Bodies are serialized with the application's
+ * {@link ObjectMapper}, so they are byte for byte what the controllers would write.
+ * </p>
+ *
+ * <p>
+ * Served requests are counted in {@code mcp.users.list_cache} by {@code view} and
+ * {@code result} ({@code hit}, {@code not_modified}, {@code miss}); rebuilds are timed in
+ * {@code mcp.users.list_cache.rebuild}.
+ * </p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UserListCacheProperties.class)
+public class UserListCache {
+
+    private static final int SYNC_PAGE_SIZE = 500;
+
+    /** A cached listing. */
+    public enum View {
+        /** {@code GET /users}: {@link UserResponseDto}s. */
+        USERS,
+        /** {@code GET /admin}: {@link User} entities. */
+        ADMIN
+    }
+
+    /**
+     * A listing serialized at one table version.
+     *
+     * @param version the table version the body was built at
+     * @param json    the JSON body
+     * @param gzip    the gzipped body, or {@code null} if it is below the compression threshold
+     * @param etag    the strong entity tag of the JSON body; the gzipped one has {@code -gzip} appended
+     */
+    public record Entry(long version, byte[] json, byte[] gzip, String etag) {
+
+        public String etag(boolean gzipped) {
+            return gzipped ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag;
+        }
+    }
+
+    private final UserListCacheProperties props;
+    private final ShardedUserRepository userRepository;
+    private final TransactionTemplate primary;
+    private final ObjectWriter usersWriter;
+    private final ObjectWriter adminWriter;
+    private final UserChangeRepository changes;
+    private final UserShards shards;
+    private final Duration visibilityDelay;
+    private final ScheduledExecutorService rebuilder;
+    private final ScheduledExecutorService syncer;
+    // Per shard, only touched by the syncer: every change up to the cursor is seen, -1 until initialized
+    private final long[] cursors;
+    // Per shard: changes above the cursor already seen
+    private final List<NavigableSet<Long>> seen = new ArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Map<View, AtomicReference<Entry>> entries = new EnumMap<>(View.class);
+    private final Map<View, Map<String, Counter>> outcomes = new EnumMap<>(View.class);
+    private final Timer rebuilds;
+
+    public UserListCache(UserListCacheProperties props, ShardedUserRepository userRepository,
+                         PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         UserChangeRepository changes, UserShards shards, UserChangesProperties changesProps,
+                         MeterRegistry meterRegistry) {
+        this.props = props;
+        this.userRepository = userRepository;
+        this.changes = changes;
+        this.shards = shards;
+        this.visibilityDelay = changesProps.visibilityDelay();
+        this.primary = new TransactionTemplate(transactionManager);
+        this.usersWriter = objectMapper.writerFor(new TypeReference<List<UserResponseDto>>() {});
+        this.adminWriter = objectMapper.writerFor(new TypeReference<List<User>>() {});
+        this.rebuilder = props.enabled() ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-list-cache");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.syncer = props.enabled() ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-list-cache-sync");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.cursors = new long[shards.count()];
+        Arrays.fill(cursors, -1);
+        for (int shard = 0; shard < shards.count(); shard++) seen.add(new TreeSet<>());
+        this.rebuilds = Timer.builder("mcp.users.list_cache.rebuild").register(meterRegistry);
+        for (View view : View.values()) {
+            AtomicReference<Entry> entry = new AtomicReference<>();
+            entries.put(view, entry);
+            String tag = view.name().toLowerCase();
+            Map<String, Counter> counters = new HashMap<>();
+            for (String result : List.of("hit", "not_modified", "miss")) {
+                counters.put(result, Counter.builder("mcp.users.list_cache").tag("view", tag).tag("result", result).register(meterRegistry));
+            }
+            outcomes.put(view, counters);
+            Gauge.builder("mcp.users.list_cache.bytes", entry, e -> e.get() == null ? 0 : e.get().json().length)
+                    .tag("view", tag).baseUnit("bytes").register(meterRegistry);
+        }
+    }
+
+    /**
+     * Builds the listings once the application is ready and starts polling the outbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (rebuilder == null) return;
+        schedule(0);
+        long syncInterval = props.syncInterval().toMillis();
+        syncer.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the listing if it was built at the current table version, otherwise {@code null}.
+     */
+    public Entry get(View view) {
+        Entry entry = entries.get(view).get();
+        return entry != null && entry.version() == version.get() ? entry : null;
+    }
+
+    /**
+     * Counts how a request for {@code view} was served.
+     *
+     * @param result {@code hit}, {@code not_modified} or {@code miss}
+     */
+    public void record(View view, String result) {
+        outcomes.get(view).get(result).increment();
+    }
+
+    /**
+     * Bumps the table version for a committed user mutation.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Bumps the table version for a committed chunk of a bulk import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        invalidate();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (rebuilder != null) rebuilder.shutdownNow();
+        if (syncer != null) syncer.shutdownNow();
+    }
+
+    /**
+     * Bumps the table version if any shard's outbox holds a change not seen before. Changes of
+     * this instance have bumped it already on commit; seeing them here costs one more rebuild.
+     */
+    private void sync() {
+        boolean changed = false;
+        try {
+            Instant visibleBefore = Instant.now().minus(visibilityDelay);
+            for (int shard = 0; shard < cursors.length; shard++) changed |= syncShard(shard, visibleBefore);
+        } catch (RuntimeException e) {
+            log.warn("User list cache sync failed, serving listings from the database: {}", e.getMessage());
+            changed = true;
+        }
+        if (changed) invalidate();
+    }
+
+    private boolean syncShard(int shard, Instant visibleBefore) {
+        if (cursors[shard] < 0) {
+            // The first rebuild scans the users table, so only changes from about now on are needed
+            cursors[shard] = shards.query(shard, s -> changes.findFirstByOccurredAtBeforeOrderBySeqDesc(visibleBefore))
+                    .map(UserChange::getSeq)
+                    .orElse(0L);
+        }
+        NavigableSet<Long> done = seen.get(shard);
+        boolean changed = false;
+        boolean settled = true;
+        long after = cursors[shard];
+        List<UserChange> rows;
+        do {
+            long from = after;
+            rows = shards.query(shard, s -> changes.findBySeqGreaterThanOrderBySeqAsc(from, PageRequest.ofSize(SYNC_PAGE_SIZE)));
+            for (UserChange row : rows) {
+                changed |= done.add(row.getSeq());
+                settled &= row.getOccurredAt().isBefore(visibleBefore);
+                if (settled) cursors[shard] = row.getSeq();
+                after = row.getSeq();
+            }
+        } while (rows.size() == SYNC_PAGE_SIZE);
+        done.headSet(cursors[shard], true).clear();
+        return changed;
+    }
+
+    private void invalidate() {
+        if (rebuilder == null) return;
+        version.incrementAndGet();
+        schedule(props.rebuildDelay().toMillis());
+    }
+
+    private void schedule(long delayMillis) {
+        if (!scheduled.compareAndSet(false, true)) return;
+        try {
+            rebuilder.schedule(this::rebuild, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            scheduled.set(false);
+        }
+    }
+
+    /**
+     * Scans the users table and serializes both listings at the version read before the scan.
+     * A change committed during the scan may already be in the bodies; its bump has scheduled
+     * the next rebuild, which replaces them.
+     */
+    private void rebuild() {
+        // Cleared first, so that a change during this rebuild schedules another one
+        scheduled.set(false);
+        long at = version.get();
+        try {
+            rebuilds.record(() -> {
+                List<User> users = primary.execute(status -> userRepository.findAll());
+                store(View.USERS, at, serialize(usersWriter, users.stream().map(UserListCache::toDto).toList()));
+                store(View.ADMIN, at, serialize(adminWriter, users));
+            });
+        } catch (RuntimeException e) {
+            log.warn("User list cache rebuild failed, serving listings from the database: {}", e.getMessage());
+        }
+    }
+
+    private void store(View view, long at, byte[] json) {
+        AtomicReference<Entry> entry = entries.get(view);
+        if (json.length > props.maxSize().toBytes()) {
+            entry.set(null);
+            log.info("User list {} is {} bytes, above users.list-cache.max-size; not cached", view, json.length);
+            return;
+        }
+        byte[] gzip = json.length >= props.compressMinSize().toBytes() ? gzip(json) : null;
+        Entry next = new Entry(at, json, gzip, etag(json));
+        entry.accumulateAndGet(next, (current, built) -> current != null && current.version() > built.version() ? current : built);
+    }
+
+    private static byte[] serialize(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize user list", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A strong entity tag derived from the body, so it stays valid across restarts and instances.
+     */
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UserResponseDto toDto(User u) {
+        return new UserResponseDto(u.getId(), u.getName(), u.getMail(), u.getAge());
+    }
+}
@@ -0,0 +1,21 @@
+package com.mcp.server.domain.user.listing;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers {@link UserListCacheFilter} on the two full listings, unless
+ * {@code users.list-cache.enabled} is {@code false}.
+ */
+@Configuration
+public class UserListCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<UserListCacheFilter> userListCacheFilter(UserListCache cache, UserListCacheProperties props) {
+        FilterRegistrationBean<UserListCacheFilter> registration = new FilterRegistrationBean<>(new UserListCacheFilter(cache));
+        registration.addUrlPatterns("/users", "/admin");
+        registration.setEnabled(props.enabled());
+        return registration;
+    }
+}
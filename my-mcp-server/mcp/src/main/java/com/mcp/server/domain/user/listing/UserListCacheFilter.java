@@ -0,0 +1,123 @@
+package com.mcp.server.domain.user.listing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Answers plain {@code GET /users} and {@code GET /admin} from the {@link UserListCache}.
+ * <p>
+ * On a hit the cached bytes are written straight to the response, gzipped when the client
+ * accepts it, with a strong {@code ETag}; a matching {@code If-None-Match} gets
+ * {@code 304 Not Modified}. Requests with a query string, requests preferring CBOR or Smile,
+ * and requests arriving while the listing is being rebuilt pass through to the controller.
+ * </p>
+ */
+public class UserListCacheFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final UserListCache cache;
+
+    public UserListCacheFilter(UserListCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || request.getQueryString() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        UserListCache.View view = request.getServletPath().equals("/admin") ? UserListCache.View.ADMIN : UserListCache.View.USERS;
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        UserListCache.Entry entry = cache.get(view);
+        if (entry == null) {
+            cache.record(view, "miss");
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean gzipped = entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = entry.etag(gzipped);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, VARY);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry)) {
+            cache.record(view, "not_modified");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        cache.record(view, "hit");
+        byte[] body = gzipped ? entry.gzip() : entry.json();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Also keeps server.compression from compressing the body a second time
+        if (gzipped) response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Whether the client takes JSON and does not ask for one of the binary formats, which
+     * the cache does not hold.
+     */
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) return true;
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) continue;
+            String subtype = type.getSubtype();
+            if (subtype.equals("cbor") || subtype.equals("x-jackson-smile")) return false;
+            if (type.includes(MediaType.APPLICATION_JSON)) json = true;
+        }
+        return json;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase(GZIP)) continue;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("q=0(\\.0{0,3})?")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code If-None-Match} names either representation of {@code entry}. Compared
+     * weakly, as RFC 9110 requires for this header.
+     */
+    private static boolean matches(String ifNoneMatch, UserListCache.Entry entry) {
+        if (ifNoneMatch == null) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String opaque = tag.trim();
+            if (opaque.equals("*")) return true;
+            if (opaque.startsWith("W/")) opaque = opaque.substring(2);
+            if (opaque.equals(entry.etag(false)) || opaque.equals(entry.etag(true))) return true;
+        }
+        return false;
+    }
+}
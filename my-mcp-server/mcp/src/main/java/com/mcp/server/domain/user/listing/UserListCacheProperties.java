@@ -0,0 +1,36 @@
+package com.mcp.server.domain.user.listing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the pre-serialized {@code GET /users} and {@code GET /admin} responses.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   list-cache:
+ *     rebuild-delay: 200ms
+ *     max-size: 64MB
+ *     sync-interval: 1s
+ * </pre>
+ * </p>
+ *
+ * @param enabled         whether full listings are served from the cache
+ * @param rebuildDelay    how long a rebuild waits after a change, so that a burst of writes costs one rebuild
+ * @param maxSize         listings whose JSON is larger than this are not cached
+ * @param compressMinSize listings at least this large are also kept gzipped, for clients accepting it
+ * @param syncInterval    how often the {@code user_changes} outbox is polled for changes made by other instances;
+ *                        until then this instance may serve a listing without them
+ */
+@ConfigurationProperties(prefix = "users.list-cache")
+public record UserListCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200ms") Duration rebuildDelay,
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("2KB") DataSize compressMinSize,
+        @DefaultValue("1s") Duration syncInterval
+) {}
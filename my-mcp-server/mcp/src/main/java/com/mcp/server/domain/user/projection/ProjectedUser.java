@@ -0,0 +1,39 @@
+package com.mcp.server.domain.user.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A user row holding only the requested {@link UserField}s, in request order.
+ * <p>
+ * Values are kept as the array the projection query returned and written straight out
+ * as a JSON object, so neither an entity nor a map is built per row.
+ * </p>
+ *
+ * @param fields the selected fields, shared by all rows of a result
+ * @param values the values, one per field
+ */
+@JsonSerialize(using = ProjectedUser.Serializer.class)
+public record ProjectedUser(List<UserField> fields, Object[] values) {
+
+    static final class Serializer extends StdSerializer<ProjectedUser> {
+
+        Serializer() {
+            super(ProjectedUser.class);
+        }
+
+        @Override
+        public void serialize(ProjectedUser user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < user.fields.size(); i++) {
+                provider.defaultSerializeField(user.fields.get(i).attribute(), user.values[i], gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mcp.server.domain.user.projection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * User attributes that can be requested with {@code ?fields=}.
+ * <p>
+ * The name is both the JPA attribute of {@link com.mcp.server.domain.user.entity.user.User}
+ * and the JSON property, so a projection selects and serializes the same names.
+ * </p>
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    MAIL("mail"),
+    AGE("age"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    /** Fields of {@link com.mcp.server.domain.user.dto.public_api.UserResponseDto}, served on {@code /users}. */
+    public static final Set<UserField> PUBLIC = Collections.unmodifiableSet(EnumSet.of(ID, NAME, MAIL, AGE));
+    /** Every field of the entity, served on {@code /admin}. */
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    private final String attribute;
+
+    UserField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma-separated field list, keeping the requested order and dropping repeats.
+     *
+     * @param raw     the list, e.g. {@code "id,mail"}
+     * @param allowed the fields the endpoint exposes
+     * @return the requested fields
+     * @throws IllegalArgumentException if a name is unknown or not allowed, or none is given
+     */
+    public static List<UserField> parse(String raw, Set<UserField> allowed) {
+        List<UserField> fields = new ArrayList<>();
+        for (String name : raw.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            UserField field = allowed.stream()
+                    .filter(f -> f.attribute.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown field: " + trimmed + ", expected one of " + names(allowed)));
+            if (!fields.contains(field)) fields.add(field);
+        }
+        if (fields.isEmpty()) throw new IllegalArgumentException("fields must name at least one of " + names(allowed));
+        return List.copyOf(fields);
+    }
+
+    private static String names(Set<UserField> fields) {
+        return fields.stream().map(UserField::attribute).collect(Collectors.joining(", "));
+    }
+}
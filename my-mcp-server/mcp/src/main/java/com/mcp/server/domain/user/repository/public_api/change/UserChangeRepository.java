@@ -0,0 +1,23 @@
+package com.mcp.server.domain.user.repository.public_api.change;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.mcp.server.domain.user.entity.change.UserChange;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    // Incremental reads by cursor; the visibility bound keeps pollers behind in-flight transactions
+    List<UserChange> findBySeqGreaterThanOrderBySeqAsc(long seq, Pageable page);
+    List<UserChange> findBySeqGreaterThanAndOccurredAtBeforeOrderBySeqAsc(long seq, Instant visibleBefore, Pageable page);
+    Optional<UserChange> findFirstByOccurredAtBeforeOrderBySeqDesc(Instant visibleBefore);
+
+    @Modifying
+    @Query("delete from UserChange c where c.occurredAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,25 @@
+package com.mcp.server.domain.user.repository.public_api.tombstone;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.mcp.server.domain.user.entity.tombstone.UserTombstone;
+
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, UUID> {
+
+    // Keyset scan after a (deletedAt, id) watermark, up to an upper visibility bound
+    @Query("select t from UserTombstone t"
+            + " where (t.deletedAt > :at or (t.deletedAt = :at and t.id > :id)) and t.deletedAt <= :upper"
+            + " order by t.deletedAt, t.id")
+    List<UserTombstone> findAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                  @Param("upper") Instant upper, Pageable page);
+
+    @Modifying
+    @Query("delete from UserTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,18 @@
+package com.mcp.server.domain.user.repository.public_api.user;
+
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+
+import java.util.List;
+
+/**
+ * Projection queries that select only the requested user columns.
+ * Mixed into {@link UserRepository}; implemented by {@link UserProjectionRepositoryImpl}.
+ */
+public interface UserProjectionRepository {
+
+    /**
+     * Returns every user with only {@code fields} selected.
+     */
+    List<ProjectedUser> findAllProjected(List<UserField> fields);
+}
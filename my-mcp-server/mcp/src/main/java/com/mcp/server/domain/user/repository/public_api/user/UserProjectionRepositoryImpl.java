@@ -0,0 +1,40 @@
+package com.mcp.server.domain.user.repository.public_api.user;
+
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Criteria tuple queries for {@link UserProjectionRepository}: the {@code select} list is
+ * built from the requested fields, so unrequested columns are never read and no entity
+ * is materialized.
+ */
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectedUser> findAllProjected(List<UserField> fields) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Selection<?>[] columns = new Selection<?>[fields.size()];
+        for (int i = 0; i < columns.length; i++) columns[i] = user.get(fields.get(i).attribute());
+        query.multiselect(columns);
+        return em.createQuery(query).getResultList().stream()
+                .map(row -> new ProjectedUser(fields, row.toArray()))
+                .toList();
+    }
+}
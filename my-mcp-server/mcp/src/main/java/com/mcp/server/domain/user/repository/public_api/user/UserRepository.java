@@ -1,12 +1,82 @@
 package com.mcp.server.domain.user.repository.public_api.user;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.entity.user.User;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserProjectionRepository {
     Optional<User> findByMail(String mail);
+
+    // Keyset pagination over the primary key, for full scans that must not use OFFSET
+    List<User> findAllByOrderByIdAsc(Pageable page);
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable page);
+
+    // Database fallback for search while the in-memory index is still building
+    List<User> findByNameContainingIgnoreCaseOrMailContainingIgnoreCase(String name, String mail, Pageable page);
+
+    // Delta sync: keyset scan after an (updatedAt, id) watermark, backed by idx_users_updated_at
+    @Query("select u from User u"
+            + " where (u.updatedAt > :at or (u.updatedAt = :at and u.id > :id)) and u.updatedAt <= :upper"
+            + " order by u.updatedAt, u.id")
+    List<User> findModifiedAfter(@Param("at") Instant at, @Param("id") UUID id,
+                                 @Param("upper") Instant upper, Pageable page);
+
+    // Aggregates for /users/stats; each is a single query that returns no user rows
+    int AGE_BUCKET_WIDTH = 10;
+
+    @Query("select count(u) as count, min(u.age) as minAge, max(u.age) as maxAge, avg(u.age) as avgAge from User u")
+    AgeSummary summarizeAges();
+
+    @Query("select (u.age / " + AGE_BUCKET_WIDTH + ") * " + AGE_BUCKET_WIDTH + " as bucket, count(u) as users from User u"
+            + " group by (u.age / " + AGE_BUCKET_WIDTH + ") * " + AGE_BUCKET_WIDTH
+            + " order by (u.age / " + AGE_BUCKET_WIDTH + ") * " + AGE_BUCKET_WIDTH)
+    List<AgeBucketCount> countByAgeBucket();
+
+    @Query("select lower(substring(u.mail, locate('@', u.mail) + 1)) as domain, count(u) as users from User u"
+            + " group by lower(substring(u.mail, locate('@', u.mail) + 1))"
+            + " order by count(u) desc, lower(substring(u.mail, locate('@', u.mail) + 1))")
+    List<MailDomainCount> countByMailDomain(Pageable page);
+
+    /**
+     * Runs the three aggregate queries and assembles them into a {@link UserStatsDto}.
+     *
+     * @param topDomains how many mail domains to return
+     */
+    default UserStatsDto stats(int topDomains) {
+        AgeSummary ages = summarizeAges();
+        List<UserStatsDto.AgeBucket> histogram = countByAgeBucket().stream()
+                .map(b -> new UserStatsDto.AgeBucket(b.getBucket(), b.getBucket() + AGE_BUCKET_WIDTH, b.getUsers()))
+                .toList();
+        List<UserStatsDto.MailDomain> domains = countByMailDomain(PageRequest.ofSize(topDomains)).stream()
+                .map(d -> new UserStatsDto.MailDomain(d.getDomain(), d.getUsers()))
+                .toList();
+        return new UserStatsDto(ages.getCount(), ages.getMinAge(), ages.getMaxAge(), ages.getAvgAge(), histogram, domains);
+    }
+
+    interface AgeSummary {
+        long getCount();
+        Integer getMinAge();
+        Integer getMaxAge();
+        Double getAvgAge();
+    }
+
+    interface AgeBucketCount {
+        int getBucket();
+        long getUsers();
+    }
+
+    interface MailDomainCount {
+        String getDomain();
+        long getUsers();
+    }
 }
 
 
@@ -0,0 +1,29 @@
+package com.mcp.server.domain.user.search;
+
+/**
+ * Matching strategy for user search on {@code name} and {@code mail}.
+ *
+ * <ul>
+ *     <li>{@code PREFIX} - a word of the name, the full name or the mail starts with the query</li>
+ *     <li>{@code SUBSTRING} - the name or mail contains the query</li>
+ *     <li>{@code FUZZY} - trigram similarity between the query and the name or mail is high enough</li>
+ *     <li>{@code AUTO} - prefix matches first, then substring, then fuzzy matches</li>
+ * </ul>
+ */
+public enum SearchMode {
+    PREFIX,
+    SUBSTRING,
+    FUZZY,
+    AUTO;
+
+    /**
+     * Parses a mode case-insensitively, defaulting to {@link #AUTO}.
+     *
+     * @param raw the raw mode, may be {@code null}
+     * @return the parsed mode
+     * @throws IllegalArgumentException if the value is not a known mode
+     */
+    public static SearchMode parse(String raw) {
+        return raw == null || raw.isBlank() ? AUTO : valueOf(raw.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,320 @@
+package com.mcp.server.domain.user.search;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-process search index over user {@code name} and {@code mail}.
+ * <p>
+ * Two structures are maintained:
+ * <ul>
+ *     <li>a sorted term dictionary (name words, full name, full mail and mail local part)
+ *     for prefix queries, answered with a range scan</li>
+ *     <li>a trigram inverted index for substring and fuzzy queries. Candidates come from
+ *     posting-list intersection (substring) or shared-trigram counting (fuzzy), starting
+ *     with the rarest trigram, and are then verified against the stored document</li>
+ * </ul>
+ * Documents are the same {@link UserResponseDto} the API returns, so a search never needs
+ * the database.
+ * </p>
+ *
+ * <p>
+ * The index is built from a keyset-paginated scan once the application is ready. After that
+ * it is kept current incrementally from {@link UserChangedEvent}s after their transaction
+ * commits. Until the initial build completes, {@link #isReady()} is {@code false} and callers
+ * fall back to the database.
+ * </p>
+ *
+ * <p>
+ * Changes of one user are applied one at a time, inside {@code documents.compute}, so the
+ * postings always belong to the stored document. A posting set is only dropped from the
+ * index under its own lock, once empty, and an id is only added to a set still in the index.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex {
+
+    /** Minimum trigram similarity for a fuzzy match (same default as PostgreSQL's pg_trgm). */
+    static final double FUZZY_THRESHOLD = 0.3;
+    /** Posting lists longer than this are too unselective to scan for fuzzy candidates. */
+    static final int MAX_FUZZY_POSTING = 100_000;
+    private static final int BUILD_PAGE_SIZE = 1_000;
+
+    private final ShardedUserRepository userRepository;
+
+    private final Map<UUID, UserResponseDto> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<UUID>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<UUID>> trigrams = new ConcurrentHashMap<>();
+    /** Ids changed by events while the initial build runs; the build must not overwrite them. */
+    private final Set<UUID> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Builds the index with a keyset-paginated scan of the users table on every shard.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        List<User> page = userRepository.page(null, BUILD_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            for (User u : page) {
+                UserResponseDto doc = UserChangedEvent.snapshot(u);
+                // Checked under the id's lock: an event marks the id before applying its own change
+                documents.compute(u.getId(), (id, previous) -> changedDuringBuild.contains(id) ? previous : replace(previous, doc));
+            }
+            UUID last = page.get(page.size() - 1).getId();
+            page = userRepository.page(last, BUILD_PAGE_SIZE);
+        }
+        ready = true;
+        changedDuringBuild.clear();
+        log.info("User search index built with {} documents in {} ms",
+                documents.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed user mutation to the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!ready) changedDuringBuild.add(event.id());
+        if (event.after() != null) add(event.after());
+        else remove(event.id());
+    }
+
+    /**
+     * Applies a committed chunk of a bulk import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.changes().forEach(this::onUserChanged);
+    }
+
+    /**
+     * Searches users by name and mail.
+     *
+     * @param query the query text
+     * @param mode  the matching strategy
+     * @param limit the maximum number of results
+     * @return matching users, best matches first
+     */
+    public List<UserResponseDto> search(String query, SearchMode mode, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) return List.of();
+
+        LinkedHashSet<UUID> hits = new LinkedHashSet<>();
+        switch (mode) {
+            case PREFIX -> prefix(q, hits, limit);
+            case SUBSTRING -> substring(q, hits, limit);
+            case FUZZY -> fuzzy(q, hits, limit);
+            case AUTO -> {
+                prefix(q, hits, limit);
+                if (hits.size() < limit) substring(q, hits, limit);
+                if (hits.size() < limit) fuzzy(q, hits, limit);
+            }
+        }
+
+        List<UserResponseDto> result = new ArrayList<>(hits.size());
+        for (UUID id : hits) {
+            UserResponseDto doc = documents.get(id);
+            if (doc != null) result.add(doc);
+        }
+        return result;
+    }
+
+    private void prefix(String q, Set<UUID> hits, int limit) {
+        NavigableMap<String, Set<UUID>> range = terms.subMap(q, true, q + Character.MAX_VALUE, false);
+        for (Set<UUID> ids : range.values()) {
+            for (UUID id : ids) {
+                hits.add(id);
+                if (hits.size() >= limit) return;
+            }
+        }
+    }
+
+    private void substring(String q, Set<UUID> hits, int limit) {
+        if (q.length() < 3) {
+            prefix(q, hits, limit);
+            return;
+        }
+        List<Set<UUID>> postings = new ArrayList<>();
+        for (String gram : trigramsOf(q, false)) {
+            Set<UUID> ids = trigrams.get(gram);
+            if (ids == null) return;
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<UUID> rarest = postings.get(0);
+        for (UUID id : rarest) {
+            if (hits.contains(id)) continue;
+            boolean inAll = true;
+            for (int i = 1; i < postings.size() && inAll; i++) inAll = postings.get(i).contains(id);
+            if (!inAll) continue;
+            UserResponseDto doc = documents.get(id);
+            if (doc != null && (lower(doc.name()).contains(q) || lower(doc.mail()).contains(q))) {
+                hits.add(id);
+                if (hits.size() >= limit) return;
+            }
+        }
+    }
+
+    private void fuzzy(String q, Set<UUID> hits, int limit) {
+        Set<String> queryGrams = trigramsOf(q, true);
+        Map<UUID, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<UUID> ids = trigrams.get(gram);
+            if (ids == null || ids.size() > MAX_FUZZY_POSTING) continue;
+            for (UUID id : ids) shared.merge(id, 1, Integer::sum);
+        }
+
+        // Cheap upper bound first: similarity can't exceed shared / |query grams|
+        int minShared = (int) Math.ceil(FUZZY_THRESHOLD * queryGrams.size());
+        List<Map.Entry<UUID, Double>> scored = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> e : shared.entrySet()) {
+            if (e.getValue() < minShared || hits.contains(e.getKey())) continue;
+            UserResponseDto doc = documents.get(e.getKey());
+            if (doc == null) continue;
+            double score = Math.max(similarity(queryGrams, doc.name()), similarity(queryGrams, doc.mail()));
+            if (score >= FUZZY_THRESHOLD) scored.add(Map.entry(e.getKey(), score));
+        }
+        scored.sort(Map.Entry.<UUID, Double>comparingByValue().reversed());
+        for (Map.Entry<UUID, Double> e : scored) {
+            hits.add(e.getKey());
+            if (hits.size() >= limit) return;
+        }
+    }
+
+    private static double similarity(Set<String> queryGrams, String value) {
+        Set<String> grams = trigramsOf(lower(value), true);
+        int common = 0;
+        for (String g : queryGrams) if (grams.contains(g)) common++;
+        int union = queryGrams.size() + grams.size() - common;
+        return union == 0 ? 0.0 : (double) common / union;
+    }
+
+    /**
+     * Inserts or replaces a document.
+     */
+    private void add(UserResponseDto doc) {
+        documents.compute(doc.id(), (id, previous) -> replace(previous, doc));
+    }
+
+    private void remove(UUID id) {
+        documents.computeIfPresent(id, (k, previous) -> replace(previous, null));
+    }
+
+    /**
+     * Moves the postings of a user from {@code previous} to {@code next}, either of which may
+     * be {@code null}, and returns {@code next}. Only called inside {@code documents.compute}.
+     */
+    private UserResponseDto replace(UserResponseDto previous, UserResponseDto next) {
+        if (previous != null) {
+            for (String term : termsOf(previous)) removePosting(terms, term, previous.id());
+            for (String gram : gramsOf(previous)) removePosting(trigrams, gram, previous.id());
+        }
+        if (next != null) {
+            for (String term : termsOf(next)) addPosting(terms, term, next.id());
+            for (String gram : gramsOf(next)) addPosting(trigrams, gram, next.id());
+        }
+        return next;
+    }
+
+    private static void addPosting(Map<String, Set<UUID>> index, String key, UUID id) {
+        while (true) {
+            Set<UUID> ids = index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+            synchronized (ids) {
+                // A set emptied and dropped by another user's removal meanwhile must not be written to
+                if (index.get(key) == ids) {
+                    ids.add(id);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<UUID>> index, String key, UUID id) {
+        Set<UUID> ids = index.get(key);
+        if (ids == null) return;
+        synchronized (ids) {
+            if (ids.remove(id) && ids.isEmpty()) index.remove(key, ids);
+        }
+    }
+
+    private static Set<String> termsOf(UserResponseDto doc) {
+        Set<String> result = new LinkedHashSet<>();
+        String name = lower(doc.name());
+        String mail = lower(doc.mail());
+        if (!name.isEmpty()) {
+            result.add(name);
+            for (String word : name.split("\\s+")) if (!word.isEmpty()) result.add(word);
+        }
+        if (!mail.isEmpty()) {
+            result.add(mail);
+            int at = mail.indexOf('@');
+            if (at > 0) result.add(mail.substring(0, at));
+        }
+        return result;
+    }
+
+    private static Set<String> gramsOf(UserResponseDto doc) {
+        Set<String> result = trigramsOf(lower(doc.name()), true);
+        result.addAll(trigramsOf(lower(doc.name()), false));
+        result.addAll(trigramsOf(lower(doc.mail()), true));
+        result.addAll(trigramsOf(lower(doc.mail()), false));
+        return result;
+    }
+
+    /**
+     * Trigrams of {@code s}. Padded trigrams (two leading and one trailing blank, as in
+     * pg_trgm) weight word boundaries for fuzzy scoring; unpadded trigrams are used for
+     * substring candidate lookup.
+     */
+    static Set<String> trigramsOf(String s, boolean padded) {
+        Set<String> grams = new LinkedHashSet<>();
+        String text = padded ? "  " + s + " " : s;
+        for (int i = 0; i + 3 <= text.length(); i++) grams.add(text.substring(i, i + 3));
+        return grams;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
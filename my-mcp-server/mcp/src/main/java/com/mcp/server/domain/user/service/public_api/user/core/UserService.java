@@ -1,8 +1,15 @@
 package com.mcp.server.domain.user.service.public_api.user.core;
 
+import com.mcp.server.domain.user.changes.DeltaWatermark;
 import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserLookupDto;
 import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.dto.public_api.UserUpdateDto;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import com.mcp.server.domain.user.search.SearchMode;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +44,14 @@ public interface UserService {
      */
     List<UserResponseDto> getAll();
 
+    /**
+     * Retrieves all users with only the given fields selected and serialized.
+     *
+     * @param fields the fields to return, in output order
+     * @return a list of all users, projected to {@code fields}
+     */
+    List<ProjectedUser> getAll(List<UserField> fields);
+
     /**
      * Retrieves a user by their unique ID.
      *
@@ -45,6 +60,14 @@ public interface UserService {
      */
     Optional<UserResponseDto> getById(UUID id);
 
+    /**
+     * Retrieves the users with the given IDs.
+     *
+     * @param ids the UUIDs of the users, possibly with repeats
+     * @return the users in the order of {@code ids}, with the ids no user has listed as missing
+     */
+    UserLookupDto<UserResponseDto> getByIds(List<UUID> ids);
+
     /**
      * Retrieves a user by their email address.
      *
@@ -70,4 +93,31 @@ public interface UserService {
      * @return {@code true} if the user was deleted, {@code false} if the user was not found
      */
     boolean delete(UUID id);
+
+    /**
+     * Searches users by name and mail.
+     *
+     * @param query the query text
+     * @param mode  the matching strategy (prefix, substring, fuzzy or auto)
+     * @param limit the maximum number of results
+     * @return matching users, best matches first
+     */
+    List<UserResponseDto> search(String query, SearchMode mode, int limit);
+
+    /**
+     * Computes aggregate statistics over all users in the database.
+     *
+     * @param topDomains how many of the most common mail domains to include
+     * @return the user count, age statistics and histogram, and top mail domains
+     */
+    UserStatsDto stats(int topDomains);
+
+    /**
+     * Returns the users created, updated or deleted after a watermark.
+     *
+     * @param since the watermark from the previous sync
+     * @param limit the maximum number of upserts plus deletions
+     * @return the changes and the watermark for the next request
+     */
+    UserDeltaDto modifiedSince(DeltaWatermark since, int limit);
 }
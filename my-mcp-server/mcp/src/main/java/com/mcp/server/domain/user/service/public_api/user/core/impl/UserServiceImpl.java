@@ -1,29 +1,48 @@
 package com.mcp.server.domain.user.service.public_api.user.core.impl;
 
+import com.mcp.server.domain.user.bloom.UserBloomGuard;
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.changes.UserDeltaQuery;
 import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserDeltaDto;
+import com.mcp.server.domain.user.dto.public_api.UserLookupDto;
 import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
 import com.mcp.server.domain.user.dto.public_api.UserUpdateDto;
 import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
 import com.mcp.server.domain.user.repository.public_api.user.UserRepository;
+import com.mcp.server.domain.user.search.SearchMode;
+import com.mcp.server.domain.user.search.UserSearchIndex;
 import com.mcp.server.domain.user.service.public_api.user.core.UserService;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.snapshot.UserSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Implementation of {@link UserService} for managing users.
  * <p>
- * This service provides CRUD operations for user entities using {@link UserRepository}.
+ * This service provides CRUD operations for user entities using {@link ShardedUserRepository},
+ * which routes them to the shard holding each user.
  * All results are returned as {@link UserResponseDto} to ensure consistent API responses.
  * </p>
  *
  * <p>
  * Methods are transactional, with read-only transactions for retrieval operations
  * and read-write transactions for create, update, and delete operations.
+ * Every mutation publishes a {@link UserChangedEvent}.
  * </p>
  *
  * @see UserService
@@ -34,7 +53,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
-    private final UserRepository userRepository;
+    private final ShardedUserRepository userRepository;
+    private final ApplicationEventPublisher events;
+    private final UserSearchIndex searchIndex;
+    private final UserDeltaQuery deltaQuery;
+    private final UserSnapshot snapshot;
+    private final UserBloomGuard bloomGuard;
 
     /**
      * Converts a {@link User} entity to a {@link UserResponseDto}.
@@ -60,7 +84,8 @@ public class UserServiceImpl implements UserService {
         user.setMail(dto.mail());
         user.setAge(dto.age());
 
-        User saved = userRepository.save(user);
+        User saved = userRepository.create(user);
+        events.publishEvent(UserChangedEvent.created(saved));
         return toDto(saved);
     }
 
@@ -79,27 +104,67 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves a user by their unique ID.
+     * Retrieves all users, selecting only the requested columns.
+     *
+     * @param fields the fields to return, in output order
+     * @return a list of all users, projected to {@code fields}
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<ProjectedUser> getAll(List<UserField> fields) {
+        return userRepository.findAllProjected(fields);
+    }
+
+    /**
+     * Retrieves a user by their unique ID, from the {@link UserSnapshot} once it is built.
+     * Otherwise ids ruled out by the {@link UserBloomGuard} are answered without a query.
+     * <p>
+     * {@code SUPPORTS} leaves the transaction to the repository call, so a snapshot hit
+     * neither begins a transaction nor borrows a connection.
+     * </p>
      *
      * @param id the UUID of the user
      * @return an {@link Optional} containing the user if found, empty otherwise
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     @Override
     public Optional<UserResponseDto> getById(UUID id) {
-        return userRepository.findById(id).map(UserServiceImpl::toDto);
+        if (snapshot.isReady()) return snapshot.findById(id);
+        return bloomGuard.findById(id, () -> userRepository.findById(id).map(UserServiceImpl::toDto));
+    }
+
+    /**
+     * Retrieves users by a list of IDs, from the {@link UserSnapshot} once it is built.
+     * Otherwise the ids the {@link UserBloomGuard} does not rule out are loaded with chunked
+     * {@code IN} queries, see {@link ShardedUserRepository#findAllById}.
+     *
+     * @param ids the UUIDs of the users, possibly with repeats
+     * @return the users in the order of {@code ids}, with the ids no user has listed as missing
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    @Override
+    public UserLookupDto<UserResponseDto> getByIds(List<UUID> ids) {
+        Map<UUID, UserResponseDto> found = new HashMap<>();
+        if (snapshot.isReady()) {
+            for (UUID id : ids) snapshot.findById(id).ifPresent(u -> found.put(id, u));
+        } else {
+            for (User u : userRepository.findAllById(bloomGuard.mightExist(ids))) found.put(u.getId(), toDto(u));
+        }
+        return UserLookupDto.of(ids, found);
     }
 
     /**
-     * Retrieves a user by their email address.
+     * Retrieves a user by their email address, from the {@link UserSnapshot} once it is built.
+     * Otherwise mails ruled out by the {@link UserBloomGuard} are answered without a query.
      *
      * @param mail the email of the user
      * @return an {@link Optional} containing the user if found, empty otherwise
      */
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     @Override
     public Optional<UserResponseDto> getByMail(String mail) {
-        return userRepository.findByMail(mail).map(UserServiceImpl::toDto);
+        if (snapshot.isReady()) return snapshot.findByMail(mail);
+        return bloomGuard.findByMail(mail, () -> userRepository.findByMail(mail).map(UserServiceImpl::toDto));
     }
 
     /**
@@ -114,10 +179,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public Optional<UserResponseDto> update(UUID id, UserUpdateDto payload) {
         return userRepository.findById(id).map(user -> {
+            UserResponseDto before = toDto(user);
             if (payload.name() != null) user.setName(payload.name());
             if (payload.mail() != null) user.setMail(payload.mail());
             if (payload.age() != null) user.setAge(payload.age());
-            return toDto(userRepository.save(user));
+            User saved = userRepository.save(user);
+            events.publishEvent(UserChangedEvent.updated(before, saved));
+            return toDto(saved);
         });
     }
 
@@ -130,8 +198,55 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public boolean delete(UUID id) {
-        if (!userRepository.existsById(id)) return false;
-        userRepository.deleteById(id);
-        return true;
+        return userRepository.findById(id).map(user -> {
+            userRepository.delete(user);
+            events.publishEvent(UserChangedEvent.deleted(toDto(user)));
+            return true;
+        }).orElse(false);
+    }
+
+    /**
+     * Searches users by name and mail using the in-memory {@link UserSearchIndex}.
+     * While the index is still being built, a substring query against the database is used.
+     *
+     * @param query the query text
+     * @param mode  the matching strategy
+     * @param limit the maximum number of results
+     * @return matching users, best matches first
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserResponseDto> search(String query, SearchMode mode, int limit) {
+        if (searchIndex.isReady()) return searchIndex.search(query, mode, limit);
+        return userRepository.searchSubstring(query, limit)
+                .stream()
+                .map(UserServiceImpl::toDto)
+                .toList();
+    }
+
+    /**
+     * Computes aggregate statistics over all users with database aggregate queries.
+     *
+     * @param topDomains how many of the most common mail domains to include
+     * @return the aggregated statistics
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public UserStatsDto stats(int topDomains) {
+        return userRepository.stats(topDomains);
+    }
+
+    /**
+     * Returns the users created, updated or deleted after a watermark, using keyset scans
+     * on {@code updated_at} and on the deletion tombstones.
+     *
+     * @param since the watermark from the previous sync
+     * @param limit the maximum number of upserts plus deletions
+     * @return the changes and the watermark for the next request
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public UserDeltaDto modifiedSince(DeltaWatermark since, int limit) {
+        return deltaQuery.since(since, limit);
     }
 }
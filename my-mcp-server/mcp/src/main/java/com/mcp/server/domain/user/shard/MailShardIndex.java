@@ -0,0 +1,54 @@
+package com.mcp.server.domain.user.shard;
+
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index from mail address to the shard of the user that has it.
+ * <p>
+ * Mail addresses do not determine the shard, so without the index every lookup by mail
+ * would query all shards. Entries are added when a user is created, updated or found by
+ * a scatter lookup, and removed when the mail changes or the user is deleted. The index
+ * is only a hint: a lookup that misses on the indexed shard falls back to all shards.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class MailShardIndex {
+
+    private final UserShards shards;
+    private final Map<String, Integer> shardByMail = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shard last seen holding {@code mail}, or {@code null}.
+     */
+    public Integer get(String mail) {
+        return shardByMail.get(mail);
+    }
+
+    public void put(String mail, int shard) {
+        shardByMail.put(mail, shard);
+    }
+
+    public int size() {
+        return shardByMail.size();
+    }
+
+    /**
+     * Applies a committed user mutation to the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!shards.sharded()) return;
+        int shard = shards.shardOf(event.id());
+        if (event.before() != null && (event.after() == null || !event.before().mail().equals(event.after().mail()))) {
+            shardByMail.remove(event.before().mail(), shard);
+        }
+        if (event.after() != null) shardByMail.put(event.after().mail(), shard);
+    }
+}
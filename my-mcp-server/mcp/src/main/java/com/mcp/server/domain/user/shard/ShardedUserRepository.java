@@ -0,0 +1,192 @@
+package com.mcp.server.domain.user.shard;
+
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.projection.ProjectedUser;
+import com.mcp.server.domain.user.projection.UserField;
+import com.mcp.server.domain.user.repository.public_api.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Shard-aware access to users for the user services, on top of {@link UserRepository}.
+ * <p>
+ * Lookups by id bind the calling transaction to the user's shard, so a later update or
+ * delete in the same transaction goes there too. Creating a user binds the transaction to
+ * the shard of the id generated at persist time, before its insert is flushed. Reads across
+ * all users scatter to every shard in parallel and merge: keyset pages are merged by id and
+ * cut to the page size, aggregates are combined exactly.
+ * </p>
+ *
+ * <p>
+ * With sharding disabled every method is a plain call to {@link UserRepository} in the
+ * caller's transaction, except lookups of more ids than fit in one {@code IN} list, whose
+ * chunks run in parallel transactions of their own.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardedUserRepository {
+
+    /**
+     * Ids per {@code IN} list: far below PostgreSQL's 32767 bind parameters, and a power of
+     * two so that Hibernate's in-clause parameter padding adds none to a full chunk.
+     */
+    static final int IN_CHUNK = 512;
+
+    private static final Comparator<User> BY_ID = Comparator.comparing(User::getId, DeltaWatermark.UUID_ORDER);
+
+    private final UserRepository users;
+    private final UserShards shards;
+    private final MailShardIndex mailIndex;
+
+    /**
+     * Loads a user in the current transaction, binding it to the user's shard.
+     */
+    public Optional<User> findById(UUID id) {
+        shards.bind(shards.shardOf(id));
+        return users.findById(id);
+    }
+
+    /**
+     * Loads a user by mail: from the shard the {@link MailShardIndex} points to, else from all shards.
+     * The user is loaded in a transaction of its own and must not be modified.
+     */
+    public Optional<User> findByMail(String mail) {
+        if (!shards.sharded()) return users.findByMail(mail);
+        Integer hint = mailIndex.get(mail);
+        if (hint != null) {
+            Optional<User> user = shards.query(hint, s -> users.findByMail(mail));
+            if (user.isPresent()) return user;
+        }
+        Optional<User> found = shards.scatter(s -> users.findByMail(mail)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+        found.ifPresent(u -> mailIndex.put(mail, shards.shardOf(u.getId())));
+        return found;
+    }
+
+    /**
+     * Persists a new user and binds the current transaction to the shard of its id. The id is
+     * generated by {@code persist} without a statement, so the insert goes to that shard.
+     */
+    public User create(User user) {
+        User saved = users.save(user);
+        shards.bind(shards.shardOf(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Saves a user loaded through {@link #findById}.
+     */
+    public User save(User user) {
+        return users.save(user);
+    }
+
+    /**
+     * Deletes a user loaded through {@link #findById}.
+     */
+    public void delete(User user) {
+        users.delete(user);
+    }
+
+    /**
+     * Loads the users with the given ids, in no particular order. Each shard's ids are queried
+     * with {@code IN} lists of at most {@link #IN_CHUNK} ids, in parallel when there is more
+     * than one list.
+     */
+    public List<User> findAllById(Collection<UUID> ids) {
+        Map<Integer, List<UUID>> byShard = ids.stream().distinct().collect(Collectors.groupingBy(shards::shardOf));
+        List<Integer> chunkShards = new ArrayList<>();
+        List<List<UUID>> chunks = new ArrayList<>();
+        byShard.forEach((shard, mine) -> {
+            for (int from = 0; from < mine.size(); from += IN_CHUNK) {
+                chunkShards.add(shard);
+                chunks.add(mine.subList(from, Math.min(from + IN_CHUNK, mine.size())));
+            }
+        });
+        if (chunks.isEmpty()) return List.of();
+        return flatten(shards.fanOut(chunkShards, i -> users.findAllById(chunks.get(i))));
+    }
+
+    public List<User> findAll() {
+        return flatten(shards.scatter(s -> users.findAll()));
+    }
+
+    public List<ProjectedUser> findAllProjected(List<UserField> fields) {
+        return flatten(shards.scatter(s -> users.findAllProjected(fields)));
+    }
+
+    /**
+     * Returns up to {@code size} users ordered by id, after {@code after} if it is not {@code null}.
+     */
+    public List<User> page(UUID after, int size) {
+        PageRequest page = PageRequest.ofSize(size);
+        List<List<User>> parts = shards.scatter(s -> after == null
+                ? users.findAllByOrderByIdAsc(page)
+                : users.findByIdGreaterThanOrderByIdAsc(after, page));
+        if (parts.size() == 1) return parts.get(0);
+        return parts.stream().flatMap(List::stream).sorted(BY_ID).limit(size).toList();
+    }
+
+    /**
+     * Substring search on name and mail in the database; at most {@code limit} users, in no particular order.
+     */
+    public List<User> searchSubstring(String query, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return flatten(shards.scatter(s ->
+                users.findByNameContainingIgnoreCaseOrMailContainingIgnoreCase(query, query, page)))
+                .stream().limit(limit).toList();
+    }
+
+    /**
+     * Aggregates over all users; per-shard results are combined exactly, so every shard
+     * reports all its mail domains rather than its top ones.
+     */
+    public UserStatsDto stats(int topDomains) {
+        if (!shards.sharded()) return users.stats(topDomains);
+        List<UserStatsDto> parts = shards.scatter(s -> users.stats(Integer.MAX_VALUE));
+
+        long count = 0;
+        double ageSum = 0;
+        Integer min = null;
+        Integer max = null;
+        Map<Integer, Long> buckets = new TreeMap<>();
+        Map<String, Long> domains = new HashMap<>();
+        for (UserStatsDto p : parts) {
+            if (p.count() == 0) continue;
+            count += p.count();
+            ageSum += p.avgAge() * p.count();
+            min = min == null ? p.minAge() : Math.min(min, p.minAge());
+            max = max == null ? p.maxAge() : Math.max(max, p.maxAge());
+            p.ageHistogram().forEach(b -> buckets.merge(b.from(), b.users(), Long::sum));
+            p.topMailDomains().forEach(d -> domains.merge(d.domain(), d.users(), Long::sum));
+        }
+        List<UserStatsDto.AgeBucket> histogram = buckets.entrySet().stream()
+                .map(e -> new UserStatsDto.AgeBucket(e.getKey(), e.getKey() + UserRepository.AGE_BUCKET_WIDTH, e.getValue()))
+                .toList();
+        List<UserStatsDto.MailDomain> top = domains.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(topDomains)
+                .map(e -> new UserStatsDto.MailDomain(e.getKey(), e.getValue()))
+                .toList();
+        return new UserStatsDto(count, min, max, count == 0 ? null : ageSum / count, histogram, top);
+    }
+
+    private static <T> List<T> flatten(List<List<T>> parts) {
+        return parts.size() == 1 ? parts.get(0) : parts.stream().flatMap(List::stream).toList();
+    }
+}
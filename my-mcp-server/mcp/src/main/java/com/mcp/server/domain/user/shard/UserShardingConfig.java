@@ -0,0 +1,90 @@
+package com.mcp.server.domain.user.shard;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single application data source with {@link ShardRoutingDataSource} when
+ * {@code users.sharding.enabled} is {@code true}.
+ * <p>
+ * Shard 0 is built from {@code spring.datasource} and migrated by Spring Boot's Flyway as
+ * usual; every other shard gets the same migrations here, so each shard holds the full
+ * schema. Tables that are not partitioned ({@code nlp_audit} and the like) are only used
+ * on shard 0, which is where unbound connections go.
+ * </p>
+ *
+ * <p>
+ * Cannot be combined with {@code datasource.routing} replicas: both replace the
+ * application data source.
+ * </p>
+ *
+ * @see UserShards
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "users.sharding", name = "enabled", havingValue = "true")
+public class UserShardingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource userShard0(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource userShard0, UserShardingProperties props,
+                                                         FlywayProperties flywayProperties, MeterRegistry meterRegistry,
+                                                         Environment environment) {
+        if (environment.getProperty("datasource.routing.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("users.sharding and datasource.routing cannot be enabled together");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(userShard0);
+        if (props.shards() != null) {
+            for (UserShardingProperties.Shard shard : props.shards()) {
+                HikariDataSource pool = shardPool(userShard0, shard, meterRegistry);
+                Flyway.configure()
+                        .dataSource(pool)
+                        .locations(flywayProperties.getLocations().toArray(String[]::new))
+                        .baselineOnMigrate(flywayProperties.isBaselineOnMigrate())
+                        .load()
+                        .migrate();
+                shards.add(pool);
+            }
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private static HikariDataSource shardPool(HikariDataSource primary, UserShardingProperties.Shard shard,
+                                              MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName(shard.name());
+        config.setJdbcUrl(shard.url());
+        if (shard.username() != null) config.setUsername(shard.username());
+        if (shard.password() != null) config.setPassword(shard.password());
+        if (shard.maximumPoolSize() != null) config.setMaximumPoolSize(shard.maximumPoolSize());
+        config.setMetricRegistry(meterRegistry);
+        return new HikariDataSource(config);
+    }
+}
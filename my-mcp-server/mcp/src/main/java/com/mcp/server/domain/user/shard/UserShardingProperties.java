@@ -0,0 +1,48 @@
+package com.mcp.server.domain.user.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration properties for hash-partitioning users across databases.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   sharding:
+ *     enabled: true
+ *     shards:
+ *       - name: users-1
+ *         url: ${DB_SHARD_1_URL}
+ *       - name: users-2
+ *         url: ${DB_SHARD_2_URL}
+ * </pre>
+ * Shard 0 is always {@code spring.datasource}; the listed shards follow in order. Users are
+ * placed by a hash of their id modulo the shard count, so shards may only be appended to
+ * or removed from this list together with a migration of the affected rows.
+ * </p>
+ *
+ * @param enabled whether users are partitioned; with {@code false} everything stays on {@code spring.datasource}
+ * @param threads threads running per-shard queries for scatter-gather reads, and chunks of large id lookups
+ * @param shards  the shards after shard 0
+ */
+@ConfigurationProperties(prefix = "users.sharding")
+public record UserShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("8") int threads,
+        List<Shard> shards
+) {
+
+    /**
+     * An additional shard. Its pool copies the Hikari settings of {@code spring.datasource}.
+     *
+     * @param name            the pool name
+     * @param url             the JDBC URL
+     * @param username        the user, the primary's if {@code null}
+     * @param password        the password, the primary's if {@code null}
+     * @param maximumPoolSize the pool size, the primary's if {@code null}
+     */
+    public record Shard(String name, String url, String username, String password, Integer maximumPoolSize) {}
+}
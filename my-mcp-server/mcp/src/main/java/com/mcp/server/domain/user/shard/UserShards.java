@@ -0,0 +1,226 @@
+package com.mcp.server.domain.user.shard;
+
+import com.mcp.server.common.datasource.ReadYourWrites;
+import com.mcp.server.common.deadline.RequestDeadline;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Shard placement and shard-scoped execution for user data.
+ * <p>
+ * A user lives on shard {@link #shardOf(UUID) shardOf(id)}, together with its change log
+ * and tombstone, so a mutation and its outbox entry commit atomically on one database.
+ * The shard of the current thread is picked up by {@link ShardRoutingDataSource} when the
+ * transaction takes its first connection; {@link #bind} must therefore be called before
+ * the first statement of the transaction.
+ * </p>
+ *
+ * <p>
+ * Reads that span all users run through {@link #scatter}, one read-only transaction per
+ * shard on a small pool, in parallel. With sharding disabled there is a single shard,
+ * {@link #bind} does nothing and {@link #scatter} runs inline in the caller's transaction.
+ * Large reads that are split into chunks run through {@link #fanOut}, which uses the same
+ * pool with or without sharding.
+ * </p>
+ *
+ * <p>
+ * The shard transactions time out at the caller's {@link RequestDeadline}, also on the pool.
+ * </p>
+ */
+@Component
+@EnableConfigurationProperties(UserShardingProperties.class)
+public class UserShards {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int count;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+    private final ExecutorService executor;
+
+    public UserShards(UserShardingProperties props, PlatformTransactionManager transactionManager) {
+        this.count = props.enabled() && props.shards() != null ? 1 + props.shards().size() : 1;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Threads are only started once tasks arrive, so an unsharded setup without fan-out starts none
+        this.executor = Executors.newFixedThreadPool(Math.max(1, props.threads()), r -> {
+            Thread t = new Thread(r, "user-shard-query");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the shard bound to the current thread; shard 0 if none is.
+     */
+    static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean sharded() {
+        return count > 1;
+    }
+
+    /**
+     * Returns the shard a user with {@code id} lives on.
+     */
+    public int shardOf(UUID id) {
+        if (count == 1) return 0;
+        // 64-bit finalizer from MurmurHash3, so every bit of the id affects the shard
+        long h = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) count);
+    }
+
+    /**
+     * Routes the rest of the current transaction to {@code shard}. The binding is released
+     * when the transaction completes.
+     *
+     * @throws IllegalStateException if there is no transaction to scope the binding to
+     */
+    public void bind(int shard) {
+        if (count == 1) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shard binding requires an active transaction");
+        }
+        Integer previous = CURRENT.get();
+        if (previous != null) {
+            if (previous != shard) throw new IllegalStateException("Transaction is already bound to shard " + previous);
+            return;
+        }
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                CURRENT.remove();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code query} once per shard, in parallel, each in its own read-only transaction.
+     *
+     * @return the per-shard results, indexed by shard
+     */
+    public <T> List<T> scatter(IntFunction<T> query) {
+        if (count == 1) return List.of(query.apply(0));
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int s = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    RequestDeadline.withDeadline(() -> onShard(s, readOnly, () -> query.apply(s))), executor));
+        }
+        return join(futures);
+    }
+
+    /**
+     * Runs {@code task} once per entry of {@code shards}, in parallel, each in its own read-only
+     * transaction on the shard the entry names. Unlike {@link #scatter}, several tasks may
+     * target the same shard, so one large query can be split into chunks. A single task runs
+     * inline, as with {@link #query}.
+     *
+     * @param shards the shard of each task
+     * @param task   the query, given the index of the task
+     * @return the per-task results, indexed like {@code shards}
+     */
+    public <T> List<T> fanOut(List<Integer> shards, IntFunction<T> task) {
+        if (shards.size() == 1) return Collections.singletonList(this.<T>query(shards.get(0), i -> task.apply(0)));
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int index = i;
+            int shard = shards.get(i);
+            // Keeps read-your-writes routing to the primary for a caller that just wrote
+            futures.add(CompletableFuture.supplyAsync(RequestDeadline.withDeadline(
+                    ReadYourWrites.withCaller(() -> onShard(shard, readOnly, () -> task.apply(index)))), executor));
+        }
+        return join(futures);
+    }
+
+    /**
+     * Runs {@code query} on one shard in its own read-only transaction, on the calling thread.
+     */
+    public <T> T query(int shard, IntFunction<T> query) {
+        if (count == 1) return query.apply(0);
+        return onShard(shard, readOnly, () -> query.apply(shard));
+    }
+
+    /**
+     * Runs {@code work} on one shard in its own read-write transaction, on the calling thread.
+     * Used for writes that are not scoped to one user, such as bulk inserts.
+     */
+    public <T> T write(int shard, IntFunction<T> work) {
+        return onShard(shard, readWrite, () -> work.apply(shard));
+    }
+
+    /**
+     * Runs {@code work} on every shard in turn, each in its own read-write transaction.
+     * Used by maintenance jobs; the caller must not be in a transaction.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int s = shard;
+            onShard(s, readWrite, () -> {
+                work.accept(s);
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> f : futures) results.add(f.join());
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+        return results;
+    }
+
+    private static <T> T onShard(int shard, TransactionTemplate tx, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return RequestDeadline.bound(tx).execute(status -> work.get());
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+}
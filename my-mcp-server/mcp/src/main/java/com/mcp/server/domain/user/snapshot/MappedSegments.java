@@ -0,0 +1,142 @@
+package com.mcp.server.domain.user.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file mapped into memory in fixed-size segments, addressed by {@code long} offsets.
+ * <p>
+ * A single {@link MappedByteBuffer} is limited to 2 GB, so larger files are mapped as
+ * several segments. Values never straddle a segment boundary: callers keep records
+ * aligned, and index slots are powers of two that divide the segment size. Segments are
+ * mapped lazily as the file grows; the file is sparse, so unused capacity costs neither
+ * disk nor memory.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe; {@link MappedUserStore} serializes writers and validates readers.
+ * </p>
+ */
+final class MappedSegments implements AutoCloseable {
+
+    static final int SEGMENT_BITS = 30;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long OFFSET_MASK = SEGMENT_SIZE - 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    /**
+     * Creates (or truncates) the file at {@code path} and maps at least {@code bytes}.
+     */
+    MappedSegments(Path path, long bytes) {
+        this.path = path;
+        try {
+            Files.createDirectories(path.getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ensureCapacity(bytes);
+    }
+
+    long capacity() {
+        return (long) segments.length << SEGMENT_BITS;
+    }
+
+    /**
+     * Maps further segments until at least {@code bytes} are addressable.
+     */
+    void ensureCapacity(long bytes) {
+        MappedByteBuffer[] current = segments;
+        int needed = (int) ((bytes + OFFSET_MASK) >>> SEGMENT_BITS);
+        if (needed <= current.length) return;
+        MappedByteBuffer[] grown = Arrays.copyOf(current, needed);
+        try {
+            for (int i = current.length; i < needed; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i << SEGMENT_BITS, SEGMENT_SIZE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = grown;
+    }
+
+    /**
+     * Returns the first offset at or after {@code offset} from which {@code length} bytes fit in one segment.
+     */
+    static long align(long offset, int length) {
+        return (offset & OFFSET_MASK) + length > SEGMENT_SIZE ? (offset | OFFSET_MASK) + 1 : offset;
+    }
+
+    long getLong(long offset) {
+        return segment(offset).getLong((int) (offset & OFFSET_MASK));
+    }
+
+    void putLong(long offset, long value) {
+        segment(offset).putLong((int) (offset & OFFSET_MASK), value);
+    }
+
+    int getInt(long offset) {
+        return segment(offset).getInt((int) (offset & OFFSET_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        segment(offset).putInt((int) (offset & OFFSET_MASK), value);
+    }
+
+    short getShort(long offset) {
+        return segment(offset).getShort((int) (offset & OFFSET_MASK));
+    }
+
+    void putShort(long offset, short value) {
+        segment(offset).putShort((int) (offset & OFFSET_MASK), value);
+    }
+
+    void getBytes(long offset, byte[] dst, int length) {
+        segment(offset).get((int) (offset & OFFSET_MASK), dst, 0, length);
+    }
+
+    void putBytes(long offset, byte[] src) {
+        segment(offset).put((int) (offset & OFFSET_MASK), src);
+    }
+
+    /**
+     * Compares {@code length} bytes at {@code offset} with {@code other} without copying them.
+     */
+    boolean bytesEqual(long offset, byte[] other, int length) {
+        if (other.length != length) return false;
+        MappedByteBuffer segment = segment(offset);
+        int base = (int) (offset & OFFSET_MASK);
+        for (int i = 0; i < length; i++) {
+            if (segment.get(base + i) != other[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Closes the file and deletes it. The mapping itself is released when the buffers are collected.
+     */
+    @Override
+    public void close() {
+        segments = new MappedByteBuffer[0];
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)];
+    }
+}
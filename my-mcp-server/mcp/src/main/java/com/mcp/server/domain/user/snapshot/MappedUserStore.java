@@ -0,0 +1,427 @@
+package com.mcp.server.domain.user.snapshot;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Users stored off-heap in memory-mapped files, with open-addressing hash indexes on id and mail.
+ * <p>
+ * Records are appended to a log file in this layout, never crossing a segment boundary:
+ * <pre>
+ * int length | long id msb | long id lsb | int age | short n | n bytes name | short m | m bytes mail
+ * </pre>
+ * An update appends a new record and repoints the indexes; the old record becomes garbage,
+ * which is reclaimed when the snapshot is rebuilt on the next start.
+ * </p>
+ *
+ * <p>
+ * Both indexes use linear probing over power-of-two tables kept at most half full, and
+ * are rehashed into a new file when they reach that load. Id slots hold the id and the
+ * record offset; mail slots hold the mail's hash and the record offset, and candidates are
+ * confirmed by comparing the mail bytes in the record. Offset {@code 0} marks an empty slot
+ * and {@code -1} a deleted one. The JVM heap holds only the file mappings, whatever the
+ * number of users.
+ * </p>
+ *
+ * <p>
+ * One writer at a time. Reads run lock-free under an optimistic {@link StampedLock} stamp
+ * and retry under the read lock when a write intervened; a torn read that fails outright is
+ * retried the same way. Mail is not unique in the schema: the mail index holds one entry
+ * per user, and a lookup by mail returns one of the users with that mail.
+ * </p>
+ */
+public final class MappedUserStore implements AutoCloseable {
+
+    private static final int ID_SLOT = 32;
+    private static final int MAIL_SLOT = 16;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+    /** length, id msb, id lsb, age. */
+    private static final int HEADER = 4 + 8 + 8 + 4;
+    private static final int MAX_TEXT = Short.MAX_VALUE;
+    private static final int MIN_SLOTS = 16;
+
+    private final Path directory;
+    private final StampedLock lock = new StampedLock();
+    private final MappedSegments records;
+    /** Next free record offset; records start at 8 so that offset 0 can mean "empty". */
+    private long end = 8;
+    private Table ids;
+    private Table mails;
+    private int generation;
+    private int size;
+    private long liveBytes;
+    private long garbageBytes;
+
+    /**
+     * Creates an empty store in {@code directory}, replacing files left by a previous run.
+     *
+     * @param directory     where the files are created
+     * @param expectedUsers how many users the indexes are sized for initially
+     */
+    public MappedUserStore(Path directory, long expectedUsers) {
+        this.directory = directory;
+        this.records = new MappedSegments(directory.resolve("records.bin"), MappedSegments.SEGMENT_SIZE);
+        long slots = slotsFor(expectedUsers);
+        this.ids = newTable("ids", slots, ID_SLOT);
+        this.mails = newTable("mails", slots, MAIL_SLOT);
+    }
+
+    /**
+     * Inserts or replaces a user.
+     *
+     * @throws IllegalArgumentException if name or mail do not fit a record
+     */
+    public void put(UUID id, String name, String mail, int age) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] mailBytes = mail.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > MAX_TEXT || mailBytes.length > MAX_TEXT) {
+            throw new IllegalArgumentException("User " + id + " does not fit a snapshot record");
+        }
+        int length = HEADER + 2 + nameBytes.length + 2 + mailBytes.length;
+
+        long stamp = lock.writeLock();
+        try {
+            long record = MappedSegments.align(end, length);
+            records.ensureCapacity(record + length);
+            records.putInt(record, length);
+            records.putLong(record + 4, id.getMostSignificantBits());
+            records.putLong(record + 12, id.getLeastSignificantBits());
+            records.putInt(record + 20, age);
+            records.putShort(record + HEADER, (short) nameBytes.length);
+            records.putBytes(record + HEADER + 2, nameBytes);
+            long mailAt = record + HEADER + 2 + nameBytes.length;
+            records.putShort(mailAt, (short) mailBytes.length);
+            records.putBytes(mailAt + 2, mailBytes);
+            end = record + length;
+
+            long slot = idSlot(ids, id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot >= 0) {
+                long previous = ids.data.getLong(slot + 16);
+                ids.data.putLong(slot + 16, record);
+                byte[] previousMail = mailBytes(previous);
+                if (Arrays.equals(previousMail, mailBytes)) {
+                    mails.data.putLong(entrySlot(mails, hash(mailBytes), previous) + 8, record);
+                } else {
+                    removeMail(previousMail, previous);
+                    insertMail(mailBytes, record);
+                }
+                discard(previous);
+            } else {
+                insertId(id.getMostSignificantBits(), id.getLeastSignificantBits(), record);
+                insertMail(mailBytes, record);
+                size++;
+            }
+            liveBytes += length;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes a user.
+     *
+     * @return {@code true} if the user was present
+     */
+    public boolean remove(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            long slot = idSlot(ids, id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot < 0) return false;
+            long record = ids.data.getLong(slot + 16);
+            ids.data.putLong(slot + 16, DELETED);
+            removeMail(mailBytes(record), record);
+            discard(record);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the user with {@code id}, or {@code null}.
+     */
+    public UserResponseDto get(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                UserResponseDto user = readById(msb, lsb);
+                if (lock.validate(stamp)) return user;
+            } catch (RuntimeException e) {
+                // Torn read during a concurrent write; retried below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return readById(msb, lsb);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns a user with {@code mail}, or {@code null}.
+     */
+    public UserResponseDto getByMail(String mail) {
+        byte[] mailBytes = mail.getBytes(StandardCharsets.UTF_8);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                UserResponseDto user = readByMail(mailBytes);
+                if (lock.validate(stamp)) return user;
+            } catch (RuntimeException e) {
+                // Torn read during a concurrent write; retried below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return readByMail(mailBytes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes of the current versions of all records.
+     */
+    public long liveBytes() {
+        long stamp = lock.readLock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes of superseded and deleted records, reclaimed only by a rebuild.
+     */
+    public long garbageBytes() {
+        long stamp = lock.readLock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Closes and deletes all files.
+     */
+    @Override
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            records.close();
+            ids.data.close();
+            mails.data.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private UserResponseDto readById(long msb, long lsb) {
+        long slot = idSlot(ids, msb, lsb);
+        return slot < 0 ? null : read(ids.data.getLong(slot + 16));
+    }
+
+    private UserResponseDto readByMail(byte[] mailBytes) {
+        long slot = mailSlot(mails, mailBytes, hash(mailBytes));
+        return slot < 0 ? null : read(mails.data.getLong(slot + 8));
+    }
+
+    private UserResponseDto read(long record) {
+        UUID id = new UUID(records.getLong(record + 4), records.getLong(record + 12));
+        int age = records.getInt(record + 20);
+        byte[] name = new byte[records.getShort(record + HEADER)];
+        records.getBytes(record + HEADER + 2, name, name.length);
+        long mailAt = record + HEADER + 2 + name.length;
+        byte[] mail = new byte[records.getShort(mailAt)];
+        records.getBytes(mailAt + 2, mail, mail.length);
+        return new UserResponseDto(id, new String(name, StandardCharsets.UTF_8), new String(mail, StandardCharsets.UTF_8), age);
+    }
+
+    private byte[] mailBytes(long record) {
+        long mailAt = record + HEADER + 2 + records.getShort(record + HEADER);
+        byte[] mail = new byte[records.getShort(mailAt)];
+        records.getBytes(mailAt + 2, mail, mail.length);
+        return mail;
+    }
+
+    private void discard(long record) {
+        int length = records.getInt(record);
+        liveBytes -= length;
+        garbageBytes += length;
+    }
+
+    private long idSlot(Table table, long msb, long lsb) {
+        long mask = table.slots - 1;
+        long i = mix(msb ^ lsb) & mask;
+        for (long probes = 0; probes < table.slots; probes++, i = (i + 1) & mask) {
+            long slot = i * ID_SLOT;
+            long record = table.data.getLong(slot + 16);
+            if (record == EMPTY) return -1;
+            if (record != DELETED && table.data.getLong(slot) == msb && table.data.getLong(slot + 8) == lsb) return slot;
+        }
+        return -1;
+    }
+
+    private void insertId(long msb, long lsb, long record) {
+        if ((ids.used + 1) * 2 > ids.slots) ids = rehashIds(ids);
+        long slot = freeSlot(ids, mix(msb ^ lsb), ID_SLOT, 16);
+        ids.data.putLong(slot, msb);
+        ids.data.putLong(slot + 8, lsb);
+        ids.data.putLong(slot + 16, record);
+    }
+
+    private Table rehashIds(Table old) {
+        Table table = newTable("ids", slotsFor(size + 1L), ID_SLOT);
+        for (long slot = 0; slot < old.slots * ID_SLOT; slot += ID_SLOT) {
+            long record = old.data.getLong(slot + 16);
+            if (record == EMPTY || record == DELETED) continue;
+            long msb = old.data.getLong(slot);
+            long lsb = old.data.getLong(slot + 8);
+            long target = freeSlot(table, mix(msb ^ lsb), ID_SLOT, 16);
+            table.data.putLong(target, msb);
+            table.data.putLong(target + 8, lsb);
+            table.data.putLong(target + 16, record);
+        }
+        old.data.close();
+        return table;
+    }
+
+    private long mailSlot(Table table, byte[] mailBytes, int hash) {
+        long mask = table.slots - 1;
+        long i = mix(hash) & mask;
+        for (long probes = 0; probes < table.slots; probes++, i = (i + 1) & mask) {
+            long slot = i * MAIL_SLOT;
+            long record = table.data.getLong(slot + 8);
+            if (record == EMPTY) return -1;
+            if (record != DELETED && table.data.getInt(slot) == hash && mailEquals(record, mailBytes)) return slot;
+        }
+        return -1;
+    }
+
+    private boolean mailEquals(long record, byte[] mailBytes) {
+        long mailAt = record + HEADER + 2 + records.getShort(record + HEADER);
+        return records.bytesEqual(mailAt + 2, mailBytes, records.getShort(mailAt));
+    }
+
+    /**
+     * Returns the slot of the mail entry of {@code record}, which is the current record of a user and so indexed.
+     */
+    private long entrySlot(Table table, int hash, long record) {
+        long mask = table.slots - 1;
+        for (long i = mix(hash) & mask; ; i = (i + 1) & mask) {
+            long slot = i * MAIL_SLOT;
+            long candidate = table.data.getLong(slot + 8);
+            if (candidate == EMPTY) throw new IllegalStateException("Record " + record + " is not in the mail index");
+            if (candidate == record) return slot;
+        }
+    }
+
+    private void insertMail(byte[] mailBytes, long record) {
+        int hash = hash(mailBytes);
+        if ((mails.used + 1) * 2 > mails.slots) mails = rehashMails(mails);
+        long slot = freeSlot(mails, mix(hash), MAIL_SLOT, 8);
+        mails.data.putInt(slot, hash);
+        mails.data.putLong(slot + 8, record);
+    }
+
+    /**
+     * Removes the mail entry of {@code record}, leaving those of other users with the same mail.
+     */
+    private void removeMail(byte[] mailBytes, long record) {
+        mails.data.putLong(entrySlot(mails, hash(mailBytes), record) + 8, DELETED);
+    }
+
+    private Table rehashMails(Table old) {
+        Table table = newTable("mails", slotsFor(size + 1L), MAIL_SLOT);
+        for (long slot = 0; slot < old.slots * MAIL_SLOT; slot += MAIL_SLOT) {
+            long record = old.data.getLong(slot + 8);
+            if (record == EMPTY || record == DELETED) continue;
+            int hash = old.data.getInt(slot);
+            long target = freeSlot(table, mix(hash), MAIL_SLOT, 8);
+            table.data.putInt(target, hash);
+            table.data.putLong(target + 8, record);
+        }
+        old.data.close();
+        return table;
+    }
+
+    /**
+     * Finds the first empty or deleted slot from {@code hash}'s home slot and counts it as used if it was empty.
+     */
+    private static long freeSlot(Table table, long hash, int slotSize, int recordAt) {
+        long mask = table.slots - 1;
+        for (long i = hash & mask; ; i = (i + 1) & mask) {
+            long slot = i * slotSize;
+            long record = table.data.getLong(slot + recordAt);
+            if (record == EMPTY) {
+                table.used++;
+                return slot;
+            }
+            if (record == DELETED) return slot;
+        }
+    }
+
+    private Table newTable(String name, long slots, int slotSize) {
+        Path file = directory.resolve(name + "-" + generation++ + ".bin");
+        return new Table(new MappedSegments(file, slots * slotSize), slots);
+    }
+
+    /**
+     * Table size holding {@code users} at a load of at most one quarter, so the next rehash is as many inserts away.
+     */
+    private static long slotsFor(long users) {
+        long wanted = Math.max(MIN_SLOTS, users * 4);
+        return Long.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) h = 31 * h + b;
+        return h;
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3, so that the low bits used for the home slot depend on every input bit.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Table {
+        final MappedSegments data;
+        final long slots;
+        /** Slots that are not empty, deleted ones included, since they lengthen probe sequences too. */
+        long used;
+
+        Table(MappedSegments data, long slots) {
+            this.data = data;
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.mcp.server.domain.user.snapshot;
+
+import com.mcp.server.domain.user.changes.UserChangesProperties;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.change.UserChange;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.event.UsersImportedEvent;
+import com.mcp.server.domain.user.repository.public_api.change.UserChangeRepository;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.shard.UserShards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read snapshot of all users in a {@link MappedUserStore}, for serving lookups by id and
+ * mail without the database.
+ * <p>
+ * Like {@link com.mcp.server.domain.user.search.UserSearchIndex}, the snapshot is built
+ * from a keyset-paginated scan once the application is ready and is then kept current from
+ * {@link UserChangedEvent}s after their transaction commits. Until the build completes,
+ * {@link #isReady()} is {@code false} and callers use the database. With
+ * {@code users.snapshot.enabled=false} no files are created and the snapshot never
+ * becomes ready.
+ * </p>
+ *
+ * <p>
+ * Those events only cover this instance. Changes made by other instances, bulk imports and
+ * NLP jobs included, are read from the shared {@code user_changes} outbox of every shard each
+ * {@link UserSnapshotProperties#syncInterval()}; an outbox row carries the user's new state,
+ * so it is applied like an event. As in {@link com.mcp.server.domain.user.bloom.UserBloomGuard},
+ * the outbox cursor moves only past changes older than
+ * {@link UserChangesProperties#visibilityDelay()}, and changes above it are remembered once
+ * applied. Changes of this instance are applied a second time by the sync, which rewrites the
+ * same state. Writes that bypass the application, and so the outbox, are only picked up by the
+ * build on the next start.
+ * </p>
+ *
+ * <p>
+ * Lookups are as fresh as the last committed event here, or the last sync for changes made
+ * elsewhere: a reader may briefly see the previous version of a user that was modified by a
+ * transaction committing at the same moment, which is the same guarantee a read replica gives.
+ * </p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UserSnapshotProperties.class)
+public class UserSnapshot {
+
+    private static final int BUILD_PAGE_SIZE = 1_000;
+    private static final int SYNC_PAGE_SIZE = 500;
+
+    private final UserSnapshotProperties props;
+    private final ShardedUserRepository userRepository;
+    private final UserChangeRepository changes;
+    private final UserShards shards;
+    private final Duration visibilityDelay;
+    private final MappedUserStore store;
+    private final ScheduledExecutorService syncer;
+    // Per shard, only touched by the syncer: every change up to the cursor is applied, -1 until initialized
+    private final long[] cursors;
+    // Per shard: changes above the cursor already applied
+    private final List<NavigableSet<Long>> applied = new ArrayList<>();
+    /**
+     * Ids changed by events while the initial build runs; the build must not overwrite them.
+     * Marking an id and writing it are one {@code compute} on its key, and so are the build's
+     * check and write, so a change cannot land between the two.
+     */
+    private final Map<UUID, Boolean> changedDuringBuild = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UserSnapshot(UserSnapshotProperties props, ShardedUserRepository userRepository, UserChangeRepository changes,
+                        UserShards shards, UserChangesProperties changesProps, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.userRepository = userRepository;
+        this.changes = changes;
+        this.shards = shards;
+        this.visibilityDelay = changesProps.visibilityDelay();
+        // Created up front, so that events arriving before the build are not lost
+        this.store = props.enabled() ? new MappedUserStore(Path.of(props.directory()), props.expectedUsers()) : null;
+        this.syncer = props.enabled() ? Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-snapshot-sync");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.cursors = new long[shards.count()];
+        Arrays.fill(cursors, -1);
+        for (int shard = 0; shard < shards.count(); shard++) applied.add(new TreeSet<>());
+        if (store != null) {
+            Gauge.builder("mcp.users.snapshot.size", store, MappedUserStore::size).register(meterRegistry);
+            Gauge.builder("mcp.users.snapshot.bytes", store, MappedUserStore::liveBytes)
+                    .tag("kind", "live").baseUnit("bytes").register(meterRegistry);
+            Gauge.builder("mcp.users.snapshot.bytes", store, MappedUserStore::garbageBytes)
+                    .tag("kind", "garbage").baseUnit("bytes").register(meterRegistry);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Starts polling the outbox. It runs alongside the build, whose scan covers the changes
+     * from before the first poll.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (syncer == null) return;
+        long syncInterval = props.syncInterval().toMillis();
+        syncer.scheduleWithFixedDelay(this::sync, 0, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads every user into the snapshot with a keyset-paginated scan of the users table on every shard.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (store == null) return;
+        long started = System.nanoTime();
+        List<User> page = userRepository.page(null, BUILD_PAGE_SIZE);
+        while (!page.isEmpty()) {
+            for (User u : page) {
+                changedDuringBuild.compute(u.getId(), (id, changed) -> {
+                    if (changed == null) store.put(id, u.getName(), u.getMail(), u.getAge());
+                    return changed;
+                });
+            }
+            UUID last = page.get(page.size() - 1).getId();
+            page = userRepository.page(last, BUILD_PAGE_SIZE);
+        }
+        ready = true;
+        changedDuringBuild.clear();
+        log.info("User snapshot built with {} users in {} ms", store.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed user mutation to the snapshot.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (store == null) return;
+        write(event.id(), event.after());
+    }
+
+    /**
+     * Applies a committed chunk of a bulk import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersImported(UsersImportedEvent event) {
+        event.changes().forEach(this::onUserChanged);
+    }
+
+    /**
+     * Stores the committed state of a user, {@code null} if it was deleted.
+     */
+    private void write(UUID id, UserResponseDto after) {
+        if (ready) {
+            apply(id, after);
+            return;
+        }
+        changedDuringBuild.compute(id, (key, changed) -> {
+            apply(id, after);
+            return Boolean.TRUE;
+        });
+    }
+
+    private void apply(UUID id, UserResponseDto after) {
+        if (after != null) store.put(id, after.name(), after.mail(), after.age());
+        else store.remove(id);
+    }
+
+    /**
+     * Applies the changes committed since the last sync, on any instance.
+     */
+    private void sync() {
+        try {
+            Instant visibleBefore = Instant.now().minus(visibilityDelay);
+            for (int shard = 0; shard < cursors.length; shard++) syncShard(shard, visibleBefore);
+        } catch (RuntimeException e) {
+            log.warn("User snapshot sync failed, retrying in {}: {}", props.syncInterval(), e.getMessage());
+        }
+    }
+
+    private void syncShard(int shard, Instant visibleBefore) {
+        if (cursors[shard] < 0) {
+            // The build scans the users table, so only changes from about now on are needed
+            cursors[shard] = shards.query(shard, s -> changes.findFirstByOccurredAtBeforeOrderBySeqDesc(visibleBefore))
+                    .map(UserChange::getSeq)
+                    .orElse(0L);
+        }
+        NavigableSet<Long> done = applied.get(shard);
+        boolean settled = true;
+        long after = cursors[shard];
+        List<UserChange> rows;
+        do {
+            long from = after;
+            rows = shards.query(shard, s -> changes.findBySeqGreaterThanOrderBySeqAsc(from, PageRequest.ofSize(SYNC_PAGE_SIZE)));
+            for (UserChange row : rows) {
+                if (done.add(row.getSeq())) {
+                    write(row.getUserId(), row.getType() == UserChangedEvent.Type.DELETED ? null
+                            : new UserResponseDto(row.getUserId(), row.getName(), row.getMail(), row.getAge()));
+                }
+                settled &= row.getOccurredAt().isBefore(visibleBefore);
+                if (settled) cursors[shard] = row.getSeq();
+                after = row.getSeq();
+            }
+        } while (rows.size() == SYNC_PAGE_SIZE);
+        done.headSet(cursors[shard], true).clear();
+    }
+
+    /**
+     * Returns the user with {@code id}; only meaningful once {@link #isReady()}.
+     */
+    public Optional<UserResponseDto> findById(UUID id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    /**
+     * Returns the user with {@code mail}; only meaningful once {@link #isReady()}.
+     */
+    public Optional<UserResponseDto> findByMail(String mail) {
+        return Optional.ofNullable(store.getByMail(mail));
+    }
+
+    @PreDestroy
+    public void close() {
+        ready = false;
+        if (syncer != null) syncer.shutdownNow();
+        if (store != null) store.close();
+    }
+}
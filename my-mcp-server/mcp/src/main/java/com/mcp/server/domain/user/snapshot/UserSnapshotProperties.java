@@ -0,0 +1,36 @@
+package com.mcp.server.domain.user.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the memory-mapped user snapshot.
+ * <p>
+ * Example usage in {@code application.yml}:
+ * <pre>
+ * users:
+ *   snapshot:
+ *     enabled: true
+ *     directory: /var/lib/mcp/user-snapshot
+ *     expected-users: 20000000
+ *     sync-interval: 1s
+ * </pre>
+ * The files are rebuilt from the database on every start, so the directory only needs
+ * to be writable and local; it must not be shared between instances.
+ * </p>
+ *
+ * @param enabled       whether {@code getById}/{@code getByMail} are served from the snapshot once it is built
+ * @param directory     where the record and index files are created
+ * @param expectedUsers how many users the indexes are sized for up front; they grow beyond that by rehashing
+ * @param syncInterval  how often changes made by other instances are read from the {@code user_changes} outbox;
+ *                      until then this instance serves their previous state
+ */
+@ConfigurationProperties(prefix = "users.snapshot")
+public record UserSnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/user-snapshot") String directory,
+        @DefaultValue("1000000") long expectedUsers,
+        @DefaultValue("1s") Duration syncInterval
+) {}
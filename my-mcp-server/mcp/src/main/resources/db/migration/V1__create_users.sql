@@ -0,0 +1,15 @@
+-- Users table backing com.mcp.server.domain.user.entity.user.User.
+-- Kept to portable SQL so it runs unchanged on PostgreSQL and on H2 in PostgreSQL mode.
+
+CREATE TABLE users (
+    id         UUID         NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP    NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    mail       VARCHAR(255) NOT NULL,
+    age        INTEGER      NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+-- Serves UserRepository.findByMail / GET /users/by-mail
+CREATE INDEX idx_users_mail ON users (mail);
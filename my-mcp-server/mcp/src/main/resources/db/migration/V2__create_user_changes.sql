@@ -0,0 +1,17 @@
+-- Transactional outbox of user mutations, backing GET /users/changes and its SSE stream.
+-- Rows are written in the same transaction as the mutation, so the feed never shows a
+-- change that was rolled back and never misses one that committed.
+
+CREATE TABLE user_changes (
+    seq         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id     UUID         NOT NULL,
+    change_type VARCHAR(16)  NOT NULL,
+    name        VARCHAR(255),
+    mail        VARCHAR(255),
+    age         INTEGER,
+    occurred_at TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_user_changes PRIMARY KEY (seq)
+);
+
+-- Serves the retention purge (delete by age)
+CREATE INDEX idx_user_changes_occurred_at ON user_changes (occurred_at);
@@ -0,0 +1,13 @@
+-- Delta sync by updated_at watermark (GET /users?modifiedSince=).
+
+-- Serves the keyset scan "(updated_at, id) > watermark ORDER BY updated_at, id"
+CREATE INDEX idx_users_updated_at ON users (updated_at, id);
+
+-- Deleted users, so that deletions propagate to delta consumers
+CREATE TABLE user_tombstones (
+    id         UUID      NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_user_tombstones PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_user_tombstones_deleted_at ON user_tombstones (deleted_at, id);
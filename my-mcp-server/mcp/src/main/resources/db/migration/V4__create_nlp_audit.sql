@@ -0,0 +1,17 @@
+-- Audit trail of /admin/nlp requests, written in batches by NlpAuditLog.
+-- Append-only: rows are never updated.
+
+CREATE TABLE nlp_audit (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    occurred_at    TIMESTAMP     NOT NULL,
+    prompt         VARCHAR(4000) NOT NULL,
+    operation      VARCHAR(32),
+    command        VARCHAR(4000),
+    cached         BOOLEAN       NOT NULL,
+    outcome        VARCHAR(32)   NOT NULL,
+    latency_micros BIGINT        NOT NULL,
+    trace_id       VARCHAR(64),
+    CONSTRAINT pk_nlp_audit PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_nlp_audit_occurred_at ON nlp_audit (occurred_at);
@@ -0,0 +1,24 @@
+-- Durable queue of asynchronous /admin/nlp/jobs requests, run by NlpJobWorker.
+-- A worker claims a job by moving it to RUNNING with a lease; a job whose lease expired
+-- (its worker died) is claimed again.
+
+CREATE TABLE nlp_jobs (
+    id            UUID          NOT NULL,
+    priority      SMALLINT      NOT NULL,
+    status        VARCHAR(16)   NOT NULL,
+    prompt        VARCHAR(4000) NOT NULL,
+    attempts      INTEGER       NOT NULL,
+    created_at    TIMESTAMP     NOT NULL,
+    run_after     TIMESTAMP     NOT NULL,
+    lease_until   TIMESTAMP,
+    finished_at   TIMESTAMP,
+    result_status INTEGER,
+    result        TEXT,
+    error         VARCHAR(4000),
+    CONSTRAINT pk_nlp_jobs PRIMARY KEY (id)
+);
+
+-- Serves the claim "status = 'QUEUED' AND run_after <= now ORDER BY priority, created_at"
+CREATE INDEX idx_nlp_jobs_claim ON nlp_jobs (status, priority, created_at);
+-- Serves the purge of finished jobs past their retention
+CREATE INDEX idx_nlp_jobs_finished_at ON nlp_jobs (finished_at);
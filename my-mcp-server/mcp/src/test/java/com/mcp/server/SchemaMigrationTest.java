@@ -0,0 +1,55 @@
+package com.mcp.server;
+
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.service.public_api.user.core.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application on the default profile, H2 in PostgreSQL mode, so every Flyway
+ * migration is applied and the entity mappings are checked against the migrated schema by
+ * {@code ddl-auto: validate}. A mapping that disagrees with a migration fails the context.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=test",
+        "openai.command-cache.enabled=false",
+        "nlp.jobs.enabled=false"
+})
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void appliesEveryMigration() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("5");
+    }
+
+    @Test
+    void storesAuditTimestampsOfAUser() {
+        Instant before = Instant.now().minusSeconds(1);
+        UserResponseDto created = userService.create(new CreateUserDto("Ada Lovelace", "ada.schema@example.com", 36));
+
+        Timestamp createdAt = jdbc.queryForObject("select created_at from users where id = ?", Timestamp.class, created.id());
+        assertThat(createdAt).isNotNull();
+        assertThat(createdAt.toInstant()).isBetween(before, Instant.now().plus(Duration.ofSeconds(1)));
+        assertThat(userService.getById(created.id())).contains(created);
+    }
+}
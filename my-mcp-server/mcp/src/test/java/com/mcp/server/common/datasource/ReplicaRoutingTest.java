@@ -0,0 +1,108 @@
+package com.mcp.server.common.datasource;
+
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.service.public_api.user.core.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application with one "replica": a separate H2 database that is migrated but
+ * never replicated to. A row written through the application is therefore only on the
+ * primary, and whether a read sees it tells which database the read was routed to. Route
+ * counters are only checked for a lower bound, since background syncs of the caches also
+ * open transactions.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=test",
+        "openai.command-cache.enabled=false",
+        "nlp.jobs.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "datasource.routing.enabled=true",
+        "datasource.routing.read-your-writes=1m",
+        "datasource.routing.replicas[0].name=replica-1",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "datasource.routing.replicas[0].migrate=true"
+})
+class ReplicaRoutingTest {
+
+    private static final String WRITER = "key:writer";
+    private static final String OTHER = "key:other";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readAfterWriteOfTheSameCallerGoesToThePrimary() {
+        double before = routed("primary", "read_your_writes");
+        UUID id = createAs(WRITER, "ryw");
+
+        assertThat(ReadYourWrites.callAs(WRITER, () -> count(readOnly, id))).isEqualTo(1);
+        assertThat(routed("primary", "read_your_writes")).isGreaterThan(before);
+    }
+
+    @Test
+    void readsOfOtherCallersGoToTheReplica() {
+        UUID id = createAs(WRITER, "other");
+        double before = routed("replica-1", "read");
+
+        assertThat(ReadYourWrites.callAs(OTHER, () -> count(readOnly, id))).isZero();
+        assertThat(count(readOnly, id)).isZero();
+        assertThat(routed("replica-1", "read")).isGreaterThanOrEqualTo(before + 2);
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        UUID id = createAs(WRITER, "write");
+        double before = routed("primary", "write");
+
+        assertThat(ReadYourWrites.callAs(OTHER, () -> count(readWrite, id))).isEqualTo(1);
+        assertThat(count(readWrite, id)).isEqualTo(1);
+        assertThat(routed("primary", "write")).isGreaterThanOrEqualTo(before + 2);
+    }
+
+    private UUID createAs(String caller, String mailPrefix) {
+        UserResponseDto created = ReadYourWrites.callAs(caller,
+                () -> userService.create(new CreateUserDto("Routing Test", mailPrefix + ".routing@example.com", 30)));
+        return created.id();
+    }
+
+    private int count(TransactionTemplate tx, UUID id) {
+        return tx.execute(status -> jdbc.queryForObject("select count(*) from users where id = ?", Integer.class, id));
+    }
+
+    private double routed(String target, String reason) {
+        Counter counter = meterRegistry.find("mcp.datasource.route").tag("target", target).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
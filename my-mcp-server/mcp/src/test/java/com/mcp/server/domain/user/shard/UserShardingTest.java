@@ -0,0 +1,187 @@
+package com.mcp.server.domain.user.shard;
+
+import com.mcp.server.domain.user.changes.DeltaWatermark;
+import com.mcp.server.domain.user.dto.public_api.CreateUserDto;
+import com.mcp.server.domain.user.dto.public_api.UserStatsDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.service.public_api.user.core.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application with users partitioned across three in-memory H2 databases and
+ * checks where users land, that reads spanning shards see all of them, that mail lookups
+ * and statistics cover every shard, and that every shard carries the full schema.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=test",
+        "openai.command-cache.enabled=false",
+        "nlp.jobs.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:sharding_0;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "users.sharding.enabled=true",
+        "users.sharding.shards[0].name=users-1",
+        "users.sharding.shards[0].url=jdbc:h2:mem:sharding_1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "users.sharding.shards[1].name=users-2",
+        "users.sharding.shards[1].url=jdbc:h2:mem:sharding_2;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserShardingTest {
+
+    /** Enough users that every shard gets some; the chance of an empty shard is below 1e-10. */
+    private static final int USERS = 60;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardedUserRepository repository;
+
+    @Autowired
+    private UserShards shards;
+
+    @Autowired
+    private MailShardIndex mailIndex;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> ids = new ArrayList<>();
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeAll
+    void createUsers() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < USERS; i++) {
+            ids.add(userService.create(new CreateUserDto("Shard Test " + i, mail(i), 20 + i)).id());
+        }
+    }
+
+    @Test
+    void placesEachUserAndItsChangeOnTheShardOfItsId() {
+        assertThat(shards.count()).isEqualTo(3);
+        Set<Integer> used = new HashSet<>();
+        for (UUID id : ids) {
+            int home = shards.shardOf(id);
+            used.add(home);
+            for (int shard = 0; shard < shards.count(); shard++) {
+                int expected = shard == home ? 1 : 0;
+                assertThat(count(shard, "select count(*) from users where id = ?", id)).isEqualTo(expected);
+                assertThat(count(shard, "select count(*) from user_changes where user_id = ?", id)).isEqualTo(expected);
+            }
+        }
+        assertThat(used).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void scatterGatherReadsMergeEveryShard() {
+        assertThat(ids(repository.findAll())).containsAll(ids);
+        assertThat(ids(repository.findAllById(ids))).containsExactlyInAnyOrderElementsOf(ids);
+        for (UUID id : ids) {
+            Optional<User> found = readOnly.execute(status -> repository.findById(id));
+            assertThat(found).map(User::getId).contains(id);
+        }
+    }
+
+    @Test
+    void multiGetRunsEachShardInATransactionOfItsOwn() {
+        int bound = shards.shardOf(ids.get(0));
+        List<UUID> requested = new ArrayList<>(ids);
+        requested.add(UUID.randomUUID());
+        List<UUID> elsewhere = ids.stream().filter(id -> shards.shardOf(id) != bound).toList();
+        List<UUID> oneOtherShard = elsewhere.stream().filter(id -> shards.shardOf(id) == shards.shardOf(elsewhere.get(0))).toList();
+
+        // The caller's transaction is bound to one shard; the per-shard reads must not join it,
+        // neither in parallel nor when a single read runs inline on the calling thread
+        readWrite.executeWithoutResult(status -> {
+            assertThat(repository.findById(ids.get(0))).isPresent();
+            assertThat(ids(repository.findAllById(requested))).containsExactlyInAnyOrderElementsOf(ids);
+            assertThat(ids(repository.findAllById(oneOtherShard))).containsExactlyInAnyOrderElementsOf(oneOtherShard);
+        });
+    }
+
+    @Test
+    void findsUsersByMailOnTheIndexedShardOrByAskingEveryShard() {
+        for (int i = 0; i < USERS; i++) {
+            UUID id = ids.get(i);
+            int home = shards.shardOf(id);
+            assertThat(mailIndex.get(mail(i))).isEqualTo(home);
+            assertThat(repository.findByMail(mail(i))).map(User::getId).contains(id);
+
+            // A stale hint falls back to all shards and is corrected
+            mailIndex.put(mail(i), (home + 1) % shards.count());
+            assertThat(repository.findByMail(mail(i))).map(User::getId).contains(id);
+            assertThat(mailIndex.get(mail(i))).isEqualTo(home);
+        }
+        assertThat(repository.findByMail("nobody@example.com")).isEmpty();
+    }
+
+    @Test
+    void statsCombineEveryShard() {
+        UserStatsDto stats = repository.stats(5);
+        assertThat(stats.count()).isEqualTo(USERS);
+        assertThat(stats.minAge()).isEqualTo(20);
+        assertThat(stats.maxAge()).isEqualTo(20 + USERS - 1);
+        assertThat(stats.avgAge()).isEqualTo(20 + (USERS - 1) / 2.0);
+        assertThat(stats.ageHistogram().stream().mapToLong(UserStatsDto.AgeBucket::users).sum()).isEqualTo(USERS);
+        assertThat(stats.topMailDomains()).containsExactly(
+                new UserStatsDto.MailDomain("example.com", USERS / 2),
+                new UserStatsDto.MailDomain("example.org", USERS / 2));
+    }
+
+    @Test
+    void pagesThroughEveryShardInIdOrder() {
+        List<UUID> paged = new ArrayList<>();
+        List<User> page = repository.page(null, 7);
+        while (!page.isEmpty()) {
+            paged.addAll(ids(page));
+            page = repository.page(page.get(page.size() - 1).getId(), 7);
+        }
+        assertThat(paged).doesNotHaveDuplicates().containsAll(ids);
+        List<UUID> sorted = new ArrayList<>(paged);
+        sorted.sort(DeltaWatermark.UUID_ORDER);
+        assertThat(paged).containsExactlyElementsOf(sorted);
+    }
+
+    @Test
+    void migratesEveryShard() {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            List<String> versions = shards.query(shard, s -> jdbc.queryForList(
+                    "select version from flyway_schema_history where success and version is not null order by installed_rank",
+                    String.class));
+            assertThat(versions).as("shard %d", shard).containsExactly("1", "2", "3", "4", "5");
+        }
+    }
+
+    private int count(int shard, String sql, UUID id) {
+        return shards.query(shard, s -> jdbc.queryForObject(sql, Integer.class, id));
+    }
+
+    private static String mail(int i) {
+        return "shard" + i + (i % 2 == 0 ? "@example.com" : "@example.org");
+    }
+
+    private static List<UUID> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+}
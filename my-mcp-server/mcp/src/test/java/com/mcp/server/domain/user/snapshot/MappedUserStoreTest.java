@@ -0,0 +1,66 @@
+package com.mcp.server.domain.user.snapshot;
+
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a mail shared by several users stays findable for as long as one of them has it.
+ */
+class MappedUserStoreTest {
+
+    private static final String SHARED = "shared@example.com";
+
+    @TempDir
+    Path directory;
+
+    private MappedUserStore store;
+
+    @BeforeEach
+    void open() {
+        // Sized for one user, so that the indexes are rehashed along the way
+        store = new MappedUserStore(directory, 1);
+    }
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void sharedMailIsFoundUntilTheLastUserWithItIsGone() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            store.put(id, "User " + i, SHARED, 20 + i);
+        }
+        store.put(UUID.randomUUID(), "Other", "other@example.com", 50);
+
+        while (!ids.isEmpty()) {
+            UserResponseDto found = store.getByMail(SHARED);
+            assertThat(found).isNotNull();
+            assertThat(ids).contains(found.id());
+
+            // A rename keeps the entry of the found user, then it leaves the mail, alternately by update and delete
+            store.put(found.id(), "Renamed", SHARED, found.age());
+            assertThat(store.getByMail(SHARED)).isNotNull();
+            if (ids.size() % 2 == 0) store.remove(found.id());
+            else store.put(found.id(), "Renamed", found.id() + "@example.com", found.age());
+            ids.remove(found.id());
+        }
+
+        assertThat(store.getByMail(SHARED)).isNull();
+        assertThat(store.getByMail("other@example.com")).extracting(UserResponseDto::name).isEqualTo("Other");
+        assertThat(store.size()).isEqualTo(11);
+    }
+}
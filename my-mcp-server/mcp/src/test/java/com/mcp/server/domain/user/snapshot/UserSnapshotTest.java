@@ -0,0 +1,91 @@
+package com.mcp.server.domain.user.snapshot;
+
+import com.mcp.server.domain.user.changes.UserChangesProperties;
+import com.mcp.server.domain.user.dto.public_api.UserResponseDto;
+import com.mcp.server.domain.user.entity.user.User;
+import com.mcp.server.domain.user.event.UserChangedEvent;
+import com.mcp.server.domain.user.shard.ShardedUserRepository;
+import com.mcp.server.domain.user.shard.UserShardingProperties;
+import com.mcp.server.domain.user.shard.UserShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the initial build of the {@link UserSnapshot} never overwrites a change that
+ * commits while it scans.
+ */
+class UserSnapshotTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final UserResponseDto BEFORE = new UserResponseDto(ID, "Stale", "stale@example.com", 30);
+    private static final UserResponseDto AFTER = new UserResponseDto(ID, "Fresh", "fresh@example.com", 31);
+
+    @TempDir
+    Path directory;
+
+    private UserSnapshot snapshot;
+    private Thread change;
+
+    @AfterEach
+    void close() {
+        if (snapshot != null) snapshot.close();
+    }
+
+    @Test
+    void buildKeepsAChangeCommittedBetweenItsCheckAndItsWrite() throws InterruptedException {
+        // The scanned row is read field by field after the build has checked its id, so the
+        // change is committed from inside the read, just before the row is written
+        User scanned = new User() {
+            @Override
+            public String getName() {
+                if (change == null) {
+                    change = new Thread(() -> snapshot.onUserChanged(
+                            new UserChangedEvent(UserChangedEvent.Type.UPDATED, ID, BEFORE, AFTER, Instant.now())));
+                    change.start();
+                    try {
+                        // Long enough for the change to finish, unless the build holds it off
+                        change.join(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return BEFORE.name();
+            }
+        };
+        scanned.setId(ID);
+        scanned.setMail(BEFORE.mail());
+        scanned.setAge(BEFORE.age());
+        UserShards shards = new UserShards(new UserShardingProperties(false, 1, null), null);
+        snapshot = new UserSnapshot(new UserSnapshotProperties(true, directory.toString(), 16, Duration.ofSeconds(1)),
+                scanning(scanned), null, shards, new UserChangesProperties(1, 1, 1, Duration.ZERO, null, null, null),
+                new SimpleMeterRegistry());
+
+        snapshot.build();
+        change.join();
+
+        assertThat(snapshot.isReady()).isTrue();
+        assertThat(snapshot.findById(ID)).contains(AFTER);
+        assertThat(snapshot.findByMail(AFTER.mail())).contains(AFTER);
+        assertThat(snapshot.findByMail(BEFORE.mail())).isEmpty();
+    }
+
+    /** A repository whose users table holds only {@code user}. */
+    private static ShardedUserRepository scanning(User user) {
+        return new ShardedUserRepository(null, null, null) {
+            @Override
+            public List<User> page(UUID after, int size) {
+                return after == null ? List.of(user) : List.of();
+            }
+        };
+    }
+}
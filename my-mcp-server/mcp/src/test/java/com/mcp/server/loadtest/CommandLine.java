@@ -0,0 +1,59 @@
+package com.mcp.server.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal {@code --key=value} argument parser shared by the load-testing tools.
+ */
+public final class CommandLine {
+
+    private final Map<String, String> values;
+
+    private CommandLine(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static CommandLine parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            int eq = arg.indexOf('=');
+            if (eq < 0) values.put(arg.substring(2), "true");
+            else values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new CommandLine(values);
+    }
+
+    public String value(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int intValue(String key, int defaultValue) {
+        String v = values.get(key);
+        return v == null ? defaultValue : Integer.parseInt(v);
+    }
+
+    public long longValue(String key, long defaultValue) {
+        String v = values.get(key);
+        return v == null ? defaultValue : Long.parseLong(v);
+    }
+
+    public double doubleValue(String key, double defaultValue) {
+        String v = values.get(key);
+        return v == null ? defaultValue : Double.parseDouble(v);
+    }
+
+    /**
+     * Parses durations written as {@code 500ms}, {@code 30s} or {@code 5m}.
+     */
+    public Duration durationValue(String key, Duration defaultValue) {
+        String v = values.get(key);
+        if (v == null) return defaultValue;
+        if (v.endsWith("ms")) return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        if (v.endsWith("s")) return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        if (v.endsWith("m")) return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,78 @@
+package com.mcp.server.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thread-safe recorder of per-request outcomes for a single scenario.
+ * <p>
+ * Latencies are kept as raw microsecond values so that percentiles are exact; at
+ * the request rates this harness targets the memory cost is negligible.
+ * </p>
+ */
+final class LatencyRecorder {
+
+    private long[] latenciesMicros = new long[4096];
+    private int count;
+    private int errors;
+    private final Map<String, Integer> outcomes = new TreeMap<>();
+
+    synchronized void record(long latencyMicros, String outcome, boolean success) {
+        if (count == latenciesMicros.length) latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        latenciesMicros[count++] = latencyMicros;
+        if (!success) errors++;
+        outcomes.merge(outcome, 1, Integer::sum);
+    }
+
+    synchronized ScenarioReport report(String scenario, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        return new ScenarioReport(
+                scenario,
+                count,
+                errors,
+                count == 0 ? 0.0 : (double) errors / count,
+                elapsedSeconds <= 0 ? 0.0 : count / elapsedSeconds,
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.90),
+                percentileMillis(sorted, 0.99),
+                sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0,
+                new TreeMap<>(outcomes)
+        );
+    }
+
+    /** Nearest-rank percentile. */
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    /**
+     * Aggregated result of one scenario.
+     *
+     * @param scenario      the scenario name
+     * @param requests      completed requests
+     * @param errors        requests that failed (transport error or non-2xx status)
+     * @param errorRate     {@code errors / requests}
+     * @param throughputRps completed requests per second over the measured window
+     * @param p50Ms         median latency in milliseconds
+     * @param p90Ms         90th percentile latency in milliseconds
+     * @param p99Ms         99th percentile latency in milliseconds
+     * @param maxMs         maximum latency in milliseconds
+     * @param outcomes      request count per HTTP status (or exception type)
+     */
+    record ScenarioReport(
+            String scenario,
+            int requests,
+            int errors,
+            double errorRate,
+            double throughputRps,
+            double p50Ms,
+            double p90Ms,
+            double p99Ms,
+            double maxMs,
+            Map<String, Integer> outcomes
+    ) {}
+}
@@ -0,0 +1,262 @@
+package com.mcp.server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the {@code /admin/nlp}, {@code /admin} and {@code /users} endpoints.
+ * <p>
+ * Requests are issued at a fixed target rate regardless of how fast the server answers,
+ * and latency is measured from the <em>intended</em> send time. This avoids coordinated
+ * omission: a stalled server shows up as high percentiles instead of as a lower request rate.
+ * </p>
+ *
+ * <p>
+ * Run the application against {@link com.mcp.server.loadtest.stub.OpenAiStubServer}
+ * (profile {@code stub}) and then:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mcp.server.loadtest.LoadTestHarness \
+ *     -Dexec.args="--base-url=http://localhost:8080 --rps=50 --duration=60s --mix=nlp:1,admin:2,users:4"
+ * </pre>
+ * The report is printed as a table and written as JSON to {@code --out}
+ * (default {@code target/loadtest-report.json}). Scenario selection, prompts and
+ * payloads are driven by {@code --seed}, so two runs with the same options send the
+ * same request sequence.
+ * </p>
+ */
+public final class LoadTestHarness {
+
+    private static final String[] NAMES = {"Ada Lovelace", "Alan Turing", "Grace Hopper", "Edsger Dijkstra", "Barbara Liskov"};
+
+    private final String baseUrl;
+    private final double rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Duration requestTimeout;
+    private final int seedUsers;
+    private final long seed;
+    private final Map<String, Integer> mix;
+    private final Path out;
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient http;
+    private final List<String> knownIds = new ArrayList<>();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+
+    private LoadTestHarness(CommandLine cli) {
+        this.baseUrl = stripTrailingSlash(cli.value("base-url", "http://localhost:8080"));
+        this.rps = cli.doubleValue("rps", 20.0);
+        this.duration = cli.durationValue("duration", Duration.ofSeconds(60));
+        this.warmup = cli.durationValue("warmup", Duration.ofSeconds(10));
+        this.requestTimeout = cli.durationValue("timeout", Duration.ofSeconds(30));
+        this.seedUsers = cli.intValue("seed-users", 50);
+        this.seed = cli.longValue("seed", 42L);
+        this.mix = parseMix(cli.value("mix", "nlp:1,admin:2,users:4"));
+        this.out = Path.of(cli.value("out", "target/loadtest-report.json"));
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(cli.intValue("client-threads", 32)))
+                .build();
+        mix.keySet().forEach(s -> recorders.put(s, new LatencyRecorder()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestHarness(CommandLine.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        seedUsers();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] wheel = weightedWheel(mix);
+        long periodNanos = (long) (1_000_000_000L / rps);
+        long warmupNanos = warmup.toNanos();
+        long totalNanos = warmupNanos + duration.toNanos();
+
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended - start >= totalNanos) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            String scenario = wheel[random.nextInt(wheel.length)];
+            HttpRequest request = buildRequest(scenario, random);
+            boolean measured = intended - start >= warmupNanos;
+            inFlight.add(send(scenario, request, intended, measured));
+            if (inFlight.size() >= 10_000) inFlight.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .get(requestTimeout.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+
+        report(duration.toNanos() / 1e9);
+        http.executor().ifPresent(e -> ((ExecutorService) e).shutdownNow());
+    }
+
+    private CompletableFuture<Void> send(String scenario, HttpRequest request, long intendedNanos, boolean measured) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (!measured) return null;
+                    long latencyMicros = (System.nanoTime() - intendedNanos) / 1_000;
+                    LatencyRecorder recorder = recorders.get(scenario);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        recorder.record(latencyMicros, cause.getClass().getSimpleName(), false);
+                    } else {
+                        int status = response.statusCode();
+                        recorder.record(latencyMicros, String.valueOf(status), status >= 200 && status < 300);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Creates a fixed population of users through {@code POST /users} so that read
+     * scenarios hit existing rows.
+     */
+    private void seedUsers() throws IOException, InterruptedException {
+        for (int i = 0; i < seedUsers; i++) {
+            HttpResponse<String> response = http.send(
+                    post("/users", createUserBody(new SplittableRandom(seed + i), "seed-" + seed + "-" + i)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            knownIds.add(mapper.readTree(response.body()).path("id").asText());
+        }
+    }
+
+    private HttpRequest buildRequest(String scenario, SplittableRandom random) {
+        String id = knownIds.isEmpty() ? null : knownIds.get(random.nextInt(knownIds.size()));
+        int roll = random.nextInt(100);
+        return switch (scenario) {
+            case "nlp" -> post("/admin/nlp", json(Map.of("prompt", nlpPrompt(roll, id, random))));
+            case "admin" -> roll < 70 || id == null
+                    ? (roll < 35 || id == null ? get("/admin") : get("/admin/" + id))
+                    : post("/admin", createUserBody(random, "admin"));
+            case "users" -> roll < 80 && id != null
+                    ? (roll < 20 ? get("/users") : get("/users/" + id))
+                    : post("/users", createUserBody(random, "users"));
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        };
+    }
+
+    private static String nlpPrompt(int roll, String id, SplittableRandom random) {
+        if (roll < 40 && id != null) return "Get user with id '" + id + "'";
+        if (roll < 60) return "List all users";
+        if (roll < 80 && id != null) return "Update user with id '" + id + "', set age to " + (18 + random.nextInt(60));
+        String name = NAMES[random.nextInt(NAMES.length)];
+        return "Create a user with name '" + name + "', mail 'nlp-" + Long.toHexString(random.nextLong())
+                + "@example.com', age " + (18 + random.nextInt(60));
+    }
+
+    private String createUserBody(SplittableRandom random, String prefix) {
+        return json(Map.of(
+                "name", NAMES[random.nextInt(NAMES.length)],
+                "mail", prefix + "-" + Long.toHexString(random.nextLong()) + "@example.com",
+                "age", 18 + random.nextInt(60)));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String json(Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void report(double elapsedSeconds) throws IOException {
+        List<LatencyRecorder.ScenarioReport> scenarios = new ArrayList<>();
+        recorders.forEach((name, recorder) -> scenarios.add(recorder.report(name, elapsedSeconds)));
+
+        System.out.printf("%-8s %9s %9s %8s %9s %9s %9s %9s%n",
+                "scenario", "requests", "rps", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.ScenarioReport s : scenarios) {
+            System.out.printf("%-8s %9d %9.1f %8.2f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    s.scenario(), s.requests(), s.throughputRps(), s.errorRate() * 100,
+                    s.p50Ms(), s.p90Ms(), s.p99Ms(), s.maxMs(), s.outcomes());
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUrl);
+        config.put("targetRps", rps);
+        config.put("duration", duration.toString());
+        config.put("warmup", warmup.toString());
+        config.put("mix", mix);
+        config.put("seedUsers", seedUsers);
+        config.put("seed", seed);
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("environment", environment);
+        report.put("scenarios", scenarios);
+
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        mapper.writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1]) : 1;
+            if (weight > 0) mix.put(kv[0], weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("Empty scenario mix: " + spec);
+        return mix;
+    }
+
+    private static String[] weightedWheel(Map<String, Integer> mix) {
+        List<String> wheel = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) wheel.add(scenario);
+        });
+        return wheel.toArray(String[]::new);
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mcp.server.loadtest.stub;
+
+import java.util.SplittableRandom;
+
+/**
+ * Latency model used by {@link OpenAiStubServer} to simulate upstream response times.
+ * <p>
+ * Parsed from a compact {@code kind:arg[:arg]} notation:
+ * <ul>
+ *     <li>{@code fixed:200} - always 200 ms</li>
+ *     <li>{@code uniform:100:900} - uniformly distributed between 100 and 900 ms</li>
+ *     <li>{@code lognormal:400:1500} - log-normal with a median of 400 ms and a p99 of 1500 ms</li>
+ * </ul>
+ * The log-normal model is the default since it matches the long right tail of real
+ * LLM latencies much better than a uniform distribution.
+ * </p>
+ */
+public sealed interface LatencyDistribution {
+
+    /** z-score of the 99th percentile of the standard normal distribution. */
+    double Z_99 = 2.326347874;
+
+    long sampleMillis(SplittableRandom random);
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0].toLowerCase()) {
+                case "fixed" -> new Fixed(Long.parseLong(parts[1]));
+                case "uniform" -> new Uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal" -> LogNormal.ofMedianAndP99(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+        }
+    }
+
+    record Fixed(long millis) implements LatencyDistribution {
+        @Override
+        public long sampleMillis(SplittableRandom random) {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return "fixed:" + millis;
+        }
+    }
+
+    record Uniform(long minMillis, long maxMillis) implements LatencyDistribution {
+        public Uniform {
+            if (maxMillis < minMillis) throw new IllegalArgumentException("max must be >= min");
+        }
+
+        @Override
+        public long sampleMillis(SplittableRandom random) {
+            return minMillis == maxMillis ? minMillis : random.nextLong(minMillis, maxMillis + 1);
+        }
+
+        @Override
+        public String toString() {
+            return "uniform:" + minMillis + ":" + maxMillis;
+        }
+    }
+
+    record LogNormal(double mu, double sigma) implements LatencyDistribution {
+
+        static LogNormal ofMedianAndP99(double medianMillis, double p99Millis) {
+            if (medianMillis <= 0 || p99Millis < medianMillis) {
+                throw new IllegalArgumentException("Requires 0 < median <= p99");
+            }
+            return new LogNormal(Math.log(medianMillis), Math.log(p99Millis / medianMillis) / Z_99);
+        }
+
+        @Override
+        public long sampleMillis(SplittableRandom random) {
+            return Math.round(Math.exp(mu + sigma * gaussian(random)));
+        }
+
+        /** Box-Muller transform; {@link SplittableRandom} has no {@code nextGaussian} on Java 17. */
+        private static double gaussian(SplittableRandom random) {
+            double u1 = 1.0 - random.nextDouble();
+            double u2 = random.nextDouble();
+            return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("lognormal:%.0f:%.0f", Math.exp(mu), Math.exp(mu + sigma * Z_99));
+        }
+    }
+}
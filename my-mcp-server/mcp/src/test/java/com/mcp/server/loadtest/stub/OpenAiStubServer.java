@@ -0,0 +1,257 @@
+package com.mcp.server.loadtest.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Self-contained, OpenAI-compatible stub of the {@code /v1/chat/completions} endpoint.
+ * <p>
+ * Lets the application be load-tested without spending real API quota. Point
+ * {@code openai.api.url} at {@code http://localhost:<port>/v1/chat/completions}
+ * (or run the application with the {@code stub} profile) and start this class:
+ * </p>
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mcp.server.loadtest.stub.OpenAiStubServer \
+ *     -Dexec.args="--port=9090 --latency=lognormal:400:1500 --error-rate=0.01 --rate-limit-rate=0.02"
+ * </pre>
+ *
+ * <p>
+ * The assistant content is a CRUD command derived from the user prompt with simple
+ * keyword heuristics, so that {@code NlpCrudService} exercises its real code paths.
+ * Requests with {@code "stream": true} are answered as server-sent events in the
+ * same chunked format as the real API.
+ * </p>
+ *
+ * @see StubOptions
+ * @see LatencyDistribution
+ */
+public final class OpenAiStubServer {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern MAIL_PATTERN = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+    private static final Pattern AGE_PATTERN = Pattern.compile("age\\D{0,10}(\\d{1,3})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAME_PATTERN = Pattern.compile("name[d]?\\s*(?:is|to|=|:)?\\s*'([^']+)'", Pattern.CASE_INSENSITIVE);
+
+    private final StubOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong requests = new AtomicLong();
+    private final SplittableRandom seedSource;
+    private HttpServer server;
+
+    public OpenAiStubServer(StubOptions options) {
+        this.options = options;
+        this.seedSource = new SplittableRandom(options.seed());
+    }
+
+    public static void main(String[] args) throws IOException {
+        StubOptions options = StubOptions.parse(args);
+        OpenAiStubServer stub = new OpenAiStubServer(options);
+        stub.start();
+        System.out.printf("OpenAI stub listening on http://localhost:%d/v1/chat/completions (%s)%n",
+                stub.port(), options);
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+    }
+
+    /**
+     * Starts the HTTP listener. Each exchange is handled on its own worker so that
+     * simulated latency never blocks the acceptor.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(options.port()), options.backlog());
+        ExecutorService workers = Executors.newFixedThreadPool(options.workers());
+        server.setExecutor(workers);
+        server.createContext("/v1/chat/completions", this::handleCompletion);
+        server.createContext("/health", exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) server.stop(0);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("method_not_allowed", "Only POST is supported"));
+                return;
+            }
+
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = mapper.readTree(in);
+            }
+
+            // Each request gets its own generator forked from the seeded root so runs are reproducible
+            SplittableRandom random;
+            synchronized (seedSource) {
+                random = seedSource.split();
+            }
+            long n = requests.incrementAndGet();
+
+            sleep(options.latency().sampleMillis(random));
+
+            double roll = random.nextDouble();
+            if (roll < options.rateLimitRate()) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, error("rate_limit_exceeded", "Rate limit reached for requests"));
+                return;
+            }
+            if (roll < options.rateLimitRate() + options.errorRate()) {
+                respond(exchange, 500, error("server_error", "The server had an error while processing your request"));
+                return;
+            }
+
+            String model = request.path("model").asText("gpt-4o-mini");
+            String content = mapper.writeValueAsString(commandFor(lastUserMessage(request)));
+
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, n, model, content, random);
+            } else {
+                respond(exchange, 200, mapper.writeValueAsString(completion(n, model, content)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ObjectNode completion(long n, String model, String content) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("id", "chatcmpl-stub-" + n);
+        root.put("object", "chat.completion");
+        root.put("created", System.currentTimeMillis() / 1000);
+        root.put("model", model);
+        ArrayNode choices = root.putArray("choices");
+        ObjectNode choice = choices.addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = root.putObject("usage");
+        int completionTokens = Math.max(1, content.length() / 4);
+        usage.put("prompt_tokens", 120);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", 120 + completionTokens);
+        return root;
+    }
+
+    private void stream(HttpExchange exchange, long n, String model, String content, SplittableRandom random)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            int chunk = Math.max(1, options.streamChunkChars());
+            for (int i = 0; i < content.length(); i += chunk) {
+                String piece = content.substring(i, Math.min(content.length(), i + chunk));
+                writeEvent(out, mapper.writeValueAsString(delta(n, model, piece, null)));
+                sleep(options.streamChunkDelay().sampleMillis(random));
+            }
+            writeEvent(out, mapper.writeValueAsString(delta(n, model, null, "stop")));
+            writeEvent(out, "[DONE]");
+        }
+    }
+
+    private ObjectNode delta(long n, String model, String piece, String finishReason) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("id", "chatcmpl-stub-" + n);
+        root.put("object", "chat.completion.chunk");
+        root.put("created", System.currentTimeMillis() / 1000);
+        root.put("model", model);
+        ObjectNode choice = root.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (piece != null) delta.put("content", piece);
+        if (finishReason != null) choice.put("finish_reason", finishReason);
+        else choice.putNull("finish_reason");
+        return root;
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String lastUserMessage(JsonNode request) {
+        String last = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) last = message.path("content").asText("");
+        }
+        return last;
+    }
+
+    /**
+     * Derives a CRUD command from the prompt. Only the shape matters for load testing;
+     * the heuristics mirror the example prompts in the README.
+     */
+    static Map<String, Object> commandFor(String prompt) {
+        String lower = prompt.toLowerCase();
+        Matcher id = UUID_PATTERN.matcher(prompt);
+        String idValue = id.find() ? id.group() : null;
+
+        if (lower.startsWith("create") || lower.contains("add a user") || lower.contains("new user")) {
+            Matcher mail = MAIL_PATTERN.matcher(prompt);
+            Matcher age = AGE_PATTERN.matcher(prompt);
+            Matcher name = NAME_PATTERN.matcher(prompt);
+            return Map.of("operation", "create", "data", Map.of(
+                    "name", name.find() ? name.group(1) : "Stub User",
+                    "mail", mail.find() ? mail.group() : "stub-" + UUID.randomUUID() + "@example.com",
+                    "age", age.find() ? Integer.parseInt(age.group(1)) : 30));
+        }
+        if (lower.startsWith("update") && idValue != null) {
+            Matcher age = AGE_PATTERN.matcher(prompt);
+            return Map.of("operation", "update", "data", age.find()
+                    ? Map.of("id", idValue, "age", Integer.parseInt(age.group(1)))
+                    : Map.of("id", idValue));
+        }
+        if (lower.startsWith("delete") && idValue != null) {
+            return Map.of("operation", "delete", "data", Map.of("id", idValue));
+        }
+        return Map.of("operation", "get", "data", idValue != null ? Map.of("id", idValue) : Map.of());
+    }
+
+    private String error(String code, String message) throws IOException {
+        return mapper.writeValueAsString(Map.of("error", Map.of("message", message, "type", code, "code", code)));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) Thread.sleep(millis);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mcp.server.loadtest.stub;
+
+import com.mcp.server.loadtest.CommandLine;
+
+/**
+ * Command-line options of {@link OpenAiStubServer}.
+ *
+ * @param port              listen port ({@code --port}, default 9090)
+ * @param workers           handler threads ({@code --workers}, default 256)
+ * @param backlog           TCP accept backlog ({@code --backlog}, default 1024)
+ * @param latency           simulated time to first byte ({@code --latency}, default {@code lognormal:400:1500})
+ * @param errorRate         fraction of requests answered with HTTP 500 ({@code --error-rate})
+ * @param rateLimitRate     fraction of requests answered with HTTP 429 ({@code --rate-limit-rate})
+ * @param streamChunkChars  characters per streamed delta ({@code --stream-chunk-chars}, default 8)
+ * @param streamChunkDelay  delay between streamed deltas ({@code --stream-chunk-delay}, default {@code fixed:20})
+ * @param seed              random seed, so that error injection and latencies are reproducible ({@code --seed})
+ */
+public record StubOptions(
+        int port,
+        int workers,
+        int backlog,
+        LatencyDistribution latency,
+        double errorRate,
+        double rateLimitRate,
+        int streamChunkChars,
+        LatencyDistribution streamChunkDelay,
+        long seed
+) {
+
+    public StubOptions {
+        if (errorRate < 0 || rateLimitRate < 0 || errorRate + rateLimitRate > 1) {
+            throw new IllegalArgumentException("error-rate + rate-limit-rate must be within [0, 1]");
+        }
+    }
+
+    public static StubOptions parse(String[] args) {
+        CommandLine cli = CommandLine.parse(args);
+        return new StubOptions(
+                cli.intValue("port", 9090),
+                cli.intValue("workers", 256),
+                cli.intValue("backlog", 1024),
+                LatencyDistribution.parse(cli.value("latency", "lognormal:400:1500")),
+                cli.doubleValue("error-rate", 0.0),
+                cli.doubleValue("rate-limit-rate", 0.0),
+                cli.intValue("stream-chunk-chars", 8),
+                LatencyDistribution.parse(cli.value("stream-chunk-delay", "fixed:20")),
+                cli.longValue("seed", 42L)
+        );
+    }
+}